@@ -19,13 +19,18 @@
 package org.openbase.bco.bcozy;
 
 import com.guigarage.responsive.ResponsiveHandler;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
-import javafx.concurrent.Task;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.openbase.bco.bcozy.controller.*;
+import org.openbase.bco.bcozy.util.StartupProfiler;
 import org.openbase.bco.bcozy.view.*;
 import org.openbase.bco.registry.remote.Registries;
 import org.openbase.jps.core.JPService;
@@ -37,13 +42,18 @@ import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
 import org.openbase.jul.pattern.Remote;
 import org.openbase.jul.pattern.Remote.ConnectionState;
-import org.openbase.jul.schedule.GlobalCachedExecutorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.prefs.Preferences;
 import org.openbase.bco.authentication.lib.jp.JPAuthentication;
 import org.openbase.jps.exception.JPNotAvailableException;
 
@@ -79,11 +89,24 @@ public class BCozy extends Application {
     private MaintenanceLayerController maintenanceLayerController;
     private EditingLayerController editingLayerController;
     private Future initTask;
+    private ExecutorService startupExecutor;
+
+    /**
+     * The tasks of all submitted startup stages, kept to interrupt them on shutdown.
+     */
+    private final List<Future<?>> startupTaskList = new CopyOnWriteArrayList<>();
+    private volatile boolean startupCanceled;
 
     private Scene mainScene;
 
     public static boolean baseColorIsWhite = true;
 
+    private static final PseudoClass LIGHT_THEME_PSEUDO_CLASS = PseudoClass.getPseudoClass(Constants.LIGHT_THEME_CSS_NAME);
+    private static final PseudoClass DARK_THEME_PSEUDO_CLASS = PseudoClass.getPseudoClass(Constants.DARK_THEME_CSS_NAME);
+    private static final String THEME_PREFERENCE_KEY = "theme";
+
+    private static String currentTheme;
+
     private static Observer<ConnectionState> connectionObserver;
 
     public BCozy() {
@@ -115,6 +138,7 @@ public class BCozy extends Application {
 
     @Override
     public void start(final Stage primaryStage) throws InitializationException, InterruptedException, InstantiationException {
+        final StartupProfiler.Phase startPhase = StartupProfiler.getInstance().begin("start");
         BCozy.primaryStage = primaryStage;
         registerResponsiveHandler();
 
@@ -151,7 +175,8 @@ public class BCozy extends Application {
         primaryStage.setHeight(screenHeight);
         mainScene = new Scene(root, screenWidth, screenHeight);
         primaryStage.setScene(mainScene);
-        primaryStage.getScene().getStylesheets().addAll(Constants.DEFAULT_CSS, Constants.LIGHT_THEME_CSS);
+        // applied before the first frame to avoid showing the wrong theme
+        changeTheme(getPersistedTheme());
 
         new MainMenuController(foregroundPane);
         new CenterPaneController(foregroundPane);
@@ -174,52 +199,108 @@ public class BCozy extends Application {
             Thread.currentThread().interrupt();
         }
 
+        startPhase.close();
         initRemotesAndLocation();
     }
 
+    /**
+     * Starts the initialization of all remotes and layers as a graph of concurrent stages.
+     * The location layer only depends on the location registry, the menus and the unit layers wait for all registries
+     * and are populated independently of each other. The loading pane is hidden as soon as the shapes are applied and
+     * the first unit update after connecting the units pane was performed.
+     */
     private void initRemotesAndLocation() {
-        initTask = GlobalCachedExecutorService.submit(new Task() {
-            @Override
-            protected Object call() throws java.lang.Exception {
-                try {
-                    loadingPane.setTextLabelIdentifier("waitForConnection");
-                    Registries.waitForData();
-
-                    loadingPane.setTextLabelIdentifier("fillContextMenu");
-                    foregroundPane.init();
-
-                    contextMenuController.initTitledPaneMap();
-
-                    loadingPane.setTextLabelIdentifier("connectLocationRemote");
-                    locationPaneController.connectLocationRemote();
-                    unitsPaneController.connectUnitRemote();
-                    maintenanceLayerController.connectUnitRemote();
-                    editingLayerController.connectUnitRemote();
-
-                    return null;
-                } catch (Exception ex) {
-                    loadingPane.setTextLabelIdentifier("errorDuringStartup");
-                    Thread.sleep(3000);
-                    Exception exx = new FatalImplementationErrorException("Could not init panes", this, ex);
-                    ExceptionPrinter.printHistoryAndExit(exx, LOGGER);
-                    throw exx;
-                }
-            }
+        startupExecutor = Executors.newFixedThreadPool(Constants.STARTUP_THREAD_POOL_SIZE, runnable -> {
+            final Thread thread = new Thread(runnable, "BCozyStartup");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-            @Override
-            protected void succeeded() {
-                super.succeeded();
-                loadingPane.setVisible(false);
+        loadingPane.setTextLabelIdentifier("waitForConnection");
+        final CompletableFuture<Void> locationStage = runStage("connectLocationRemote", locationPaneController::connectLocationRemote);
+
+        final CompletableFuture<Void> registryStage = runStage("waitForData", Registries::waitForData);
+        registryStage.thenRun(() -> loadingPane.setTextLabelIdentifier("fillContextMenu"));
+        final CompletableFuture<Void> menuStage = registryStage.thenCompose(result -> runStage("initForegroundPane", foregroundPane::init));
+        final CompletableFuture<Void> contextMenuStage = registryStage.thenCompose(result -> runStage("initTitledPaneMap", contextMenuController::initTitledPaneMap));
+        final CompletableFuture<Void> unitsStage = registryStage.thenCompose(result -> runStage("connectUnitsPane", unitsPaneController::connectUnitRemote));
+        final CompletableFuture<Void> maintenanceStage = registryStage.thenCompose(result -> runStage("connectMaintenanceLayer", maintenanceLayerController::connectUnitRemote));
+        final CompletableFuture<Void> editingStage = registryStage.thenCompose(result -> runStage("connectEditingLayer", editingLayerController::connectUnitRemote));
+        CompletableFuture.allOf(menuStage, contextMenuStage).thenRun(() -> loadingPane.setTextLabelIdentifier("connectLocationRemote"));
+
+        // the location stage completes once the shapes are applied, the units are displayed by the next unit update.
+        final CompletableFuture<Void> initialUnitsUpdate = unitsStage.thenCompose(result -> unitsPaneController.updateUnits());
+        CompletableFuture.allOf(locationStage, initialUnitsUpdate).thenRun(() -> Platform.runLater(() -> loadingPane.setVisible(false)));
+
+        initTask = CompletableFuture.allOf(locationStage, menuStage, contextMenuStage, unitsStage, maintenanceStage, editingStage).whenComplete((result, throwable) -> {
+            startupExecutor.shutdown();
+            if (throwable == null) {
+                StartupProfiler.getInstance().finish();
+                return;
+            }
+            // failures caused by the application shutdown are handled by stop()
+            if (startupCanceled) {
+                return;
             }
+            loadingPane.setTextLabelIdentifier("errorDuringStartup");
+            Platform.runLater(() -> {
+                loadingPane.setVisible(true);
+
+                // keep the error visible for a while without blocking any thread.
+                final PauseTransition exitDelay = new PauseTransition(Duration.seconds(3));
+                exitDelay.setOnFinished(event -> ExceptionPrinter.printHistoryAndExit(new FatalImplementationErrorException("Could not init panes", BCozy.this, throwable), LOGGER));
+                exitDelay.play();
+            });
         });
     }
 
+    /**
+     * Executes a single startup stage on the startup executor. The task is kept, so it can be interrupted on shutdown,
+     * which canceling the returned future would not do.
+     *
+     * @param name the name of the stage used for profiling.
+     * @param stage the work to execute.
+     * @return a future which is completed exceptionally if the stage has failed or the startup was canceled.
+     */
+    private CompletableFuture<Void> runStage(final String name, final StartupStage stage) {
+        final CompletableFuture<Void> stageFuture = new CompletableFuture<>();
+        if (startupCanceled) {
+            stageFuture.cancel(false);
+            return stageFuture;
+        }
+        startupTaskList.add(startupExecutor.submit(() -> {
+            try (final StartupProfiler.Phase phase = StartupProfiler.getInstance().begin(name)) {
+                stage.run();
+                stageFuture.complete(null);
+            } catch (Exception ex) {
+                stageFuture.completeExceptionally(new CouldNotPerformException("Startup stage " + name + " failed!", ex));
+            }
+        }));
+        return stageFuture;
+    }
+
+    /**
+     * A part of the startup which may block.
+     */
+    @FunctionalInterface
+    private interface StartupStage {
+
+        void run() throws Exception;
+    }
+
     @Override
     public void stop() {
         boolean errorOccured = false;
 
+        StartupProfiler.getInstance().writeReport();
+
         if (initTask != null && !initTask.isDone()) {
+            startupCanceled = true;
+            for (final Future<?> startupTask : startupTaskList) {
+                startupTask.cancel(true);
+            }
             initTask.cancel(true);
+            startupExecutor.shutdownNow();
             try {
                 initTask.get();
             } catch (InterruptedException | ExecutionException ex) {
@@ -254,28 +335,71 @@ public class BCozy extends Application {
 
     /**
      * Method to change application wide theme from other locations in the view.
+     * <p>
+     * The stylesheets of all themes are loaded once. The light theme defines the default color variables of the root
+     * node and the dark theme overrides them while the root node is in the dark pseudo class state. So a theme change
+     * toggles the pseudo class of the root instead of reloading the stylesheets. The selected theme is persisted and
+     * restored on the next start.
      *
      * @param themeName the name of the theme to be set
      */
     public static void changeTheme(final String themeName) {
-        if (primaryStage != null) {
-            switch (themeName) {
-                case Constants.DARK_THEME_CSS:
-                    primaryStage.getScene().getStylesheets().clear();
-                    primaryStage.getScene().getStylesheets().addAll(Constants.DEFAULT_CSS, Constants.DARK_THEME_CSS);
-                    ImageViewProvider.colorizeIconsToWhite();
-                    baseColorIsWhite = true;
-                    break;
-                case Constants.LIGHT_THEME_CSS:
-                    primaryStage.getScene().getStylesheets().clear();
-                    primaryStage.getScene().getStylesheets().addAll(Constants.DEFAULT_CSS, Constants.LIGHT_THEME_CSS);
-                    ImageViewProvider.colorizeIconsToBlack();
-                    baseColorIsWhite = false;
-                    break;
-                default:
-                    primaryStage.getScene().getStylesheets().clear();
-                    break;
-            }
+        if (primaryStage == null || primaryStage.getScene() == null || themeName.equals(currentTheme)) {
+            return;
+        }
+        switch (themeName) {
+            case Constants.DARK_THEME_CSS:
+                applyTheme(primaryStage.getScene(), themeName);
+                ImageViewProvider.colorizeIconsToWhite();
+                baseColorIsWhite = true;
+                break;
+            case Constants.LIGHT_THEME_CSS:
+                applyTheme(primaryStage.getScene(), themeName);
+                ImageViewProvider.colorizeIconsToBlack();
+                baseColorIsWhite = false;
+                break;
+            default:
+                LOGGER.warn("Theme " + themeName + " is not supported!");
+                if (currentTheme == null) {
+                    // the scene is not styled yet
+                    changeTheme(Constants.LIGHT_THEME_CSS);
+                }
+                return;
+        }
+        currentTheme = themeName;
+        Preferences.userNodeForPackage(BCozy.class).put(THEME_PREFERENCE_KEY, themeName);
+    }
+
+    /**
+     * Applies the given theme to a scene. The stylesheets are only added if the scene does not contain them yet.
+     *
+     * @param scene the scene to style.
+     * @param themeName the path of the theme css file.
+     */
+    public static void applyTheme(final Scene scene, final String themeName) {
+        if (!scene.getStylesheets().contains(Constants.DEFAULT_CSS)) {
+            scene.getStylesheets().setAll(Constants.DEFAULT_CSS, Constants.LIGHT_THEME_CSS, Constants.DARK_THEME_CSS);
+        }
+        final Parent root = scene.getRoot();
+        root.pseudoClassStateChanged(LIGHT_THEME_PSEUDO_CLASS, Constants.LIGHT_THEME_CSS.equals(themeName));
+        root.pseudoClassStateChanged(DARK_THEME_PSEUDO_CLASS, Constants.DARK_THEME_CSS.equals(themeName));
+    }
+
+    /**
+     * @return the path of the theme css file selected by the user, the light theme if no supported theme was selected
+     * yet.
+     */
+    public static String getPersistedTheme() {
+        final Preferences preferences = Preferences.userNodeForPackage(BCozy.class);
+        final String themeName = preferences.get(THEME_PREFERENCE_KEY, Constants.LIGHT_THEME_CSS);
+        switch (themeName) {
+            case Constants.DARK_THEME_CSS:
+            case Constants.LIGHT_THEME_CSS:
+                return themeName;
+            default:
+                LOGGER.warn("Persisted theme " + themeName + " is not supported! Fall back to the light theme.");
+                preferences.remove(THEME_PREFERENCE_KEY);
+                return Constants.LIGHT_THEME_CSS;
         }
     }
 
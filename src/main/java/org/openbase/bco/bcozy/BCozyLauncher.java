@@ -22,7 +22,10 @@ import javafx.application.Platform;
 import org.openbase.bco.authentication.lib.jp.JPAuthentication;
 import org.openbase.bco.authentication.lib.jp.JPCredentialsDirectory;
 import org.openbase.bco.authentication.lib.jp.JPInitializeCredentials;
+import org.openbase.bco.bcozy.jp.JPAnimationBudget;
 import org.openbase.bco.bcozy.jp.JPLanguage;
+import org.openbase.bco.bcozy.jp.JPProfileStartup;
+import org.openbase.bco.bcozy.jp.JPRenderMode;
 import org.openbase.bco.bcozy.view.LoadingPane;
 import org.openbase.jps.core.JPService;
 import org.openbase.jps.preset.JPDebugMode;
@@ -61,6 +64,9 @@ public class BCozyLauncher {
         JPService.setApplicationName(APP_NAME);
         JPService.registerProperty(JPDebugMode.class);
         JPService.registerProperty(JPLanguage.class);
+        JPService.registerProperty(JPRenderMode.class);
+        JPService.registerProperty(JPAnimationBudget.class);
+        JPService.registerProperty(JPProfileStartup.class);
         JPService.registerProperty(JPInitializeCredentials.class);
         JPService.registerProperty(JPCredentialsDirectory.class);
         JPService.registerProperty(JPRSBThreadPooling.class);
@@ -18,11 +18,22 @@
  */
 package org.openbase.bco.bcozy.controller;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import org.openbase.bco.bcozy.util.StartupProfiler;
+import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.ForegroundPane;
 import org.openbase.bco.bcozy.view.pane.unit.TitledUnitPaneContainer;
 import org.openbase.bco.bcozy.view.location.LocationPane;
@@ -32,12 +43,24 @@ import org.openbase.bco.registry.remote.Registries;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.exception.printer.LogLevel;
+import org.openbase.jul.schedule.GlobalCachedExecutorService;
+import org.openbase.jul.schedule.SyncObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rst.domotic.unit.UnitConfigType.UnitConfig;
 import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
 
 /**
+ * Creates the unit panes shown in the context menu for the selected location.
+ * <p>
+ * The containers are created on demand: during startup only the root location is prepared. Whenever a location is
+ * selected, its parent, children and connected tiles are prefetched in the background. At most
+ * {@link Constants#CONTEXT_MENU_CACHE_SIZE} containers are kept, the least recently used ones are cleared to release
+ * their remote observers.
+ * <p>
+ * The units of a location are resolved in the background while the panes are always created on the application
+ * thread. The cache only holds the futures of the containers, so the lock is never held while a container is built.
+ *
  * @author tmichalksi
  * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
  */
@@ -46,7 +69,25 @@ public class ContextMenuController {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContextMenuController.class);
 
     private final ForegroundPane foregroundPane;
-    private final Map<String, TitledUnitPaneContainer> titledPaneMap;
+    private final LocationPane locationPane;
+
+    /**
+     * The containers by location id in access order, so the eldest entry is the least recently used one.
+     */
+    private final Map<String, CompletableFuture<TitledUnitPaneContainer>> titledPaneMap;
+    private final SyncObject titledPaneMapLock = new SyncObject("TitledPaneMapLock");
+
+    /**
+     * The location requested to be displayed, its container may still be built.
+     */
+    private String displayedLocationId;
+
+    /**
+     * The location whose container is currently set on the context menu.
+     */
+    private String shownLocationId;
+    private String rootLocationId;
+    private Future<Void> prefetchTask;
 
     /**
      * Constructor for the ContextMenuController.
@@ -56,7 +97,8 @@ public class ContextMenuController {
      */
     public ContextMenuController(final ForegroundPane foregroundPane, final LocationPane backgroundPane) {
         this.foregroundPane = foregroundPane;
-        this.titledPaneMap = new HashMap<>();
+        this.locationPane = backgroundPane;
+        this.titledPaneMap = new LinkedHashMap<>(Constants.CONTEXT_MENU_CACHE_SIZE, 0.75f, true);
 
 
         backgroundPane.addSelectedLocationIdListener(new ChangeListener<String>() {
@@ -78,7 +120,9 @@ public class ContextMenuController {
     //idea: addselected unit id listener
 
     /**
-     * Takes a locationId and creates new TitledPanes for all UnitTypes.
+     * Takes a locationId and shows the TitledPanes of all UnitTypes. The panes are created if not already cached and
+     * shown as soon as they are available, unless another location was selected in the meantime. The neighbours of
+     * the location are prefetched afterwards.
      *
      * @param locationID locationID
      * @throws CouldNotPerformException CouldNotPerformException
@@ -90,59 +134,217 @@ public class ContextMenuController {
                 throw new CouldNotPerformException("No location is selected.");
             }
 
-            TitledUnitPaneContainer titledPaneContainer;
-            if (titledPaneMap.containsKey(locationID)) {
-                titledPaneContainer = titledPaneMap.get(locationID);
-            } else {
-                titledPaneContainer = new TitledUnitPaneContainer();
-                fillTitledPaneContainer(titledPaneContainer, locationID);
-            }
-
-            foregroundPane.getContextMenu().setTitledPaneContainer(titledPaneContainer);
+            getTitledPaneContainer(locationID, true).thenAcceptAsync(titledPaneContainer -> {
+                synchronized (titledPaneMapLock) {
+                    if (!locationID.equals(displayedLocationId)) {
+                        return;
+                    }
+                    shownLocationId = locationID;
+                }
+                foregroundPane.getContextMenu().setTitledPaneContainer(titledPaneContainer);
+            }, Platform::runLater).exceptionally(throwable -> {
+                if (!(throwable.getCause() instanceof CancellationException)) {
+                    ExceptionPrinter.printHistory("Units for selected location[" + locationID + "] could not be loaded.", throwable, LOGGER, LogLevel.ERROR);
+                }
+                return null;
+            });
+            prefetchNeighbours(locationID);
         } catch (CouldNotPerformException ex) {
             throw new CouldNotPerformException("Could not set context menu.", ex);
         }
     }
 
-    private void fillTitledPaneContainer(final TitledUnitPaneContainer titledPaneContainer, final String locationID) throws CouldNotPerformException, InterruptedException {
-        try {
-            titledPaneMap.put(locationID, titledPaneContainer);
+    /**
+     * Returns the future of the cached container of the given location or starts building a new one.
+     *
+     * @param locationID the id of the location.
+     * @param display flag to mark the container as displayed, so it is not evicted until another one is displayed.
+     */
+    private CompletableFuture<TitledUnitPaneContainer> getTitledPaneContainer(final String locationID, final boolean display) {
+        final CompletableFuture<TitledUnitPaneContainer> newFuture = new CompletableFuture<>();
+        final CompletableFuture<TitledUnitPaneContainer> future;
+        synchronized (titledPaneMapLock) {
+            future = titledPaneMap.computeIfAbsent(locationID, id -> newFuture);
+            if (display) {
+                displayedLocationId = locationID;
+            }
+            evictTitledPaneContainers();
+        }
+        if (future == newFuture) {
+            buildTitledPaneContainer(locationID, newFuture);
+        }
+        return future;
+    }
 
-            for (final Map.Entry<UnitType, List<UnitRemote>> nextEntry : Units.getUnit(locationID, false, Units.LOCATION).getUnitMap().entrySet()) {
-                if (nextEntry.getValue().isEmpty()) {
+    /**
+     * Resolves the units of the given location in the background and creates their panes on the application thread.
+     * A failed container is removed from the cache, so it is built again on the next request.
+     */
+    private void buildTitledPaneContainer(final String locationID, final CompletableFuture<TitledUnitPaneContainer> future) {
+        GlobalCachedExecutorService.submit(() -> {
+            try {
+                final Map<UnitType, List<UnitRemote>> unitMap = resolveUnitMap(locationID);
+                Platform.runLater(() -> {
+                    // the container is not needed anymore if it was evicted in the meantime.
+                    synchronized (titledPaneMapLock) {
+                        if (titledPaneMap.get(locationID) != future) {
+                            future.cancel(false);
+                            return;
+                        }
+                    }
+                    final TitledUnitPaneContainer titledPaneContainer = new TitledUnitPaneContainer();
+                    try (final StartupProfiler.Phase phase = StartupProfiler.getInstance().begin("unitPanes " + locationID)) {
+                        fillTitledPaneContainer(titledPaneContainer, unitMap);
+                        future.complete(titledPaneContainer);
+                    } catch (InterruptedException ex) {
+                        discardTitledPaneContainer(locationID, future, ex);
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (CouldNotPerformException | InterruptedException ex) {
+                discardTitledPaneContainer(locationID, future, new CouldNotPerformException("Could not fill titled pane container.", ex));
+            }
+            return null;
+        });
+    }
+
+    private void discardTitledPaneContainer(final String locationID, final CompletableFuture<TitledUnitPaneContainer> future, final Throwable cause) {
+        synchronized (titledPaneMapLock) {
+            titledPaneMap.remove(locationID, future);
+        }
+        future.completeExceptionally(cause);
+    }
+
+    /**
+     * Clears the least recently used containers until the cache size is reached again.
+     * The container requested to be displayed, the one still shown until it is replaced and the one of the root
+     * location are never evicted.
+     */
+    private void evictTitledPaneContainers() {
+        synchronized (titledPaneMapLock) {
+            final Iterator<Map.Entry<String, CompletableFuture<TitledUnitPaneContainer>>> entryIterator = titledPaneMap.entrySet().iterator();
+            while (titledPaneMap.size() > Constants.CONTEXT_MENU_CACHE_SIZE && entryIterator.hasNext()) {
+                final Map.Entry<String, CompletableFuture<TitledUnitPaneContainer>> entry = entryIterator.next();
+                if (entry.getKey().equals(displayedLocationId) || entry.getKey().equals(shownLocationId) || entry.getKey().equals(rootLocationId)) {
                     continue;
                 }
-                
-                // filter shadowned units
-                switch(nextEntry.getKey()) {
-                    case BUTTON:
-                    case DEVICE:
-                    case UNKNOWN:
-                        continue;
+                entryIterator.remove();
+                entry.getValue().thenAcceptAsync(TitledUnitPaneContainer::clearTitledPane, Platform::runLater);
+            }
+        }
+    }
+
+    /**
+     * Resolves the units of the given location grouped by their type. Shadowed types are filtered out.
+     */
+    private Map<UnitType, List<UnitRemote>> resolveUnitMap(final String locationID) throws CouldNotPerformException, InterruptedException {
+        final Map<UnitType, List<UnitRemote>> unitMap = new LinkedHashMap<>();
+        for (final Map.Entry<UnitType, List<UnitRemote>> nextEntry : Units.getUnit(locationID, false, Units.LOCATION).getUnitMap().entrySet()) {
+            if (nextEntry.getValue().isEmpty()) {
+                continue;
+            }
+
+            // filter shadowned units
+            switch (nextEntry.getKey()) {
+                case BUTTON:
+                case DEVICE:
+                case UNKNOWN:
+                    continue;
+            }
+            unitMap.put(nextEntry.getKey(), new ArrayList<>(nextEntry.getValue()));
+        }
+        return unitMap;
+    }
+
+    /**
+     * Creates the panes of the given units. Must be called on the application thread.
+     */
+    private void fillTitledPaneContainer(final TitledUnitPaneContainer titledPaneContainer, final Map<UnitType, List<UnitRemote>> unitMap) throws InterruptedException {
+        for (final Map.Entry<UnitType, List<UnitRemote>> nextEntry : unitMap.entrySet()) {
+            titledPaneContainer.createAndAddNewTitledPane(nextEntry.getKey(), nextEntry.getValue());
+        }
+
+        titledPaneContainer.addDummyPane(); //TODO: Find a way to solve this problem properly...
+    }
+
+    /**
+     * Creates the containers of the parent, the children and the connected tiles of the given location in the
+     * background. The containers are requested one after another, so the application thread creates the panes of at
+     * most one prefetched container at a time and stays responsive. A still running prefetch of the previously
+     * selected location is canceled.
+     *
+     * @param locationID the id of the selected location.
+     */
+    private void prefetchNeighbours(final String locationID) {
+        synchronized (titledPaneMapLock) {
+            if (prefetchTask != null && !prefetchTask.isDone()) {
+                prefetchTask.cancel(true);
+            }
+
+            prefetchTask = GlobalCachedExecutorService.submit(() -> {
+                // keep room for the requested, the shown and the root container.
+                final List<String> neighbourIdList = new ArrayList<>(resolveNeighbourIds(locationID));
+                final int prefetchLimit = Math.min(neighbourIdList.size(), Constants.CONTEXT_MENU_CACHE_SIZE - 3);
+                for (final String neighbourId : neighbourIdList.subList(0, prefetchLimit)) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return null;
+                    }
+                    try {
+                        getTitledPaneContainer(neighbourId, false).get();
+                    } catch (ExecutionException | CancellationException ex) {
+                        // a failed or evicted neighbour is built again on demand.
+                    }
                 }
-                titledPaneContainer.createAndAddNewTitledPane(nextEntry.getKey(), nextEntry.getValue());
+                return null;
+            });
+        }
+    }
+
+    private Set<String> resolveNeighbourIds(final String locationID) throws CouldNotPerformException, InterruptedException {
+        final Set<String> neighbourIds = new LinkedHashSet<>();
+        final UnitConfig locationUnitConfig = Registries.getLocationRegistry().getLocationConfigById(locationID);
+
+        neighbourIds.addAll(locationUnitConfig.getLocationConfig().getChildIdList());
+
+        // tiles reachable via doors, windows and passages
+        for (final UnitConfig connectionUnitConfig : Registries.getLocationRegistry().getConnectionConfigs()) {
+            if (connectionUnitConfig.getConnectionConfig().getTileIdList().contains(locationID)) {
+                neighbourIds.addAll(connectionUnitConfig.getConnectionConfig().getTileIdList());
             }
+        }
 
-            titledPaneContainer.addDummyPane(); //TODO: Find a way to solve this problem properly...
-        } catch (CouldNotPerformException ex) {
-            throw new CouldNotPerformException("Could not fill titled pane container.", ex);
+        if (!locationUnitConfig.getLocationConfig().getRoot()) {
+            neighbourIds.add(locationUnitConfig.getPlacementConfig().getLocationId());
         }
+
+        neighbourIds.remove(locationID);
+        return neighbourIds;
     }
 
     /**
      * Clears all stored titledPanes and clears the map afterwards.
      */
     public void clearTitledPaneMap() {
-        for (final Map.Entry<String, TitledUnitPaneContainer> nextEntry : this.titledPaneMap.entrySet()) {
-            nextEntry.getValue().clearTitledPane();
-        }
+        synchronized (titledPaneMapLock) {
+            if (prefetchTask != null && !prefetchTask.isDone()) {
+                prefetchTask.cancel(true);
+            }
 
-        this.titledPaneMap.clear();
+            for (final CompletableFuture<TitledUnitPaneContainer> titledPaneFuture : this.titledPaneMap.values()) {
+                titledPaneFuture.thenAcceptAsync(TitledUnitPaneContainer::clearTitledPane, Platform::runLater);
+            }
+
+            this.titledPaneMap.clear();
+            this.displayedLocationId = null;
+            this.shownLocationId = null;
+        }
         this.foregroundPane.getContextMenu().clearVerticalScrollPane();
     }
 
     /**
-     * Initializes and saves all TitledPanes of all Locations.
+     * Initializes the TitledPanes of the root location and of the currently selected location and waits until they
+     * are created. Must not be called on the application thread, which creates the panes.
+     * The panes of all other locations are created on demand.
      *
      * @throws CouldNotPerformException CouldNotPerformException
      * @throws java.lang.InterruptedException
@@ -150,10 +352,28 @@ public class ContextMenuController {
     public void initTitledPaneMap() throws CouldNotPerformException, InterruptedException {
         try {
             for (final UnitConfig locationUnitConfig : Registries.getLocationRegistry().getLocationConfigs()) {
-                final String locationID = locationUnitConfig.getId();
+                if (locationUnitConfig.getLocationConfig().getRoot()) {
+                    rootLocationId = locationUnitConfig.getId();
+                    break;
+                }
+            }
 
-                final TitledUnitPaneContainer titledPaneContainer = new TitledUnitPaneContainer();
-                fillTitledPaneContainer(titledPaneContainer, locationID);
+            final List<CompletableFuture<TitledUnitPaneContainer>> titledPaneFutureList = new ArrayList<>();
+            if (rootLocationId != null) {
+                titledPaneFutureList.add(getTitledPaneContainer(rootLocationId, false));
+            }
+
+            final String selectedLocationId = locationPane.selectedLocationId.get();
+            if (selectedLocationId != null && !Constants.DUMMY_LABEL.equals(selectedLocationId) && !"none".equals(selectedLocationId)) {
+                titledPaneFutureList.add(getTitledPaneContainer(selectedLocationId, false));
+            }
+
+            for (final CompletableFuture<TitledUnitPaneContainer> titledPaneFuture : titledPaneFutureList) {
+                try {
+                    titledPaneFuture.get();
+                } catch (ExecutionException | CancellationException ex) {
+                    throw new CouldNotPerformException("Could not create unit panes.", ex);
+                }
             }
         } catch (CouldNotPerformException | NullPointerException ex) {
             ExceptionPrinter.printHistory(new CouldNotPerformException("Could not init initTitledPaneMap!", ex), LOGGER);
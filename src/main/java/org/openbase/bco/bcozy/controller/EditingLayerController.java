@@ -18,19 +18,15 @@
  */
 package org.openbase.bco.bcozy.controller;
 
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import javafx.application.Platform;
-import javafx.geometry.Point2D;
-import javax.vecmath.Point3d;
+import javafx.beans.binding.Bindings;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy.Level;
+import org.openbase.bco.bcozy.model.UnitPlacement;
+import org.openbase.bco.bcozy.model.UnitPlacementIndex;
+import org.openbase.bco.bcozy.util.CoalescingUpdateScheduler;
 import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.SimpleUnitSymbolsPane;
 import org.openbase.bco.bcozy.view.location.LocationPane;
-import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
+import org.openbase.bco.bcozy.view.pane.unit.UnitPaneFactoryImpl;
 import org.openbase.bco.dal.remote.unit.Units;
 import org.openbase.bco.registry.remote.Registries;
 import org.openbase.jul.exception.CouldNotPerformException;
@@ -39,13 +35,8 @@ import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rct.Transform;
 import rst.domotic.registry.LocationRegistryDataType.LocationRegistryData;
 import rst.domotic.registry.UnitRegistryDataType.UnitRegistryData;
-import rst.domotic.state.EnablingStateType;
-import rst.domotic.unit.UnitConfigType.UnitConfig;
-import rst.domotic.unit.UnitTemplateType;
-import rst.geometry.PoseType;
 
 /**
  * Controller for the editing layer of the room plan that includes buttons for all supported unit types.
@@ -76,6 +67,7 @@ public class EditingLayerController {
         unitPane.scaleYProperty().bind(locationPane.scaleYProperty());
         unitPane.translateXProperty().bind(locationPane.translateXProperty());
         unitPane.translateYProperty().bind(locationPane.translateYProperty());
+        unitPane.clusterLevelProperty().bind(Bindings.createObjectBinding(() -> Level.forScale(locationPane.getScaleX()), locationPane.scaleXProperty()));
     }
 
     /**
@@ -90,31 +82,13 @@ public class EditingLayerController {
             Registries.getUnitRegistry().addDataObserver(new Observer<UnitRegistryData>() {
                 @Override
                 public void update(Observable<UnitRegistryData> source, UnitRegistryData data) throws InterruptedException {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocationUnitRemotes();
-                            unitSymbolsPane.updateUnitsPane();
-                        } catch (CouldNotPerformException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        } catch (InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
+                    updateUnits();
                 }
             });
             Registries.getLocationRegistry().addDataObserver(new Observer<LocationRegistryData>() {
                 @Override
                 public void update(Observable<LocationRegistryData> source, LocationRegistryData data) throws Exception {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocationUnitRemotes();
-                            unitSymbolsPane.updateUnitsPane();
-                        } catch (CouldNotPerformException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        } catch (InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
+                    updateUnits();
                 }
 
             });
@@ -136,48 +110,23 @@ public class EditingLayerController {
 
         final double halfButtonSize = (Constants.SMALL_ICON + (2 * Constants.INSETS)) / 2;
 
-        final List<UnitConfig> locationUnitConfigList = Registries.getLocationRegistry().getLocationConfigs();
+        final UnitPlacementIndex placementIndex = UnitPlacementIndex.getCurrent();
+        unitSymbolsPane.setClusterHierarchy(placementIndex.getClusterHierarchy());
 
-        for (final UnitConfig locationConfig : locationUnitConfigList) {
-
-            // Only use locations with a valuable shape (exclude home location)
-            if (locationConfig.getPlacementConfig().getShape().getFloorCount() == 0) {
+        for (final UnitPlacement placement : placementIndex.getPlacements()) {
+            // skip units without pane instead of failing on every rebuild.
+            if (!placement.isDisplayable() || !UnitPaneFactoryImpl.getInstance().isSupported(placement.getUnitConfig().getType())) {
                 continue;
             }
 
-            for (final Map.Entry<UnitTemplateType.UnitTemplate.UnitType, List<UnitRemote>> nextEntry : Units.getUnit(locationConfig.getId(), false, Units.LOCATION).getUnitMap().entrySet()) {
-                if (nextEntry.getValue().isEmpty()) {
-                    continue;
-                }
-
-                for (UnitRemote<?> u : nextEntry.getValue()) {
-
-                    UnitConfig config = u.getConfig();
-                    if (config.getEnablingState().getValue() != EnablingStateType.EnablingState.State.ENABLED) {
-                        continue;
-                    }
-                    if (!config.getPlacementConfig().hasPosition()) {
-                        continue;
-                    }
-
-                    PoseType.Pose pose = config.getPlacementConfig().getPosition();
-                    try {
-                        final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformationFuture(config,
-                            Registries.getLocationRegistry().getRootLocationConfig());
-
-                        // transformation already in unit's coordinate space, therefore the zeros
-                        final Point3d unitVertex = new Point3d(0.0, 0.0, 1.0);
-                        transform.get(Constants.TRANSFORMATION_TIMEOUT / 10, TimeUnit.MILLISECONDS).
-                            getTransform().transform(unitVertex);
-                        Point2D coord = new Point2D(unitVertex.x * Constants.METER_TO_PIXEL, unitVertex.y * Constants.METER_TO_PIXEL);
-                        // correction of position necessary because:
-                        // "pose" is left bottom of unit bounding box (y correction) and the unit button's center 
-                        // should be at the unit position (x correction) Attention: X and Y swapped in UnitButton 
-                        unitSymbolsPane.addUnit(u, coord.add(-0.5 * halfButtonSize, -halfButtonSize), config.getId());
-                    } catch (CouldNotPerformException | ExecutionException | TimeoutException ex) {
-                        // No exception throwing, because loop must continue it's work
-                    }
-                }
+            try {
+                // correction of position necessary because:
+                // "pose" is left bottom of unit bounding box (y correction) and the unit button's center 
+                // should be at the unit position (x correction) Attention: X and Y swapped in UnitButton 
+                unitSymbolsPane.addUnit(Units.getUnit(placement.getUnitConfig(), false), placement.getPosition().add(-0.5 * halfButtonSize, -halfButtonSize), placement.getUnitId());
+            } catch (CouldNotPerformException ex) {
+                // No exception throwing, because loop must continue it's work
+                ExceptionPrinter.printHistory(ex, LOGGER);
             }
         }
     }
@@ -185,9 +134,10 @@ public class EditingLayerController {
     /**
      * Fetches all unit remotes from registry and updates the unit pane,
      * so all unit buttons represent the correct configuration.
+     * Requests are coalesced, so the update is performed at most once per update window.
      */
     public void updateUnits() {
-        Platform.runLater((() -> {
+        CoalescingUpdateScheduler.getInstance().schedule(this, () -> {
             try {
                 fetchLocationUnitRemotes();
                 unitSymbolsPane.updateUnitsPane();
@@ -196,6 +146,6 @@ public class EditingLayerController {
             } catch (InterruptedException ex) {
                 Thread.currentThread().interrupt();
             }
-        }));
+        });
     }
 }
@@ -10,6 +10,7 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Pair;
+import org.openbase.bco.bcozy.BCozy;
 import org.openbase.bco.bcozy.view.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,8 +56,7 @@ public class InitialPasswordChangeController {
         stage.setScene(new Scene(parent));
         stage.setWidth(440.0);
         stage.setHeight(440.0);
-        stage.getScene().getStylesheets().clear();
-        stage.getScene().getStylesheets().addAll(Constants.DEFAULT_CSS, Constants.LIGHT_THEME_CSS);
+        BCozy.applyTheme(stage.getScene(), Constants.LIGHT_THEME_CSS);
         return stage;
     }
 
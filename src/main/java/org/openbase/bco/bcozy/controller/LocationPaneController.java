@@ -20,30 +20,49 @@
 package org.openbase.bco.bcozy.controller;
 
 import javafx.application.Platform;
-import javafx.geometry.Point2D;
+import org.openbase.bco.bcozy.model.UnitTransformCache;
+import org.openbase.bco.bcozy.util.FingerprintDiff;
+import org.openbase.bco.bcozy.util.PlacementFingerprint;
+import org.openbase.bco.bcozy.util.StartupProfiler;
 import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.location.LocationPane;
+import org.openbase.bco.bcozy.view.location.PolygonDescriptor;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.exception.printer.LogLevel;
 import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
+import org.openbase.jul.schedule.GlobalCachedExecutorService;
+import org.openbase.jul.schedule.SyncObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rct.Transform;
 import rst.domotic.registry.LocationRegistryDataType.LocationRegistryData;
 import rst.domotic.unit.UnitConfigType.UnitConfig;
 import rst.math.Vec3DDoubleType;
+import javax.media.j3d.Transform3D;
 import javax.vecmath.Point3d;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import org.openbase.bco.registry.remote.Registries;
 
 /**
+ * Keeps the location pane in sync with the location registry.
+ * <p>
+ * Shapes are resolved in a background stage: all required transformations are requested at once, the vertices are
+ * transformed into pixel coordinates and the resulting polygon descriptors are handed to the application thread in a
+ * single batch. The application thread never waits for a transformation.
+ *
  * @author julian
  * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
  */
@@ -56,6 +75,19 @@ public class LocationPaneController {
 
     private final LocationPane locationPane;
 
+    /**
+     * Fingerprints of the locations and connections by unit id which are displayed. Only written by the application
+     * thread after a polygon was applied, so a polygon which could not be applied is rebuilt with the next update.
+     * Batches which are still pending may therefore be resolved again, applying them twice is harmless.
+     */
+    private final Map<String, Long> locationFingerprintMap;
+    private final Map<String, Long> connectionFingerprintMap;
+
+    /**
+     * Serializes the background stages so the batches reach the application thread in registry order.
+     */
+    private final SyncObject shapeSyncLock = new SyncObject("ShapeSyncLock");
+
     /**
      * The constructor.
      *
@@ -63,10 +95,13 @@ public class LocationPaneController {
      */
     public LocationPaneController(final LocationPane locationPane) {
         this.locationPane = locationPane;
+        this.locationFingerprintMap = new ConcurrentHashMap<>();
+        this.connectionFingerprintMap = new ConcurrentHashMap<>();
     }
 
     /**
-     * Establishes the connection with the RemoteRegistry.
+     * Establishes the connection with the RemoteRegistry. Returns as soon as the initial shapes are handed to the
+     * application thread.
      */
     public void connectLocationRemote() {
         try {
@@ -74,120 +109,234 @@ public class LocationPaneController {
             Registries.getLocationRegistry().addDataObserver(new Observer<LocationRegistryData>() {
                 @Override
                 public void update(Observable<LocationRegistryData> source, LocationRegistryData data) throws Exception {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocations();
-                            fetchConnections();
-                            locationPane.updateLocationPane();
-                        } catch (CouldNotPerformException | InterruptedException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        }
-                    });
+                    requestShapeUpdate(false);
                 }
             });
-            updateAndZoomFit();
+            updateAndZoomFit().get();
             locationPane.setInitialized(true);
         } catch (Exception ex) { //NOPMD
             ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
         }
     }
 
-    private void fetchLocations() throws CouldNotPerformException, InterruptedException {
-        final List<UnitConfig> locationUnitConfigList = Registries.getLocationRegistry().getLocationConfigs();
-
-        locationPane.clearLocations();
-        
+    /**
+     * Method to trigger a complete update of the locationPane. Will furthermore
+     * apply a zoomFit after everything is finished.
+     *
+     * @return a future which is done as soon as the shapes are applied on the application thread.
+     */
+    public CompletableFuture<Void> updateAndZoomFit() {
+        return requestShapeUpdate(true);
+    }
 
-        for (final UnitConfig locationUnitConfig : locationUnitConfigList) {
-            try {
-                //skip locations without a shape    
-                if (locationUnitConfig.getPlacementConfig().getShape().getFloorCount() == 0) {
-                    continue;
-                }
-                final List<Point2D> vertices = new LinkedList<>();
-
-                //  final List<Point2D> vertices = new LinkedList<>();
-                // Get the transformation for the current room
-//                final Future<Transform> transform = Units.getUnitTransformation(locationUnitConfig, Registries.getUnitRegistry().getUnitConfigById(locationUnitConfig.getPlacementConfig().getLocationId()));
-                final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformationFuture(locationUnitConfig, Registries.getLocationRegistry().getRootLocationConfig());
-
-                // Get the shape of the room
-                final List<Vec3DDoubleType.Vec3DDouble> shape = locationUnitConfig.getPlacementConfig().getShape().getFloorList();
-
-                // Iterate over all vertices
-                for (final Vec3DDoubleType.Vec3DDouble rstVertex : shape) {
-                    // Convert vertex into java type
-                    final Point3d vertex = new Point3d(rstVertex.getX(), rstVertex.getY(), rstVertex.getZ());
-                    // Transform
-                    transform.get(Constants.TRANSFORMATION_TIMEOUT, TimeUnit.MILLISECONDS).getTransform().transform(vertex);
-                    // Add vertex to list of vertices
-                    vertices.add(new Point2D(vertex.x, vertex.y));
-                }
-                
-                // locationPane.addLocation(locationUnitConfig.getId(), locationUnitConfig.getLocationConfig().getChildIdList(), vertices, locationUnitConfig.getLocationConfig().getType().toString());
-                locationPane.addLocation(locationUnitConfig, vertices);
-   
-            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                ExceptionPrinter.printHistory("Error while fetching transformation for location \"" + locationUnitConfig.getLabel() + "\", locationID: " + locationUnitConfig.getId(), ex, LOGGER, LogLevel.ERROR);
+    /**
+     * Synchronizes the shapes in the background. A failed update is logged and completes the returned future as
+     * well, so waiting for it never blocks forever.
+     */
+    private CompletableFuture<Void> requestShapeUpdate(final boolean zoomFit) {
+        final CompletableFuture<Void> shapeUpdate = new CompletableFuture<>();
+        GlobalCachedExecutorService.submit(() -> {
+            try (final StartupProfiler.Phase phase = StartupProfiler.getInstance().begin("synchronizeShapes")) {
+                synchronizeShapes(zoomFit).whenComplete((result, throwable) -> shapeUpdate.complete(null));
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not update location shapes!", ex, LOGGER);
+                shapeUpdate.complete(null);
+            } catch (InterruptedException ex) {
+                shapeUpdate.completeExceptionally(ex);
+                throw ex;
             }
-          
-        }
+            return null;
+        });
+        return shapeUpdate;
     }
 
-    private void fetchConnections() throws CouldNotPerformException, InterruptedException {
-        final List<UnitConfig> connectionUnitConfigList = Registries.getLocationRegistry().getConnectionConfigs();
+    /**
+     * Background stage which computes the shape changes and schedules them for the application thread.
+     *
+     * @return a future which is done as soon as the changes are applied.
+     */
+    private CompletableFuture<Void> synchronizeShapes(final boolean zoomFit) throws CouldNotPerformException, InterruptedException {
+        synchronized (shapeSyncLock) {
+            final long startTime = System.currentTimeMillis();
 
-        locationPane.clearConnections();
+            final List<UnitConfig> locationUnitConfigList = Registries.getLocationRegistry().getLocationConfigs();
+            final List<UnitConfig> connectionUnitConfigList = Registries.getLocationRegistry().getConnectionConfigs();
+            final Map<String, UnitConfig> locationUnitConfigMap = toConfigMap(locationUnitConfigList);
+            final Map<String, UnitConfig> connectionUnitConfigMap = toConfigMap(connectionUnitConfigList);
 
-        //check which connection has a shape
-        for (final UnitConfig connectionUnitConfig : connectionUnitConfigList) {
-            try {
-                //skip connections without a shape
-                if (connectionUnitConfig.getPlacementConfig().getShape().getFloorCount() == 0) {
-                    continue;
-                }
+            final Map<String, Long> locationTargetMap = computeFingerprints(locationUnitConfigList, config -> computeLocationFingerprint(config, locationUnitConfigMap));
+            final Map<String, Long> connectionTargetMap = computeFingerprints(connectionUnitConfigList, config -> computeConnectionFingerprint(config, locationUnitConfigMap));
+            final FingerprintDiff<String> locationDiff = FingerprintDiff.compute(locationFingerprintMap, locationTargetMap);
+            final FingerprintDiff<String> connectionDiff = FingerprintDiff.compute(connectionFingerprintMap, connectionTargetMap);
 
-                final List<Point2D> vertices = new LinkedList<>();
+            if (locationDiff.isEmpty() && connectionDiff.isEmpty() && !zoomFit) {
+                LOGGER.debug("Location registry update does not affect any shape.");
+                return CompletableFuture.completedFuture(null);
+            }
 
-//                final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformation(connectionUnitConfig, Registries.getUnitRegistry().getUnitConfigById(connectionUnitConfig.getPlacementConfig().getLocationId()));
-                final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformationFuture(connectionUnitConfig, Registries.getLocationRegistry().getRootLocationConfig());
+            // request all transformations before waiting for the first one so they are resolved concurrently.
+            final UnitTransformCache transformCache = UnitTransformCache.getInstance();
+            final Map<String, Future<Transform>> transformFutureMap = new HashMap<>();
+            for (final String locationId : concat(locationDiff.getAdded(), locationDiff.getChanged())) {
+                transformFutureMap.put(locationId, transformCache.getTransformFuture(locationUnitConfigMap.get(locationId), locationUnitConfigMap::get));
+            }
+            for (final String connectionId : concat(connectionDiff.getAdded(), connectionDiff.getChanged())) {
+                transformFutureMap.put(connectionId, transformCache.getTransformFuture(connectionUnitConfigMap.get(connectionId), locationUnitConfigMap::get));
+            }
 
-                // Get the shape of the room
-                final List<Vec3DDoubleType.Vec3DDouble> shape = connectionUnitConfig.getPlacementConfig().getShape().getFloorList();
+            final List<String> removedLocationIds = new ArrayList<>(locationDiff.getRemoved());
+            final List<String> removedConnectionIds = new ArrayList<>(connectionDiff.getRemoved());
+            final List<PolygonDescriptor> locationDescriptors = resolveDescriptors(concat(locationDiff.getAdded(), locationDiff.getChanged()), locationUnitConfigMap, transformFutureMap, locationTargetMap, removedLocationIds);
+            final List<PolygonDescriptor> connectionDescriptors = resolveDescriptors(concat(connectionDiff.getAdded(), connectionDiff.getChanged()), connectionUnitConfigMap, transformFutureMap, connectionTargetMap, removedConnectionIds);
+            for (final String locationId : locationDiff.getRemoved()) {
+                transformCache.invalidate(locationId);
+            }
+            for (final String connectionId : connectionDiff.getRemoved()) {
+                transformCache.invalidate(connectionId);
+            }
 
-                // Iterate over all vertices
-                for (final Vec3DDoubleType.Vec3DDouble rstVertex : shape) {
-                    // Convert vertex into java type
-                    final Point3d vertex = new Point3d(rstVertex.getX(), rstVertex.getY(), rstVertex.getZ());
-                    // Transform
-                    transform.get(Constants.TRANSFORMATION_TIMEOUT, TimeUnit.MILLISECONDS).getTransform().transform(vertex);
-                    // Add vertex to list of vertices
-                    vertices.add(new Point2D(vertex.x, vertex.y));
-                }
+            LOGGER.info("Resolved " + transformFutureMap.size() + " shapes (" + locationDiff + ", " + connectionDiff + ") in " + (System.currentTimeMillis() - startTime) + "ms.");
+            LOGGER.debug(transformCache.toString());
 
-                locationPane.addConnection(connectionUnitConfig, vertices);
-            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                ExceptionPrinter.printHistory(ex, LOGGER, LogLevel.ERROR);
-                LOGGER.error("Error while fetching transformation for connection \"" + connectionUnitConfig.getLabel()
-                        + "\", connectionID: " + connectionUnitConfig.getId());
-            }
+            return CompletableFuture.runAsync(() -> applyShapes(removedLocationIds, removedConnectionIds, locationDescriptors, connectionDescriptors, zoomFit), Platform::runLater);
         }
     }
 
     /**
-     * Method to trigger a complete update of the locationPane. Will furthermore
-     * apply a zoomFit after everything is finished.
+     * Waits for the transformations of the given units and converts their shapes into polygon descriptors.
+     * Units whose transformation could not be resolved are added to the removal list, so their fingerprint is dropped
+     * and they are retried with the next update.
      */
-    public void updateAndZoomFit() {
-        Platform.runLater(() -> {
+    private List<PolygonDescriptor> resolveDescriptors(final List<String> unitIds,
+            final Map<String, UnitConfig> unitConfigMap,
+            final Map<String, Future<Transform>> transformFutureMap,
+            final Map<String, Long> targetFingerprintMap,
+            final List<String> removedIds) throws InterruptedException {
+        final List<PolygonDescriptor> descriptors = new ArrayList<>(unitIds.size());
+        for (final String unitId : unitIds) {
+            final UnitConfig unitConfig = unitConfigMap.get(unitId);
             try {
-                fetchLocations();
-                fetchConnections();
-                locationPane.updateLocationPane();
+                final Transform transform;
+                try (final StartupProfiler.Phase phase = StartupProfiler.getInstance().begin("transformation " + unitConfig.getLabel())) {
+                    transform = transformFutureMap.get(unitId).get(Constants.TRANSFORMATION_TIMEOUT, TimeUnit.MILLISECONDS);
+                }
+                descriptors.add(new PolygonDescriptor(unitConfig, toPixelPoints(unitConfig, transform.getTransform()), targetFingerprintMap.get(unitId)));
+            } catch (ExecutionException | TimeoutException ex) {
+                UnitTransformCache.getInstance().invalidate(unitId);
+                removedIds.add(unitId);
+                ExceptionPrinter.printHistory("Error while fetching transformation for \"" + unitConfig.getLabel() + "\", unitID: " + unitId, ex, LOGGER, LogLevel.ERROR);
+            }
+        }
+        return descriptors;
+    }
+
+    /**
+     * Transforms the floor shape of the given unit into pixel coordinates of the root location.
+     */
+    static double[] toPixelPoints(final UnitConfig unitConfig, final Transform3D transform) {
+        final List<Vec3DDoubleType.Vec3DDouble> shape = unitConfig.getPlacementConfig().getShape().getFloorList();
+        final double[] points = new double[shape.size() * 2];
+        final Point3d vertex = new Point3d();
+        for (int i = 0; i < shape.size(); i++) {
+            vertex.set(shape.get(i).getX(), shape.get(i).getY(), shape.get(i).getZ());
+            transform.transform(vertex);
+            // TODO: X and Y are swapped in the world of the csra... make it more generic...
+            points[i * 2] = vertex.y * Constants.METER_TO_PIXEL;
+            points[i * 2 + 1] = vertex.x * Constants.METER_TO_PIXEL;
+        }
+        return points;
+    }
+
+    /**
+     * Applies a batch of shape changes. Must be called on the application thread.
+     */
+    private void applyShapes(final List<String> removedLocationIds,
+            final List<String> removedConnectionIds,
+            final List<PolygonDescriptor> locationDescriptors,
+            final List<PolygonDescriptor> connectionDescriptors,
+            final boolean zoomFit) {
+        final long startTime = System.currentTimeMillis();
+        try (final StartupProfiler.Phase phase = StartupProfiler.getInstance().begin("applyShapes")) {
+            for (final String connectionId : removedConnectionIds) {
+                locationPane.removeConnection(connectionId);
+                connectionFingerprintMap.remove(connectionId);
+            }
+            for (final String locationId : removedLocationIds) {
+                locationPane.removeLocation(locationId);
+                locationFingerprintMap.remove(locationId);
+            }
+
+            // connections are added after the locations so they can be cut out of their tiles.
+            for (final PolygonDescriptor descriptor : locationDescriptors) {
+                try {
+                    locationPane.addLocation(descriptor.getUnitConfig(), descriptor.getPoints());
+                    locationFingerprintMap.put(descriptor.getUnitId(), descriptor.getFingerprint());
+                } catch (CouldNotPerformException | InterruptedException ex) {
+                    locationFingerprintMap.remove(descriptor.getUnitId());
+                    ExceptionPrinter.printHistory("Could not add location " + descriptor.getUnitId() + "!", ex, LOGGER);
+                }
+            }
+            for (final PolygonDescriptor descriptor : connectionDescriptors) {
+                try {
+                    locationPane.addConnection(descriptor.getUnitConfig(), descriptor.getPoints());
+                    connectionFingerprintMap.put(descriptor.getUnitId(), descriptor.getFingerprint());
+                } catch (CouldNotPerformException | InterruptedException ex) {
+                    connectionFingerprintMap.remove(descriptor.getUnitId());
+                    ExceptionPrinter.printHistory("Could not add connection " + descriptor.getUnitId() + "!", ex, LOGGER);
+                }
+            }
+
+            locationPane.updateLocationPane();
+            if (zoomFit) {
                 locationPane.zoomFit();
-            } catch (CouldNotPerformException | InterruptedException ex) {
-                ExceptionPrinter.printHistory(ex, LOGGER);
             }
-        });
+        }
+        LOGGER.info("Applied " + (locationDescriptors.size() + connectionDescriptors.size()) + " shapes on the application thread in " + (System.currentTimeMillis() - startTime) + "ms.");
+    }
+
+    static Map<String, Long> computeFingerprints(final List<UnitConfig> unitConfigList, final Function<UnitConfig, Long> fingerprintFunction) {
+        final Map<String, Long> fingerprintMap = new HashMap<>();
+        for (final UnitConfig unitConfig : unitConfigList) {
+            //skip units without a shape
+            if (unitConfig.getPlacementConfig().getShape().getFloorCount() == 0) {
+                continue;
+            }
+            fingerprintMap.put(unitConfig.getId(), fingerprintFunction.apply(unitConfig));
+        }
+        return fingerprintMap;
+    }
+
+    /**
+     * The location fingerprint covers everything the location polygon is built from.
+     * Label or meta config changes are resolved by the polygon remotes and do not need a rebuild.
+     */
+    static long computeLocationFingerprint(final UnitConfig locationUnitConfig, final Map<String, UnitConfig> locationUnitConfigMap) {
+        long fingerprint = PlacementFingerprint.compute(locationUnitConfig, locationUnitConfigMap::get);
+        fingerprint = PlacementFingerprint.mix(fingerprint, locationUnitConfig.getLocationConfig().getType());
+        return PlacementFingerprint.mix(fingerprint, locationUnitConfig.getLocationConfig().getRoot());
+    }
+
+    /**
+     * The connection fingerprint covers everything the connection polygon is built from.
+     */
+    private static long computeConnectionFingerprint(final UnitConfig connectionUnitConfig, final Map<String, UnitConfig> locationUnitConfigMap) {
+        long fingerprint = PlacementFingerprint.compute(connectionUnitConfig, locationUnitConfigMap::get);
+        fingerprint = PlacementFingerprint.mix(fingerprint, connectionUnitConfig.getConnectionConfig().getType());
+        return PlacementFingerprint.mix(fingerprint, connectionUnitConfig.getConnectionConfig().getTileIdList());
+    }
+
+    private static Map<String, UnitConfig> toConfigMap(final List<UnitConfig> unitConfigList) {
+        final Map<String, UnitConfig> unitConfigMap = new HashMap<>();
+        for (final UnitConfig unitConfig : unitConfigList) {
+            unitConfigMap.put(unitConfig.getId(), unitConfig);
+        }
+        return unitConfigMap;
+    }
+
+    private static List<String> concat(final Set<String> first, final Set<String> second) {
+        final List<String> list = new ArrayList<>(first.size() + second.size());
+        list.addAll(first);
+        list.addAll(second);
+        return list;
     }
 }
@@ -18,21 +18,21 @@
  */
 package org.openbase.bco.bcozy.controller;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import javafx.application.Platform;
-import javafx.geometry.Point2D;
-import javax.vecmath.Point3d;
+import java.util.Set;
+import javafx.beans.binding.Bindings;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy.Level;
+import org.openbase.bco.bcozy.model.UnitPlacement;
+import org.openbase.bco.bcozy.model.UnitPlacementIndex;
+import org.openbase.bco.bcozy.util.CoalescingUpdateScheduler;
 import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.SimpleUnitSymbolsPane;
 import org.openbase.bco.bcozy.view.location.LocationPane;
 import org.openbase.bco.bcozy.view.pane.unit.TitledUnitPaneContainer;
-import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
+import org.openbase.bco.bcozy.view.pane.unit.UnitPaneFactoryImpl;
 import org.openbase.bco.dal.remote.unit.Units;
 import org.openbase.bco.registry.remote.Registries;
 import org.openbase.jul.exception.CouldNotPerformException;
@@ -41,14 +41,9 @@ import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rct.Transform;
 import rst.domotic.registry.LocationRegistryDataType.LocationRegistryData;
 import rst.domotic.registry.UnitRegistryDataType.UnitRegistryData;
-import rst.domotic.state.EnablingStateType;
-import rst.domotic.unit.UnitConfigType.UnitConfig;
-import rst.domotic.unit.UnitTemplateType;
 import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
-import rst.geometry.PoseType;
 
 /**
  * Controller for the pane for the maintenance layer of the room plan that includes buttons for the following units:
@@ -62,6 +57,11 @@ public class MaintenanceLayerController {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(MaintenanceLayerController.class);
 
+    /**
+     * The unit types which are displayed on this layer.
+     */
+    private static final Set<UnitType> DISPLAYED_UNIT_TYPES = Collections.unmodifiableSet(EnumSet.of(UnitType.BATTERY, UnitType.TAMPER_DETECTOR, UnitType.TEMPERATURE_SENSOR, UnitType.SMOKE_DETECTOR));
+
     private final LocationPane locationPane;
     private final SimpleUnitSymbolsPane simpleUnitSymbolsPane;
     private final Map<String, TitledUnitPaneContainer> titledPaneMap;
@@ -81,6 +81,7 @@ public class MaintenanceLayerController {
         unitPane.scaleYProperty().bind(locationPane.scaleYProperty());
         unitPane.translateXProperty().bind(locationPane.translateXProperty());
         unitPane.translateYProperty().bind(locationPane.translateYProperty());
+        unitPane.clusterLevelProperty().bind(Bindings.createObjectBinding(() -> Level.forScale(locationPane.getScaleX()), locationPane.scaleXProperty()));
     }
 
     /**
@@ -95,31 +96,13 @@ public class MaintenanceLayerController {
             Registries.getUnitRegistry().addDataObserver(new Observer<UnitRegistryData>() {
                 @Override
                 public void update(Observable<UnitRegistryData> source, UnitRegistryData data) throws InterruptedException {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocationUnitRemotes();
-                            simpleUnitSymbolsPane.updateUnitsPane();
-                        } catch (CouldNotPerformException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        } catch (InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
+                    updateUnits();
                 }
             });
             Registries.getLocationRegistry().addDataObserver(new Observer<LocationRegistryData>() {
                 @Override
                 public void update(Observable<LocationRegistryData> source, LocationRegistryData data) throws Exception {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocationUnitRemotes();
-                            simpleUnitSymbolsPane.updateUnitsPane();
-                        } catch (CouldNotPerformException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        } catch (InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
+                    updateUnits();
                 }
 
             });
@@ -136,56 +119,28 @@ public class MaintenanceLayerController {
      * @throws InterruptedException
      */
     public void fetchLocationUnitRemotes() throws CouldNotPerformException, InterruptedException {
-        
+
         simpleUnitSymbolsPane.clearUnits();
-        final double halfButtonSize = (Constants.SMALL_ICON + (2 * Constants.INSETS)) / 2;
 
-        final List<UnitConfig> locationUnitConfigList = Registries.getLocationRegistry().getLocationConfigs();
+        final double halfButtonSize = (Constants.SMALL_ICON + (2 * Constants.INSETS)) / 2;
 
-        for (final UnitConfig locationConfig : locationUnitConfigList) {
+        final UnitPlacementIndex placementIndex = UnitPlacementIndex.getCurrent();
+        simpleUnitSymbolsPane.setClusterHierarchy(placementIndex.getClusterHierarchy());
 
-            // Only use locations with a valuable shape
-            if (locationConfig.getPlacementConfig().getShape().getFloorCount() == 0) {
+        for (final UnitPlacement placement : placementIndex.getPlacementsByType(DISPLAYED_UNIT_TYPES)) {
+            // skip units without pane instead of failing on every rebuild.
+            if (!placement.isDisplayable() || !UnitPaneFactoryImpl.getInstance().isSupported(placement.getUnitConfig().getType())) {
                 continue;
             }
 
-            for (final Map.Entry<UnitTemplateType.UnitTemplate.UnitType, List<UnitRemote>> nextEntry : Units.getUnit(locationConfig.getId(), false, Units.LOCATION).getUnitMap().entrySet()) {
-                if (nextEntry.getValue().isEmpty()) {
-                    continue;
-                }
-
-                for (UnitRemote<?> u : nextEntry.getValue()) {
-                    if (nextEntry.getKey() == UnitType.BATTERY | nextEntry.getKey() == UnitType.TAMPER_DETECTOR | 
-                        nextEntry.getKey() == UnitType.TEMPERATURE_SENSOR | nextEntry.getKey() == UnitType.SMOKE_DETECTOR) {
-
-                        UnitConfig config = u.getConfig();
-                        if (config.getEnablingState().getValue() != EnablingStateType.EnablingState.State.ENABLED) {
-                            continue; 
-                        }
-                        if (!config.getPlacementConfig().hasPosition()) {
-                            continue;
-                        }
-
-                        PoseType.Pose pose = config.getPlacementConfig().getPosition();
-                        try {
-                            final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformationFuture(config,
-                                Registries.getLocationRegistry().getRootLocationConfig());
-                            // transformation already in unit's coordinate space, therefore the zeros
-                            final Point3d unitVertex = new Point3d(0.0, 0.0, 1.0);
-                            transform.get(Constants.TRANSFORMATION_TIMEOUT / 10, TimeUnit.MILLISECONDS).
-                                getTransform().transform(unitVertex);
-                            Point2D coord = new Point2D(unitVertex.x * Constants.METER_TO_PIXEL, unitVertex.y * Constants.METER_TO_PIXEL);
-                            // correction of position necessary because:
-                            // "pose" is left bottom of unit bounding box (y correction) and the unit button's center 
-                            // should be at the unit position (x correction) Attention: X and Y swapped in UnitButton 
-                            simpleUnitSymbolsPane.addUnit(u, coord.add(- 0.5 * halfButtonSize, - halfButtonSize), locationConfig.getId());
-                        } catch (CouldNotPerformException | ExecutionException | TimeoutException ex) {
-                            // No exception throwing, because loop must continue it's work
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-
-                        }
-                    }
-                }
+            try {
+                // correction of position necessary because:
+                // "pose" is left bottom of unit bounding box (y correction) and the unit button's center 
+                // should be at the unit position (x correction) Attention: X and Y swapped in UnitButton 
+                simpleUnitSymbolsPane.addUnit(Units.getUnit(placement.getUnitConfig(), false), placement.getPosition().add(-0.5 * halfButtonSize, -halfButtonSize), placement.getUnitId());
+            } catch (CouldNotPerformException ex) {
+                // No exception throwing, because loop must continue it's work
+                ExceptionPrinter.printHistory(ex, LOGGER);
             }
         }
     }
@@ -193,9 +148,10 @@ public class MaintenanceLayerController {
     /**
      * Fetches all unit remotes from registry and updates the unit pane,
      * so all unit buttons represent the correct configuration.
+     * Requests are coalesced, so the update is performed at most once per update window.
      */
     public void updateUnits() {
-        Platform.runLater((() -> {
+        CoalescingUpdateScheduler.getInstance().schedule(this, () -> {
             try {
                 fetchLocationUnitRemotes();
                 simpleUnitSymbolsPane.updateUnitsPane();
@@ -204,6 +160,6 @@ public class MaintenanceLayerController {
             } catch (InterruptedException ex) {
                 Thread.currentThread().interrupt();
             }
-        }));
+        });
     }
 }
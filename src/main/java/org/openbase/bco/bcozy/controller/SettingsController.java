@@ -155,7 +155,7 @@ public class SettingsController {
             this.userSettingsController.getThemeChoice().setOnAction(event -> chooseTheme());
 
             //Necessary to ensure that the first change is not missed by the ChangeListener
-            this.userSettingsController.getThemeChoice().getSelectionModel().select(0);
+            this.userSettingsController.getThemeChoice().getSelectionModel().select(Constants.DARK_THEME_CSS.equals(BCozy.getPersistedTheme()) ? 1 : 0);
 
             return paneAndControllerPair.getKey();
         } catch (CouldNotPerformException ex) {
@@ -18,15 +18,21 @@
  */
 package org.openbase.bco.bcozy.controller;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Point2D;
 import javax.vecmath.Point3d;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy.Level;
+import org.openbase.bco.bcozy.model.UnitPlacement;
+import org.openbase.bco.bcozy.model.UnitPlacementIndex;
+import org.openbase.bco.bcozy.util.CoalescingUpdateScheduler;
+import org.openbase.bco.bcozy.model.UnitTransformCache;
 import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.UnitSymbolsPane;
 import org.openbase.bco.bcozy.view.location.LocationPane;
@@ -37,18 +43,15 @@ import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.printer.ExceptionPrinter;
 import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
+import org.openbase.jul.schedule.SyncObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import rct.Transform;
 import rst.domotic.registry.LocationRegistryDataType.LocationRegistryData;
 import rst.domotic.registry.UnitRegistryDataType.UnitRegistryData;
-import rst.domotic.state.EnablingStateType;
 import rst.domotic.unit.UnitConfigType.UnitConfig;
-import rst.domotic.unit.UnitTemplateType;
 import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
 import rst.domotic.unit.location.LocationConfigType;
 import rst.geometry.AxisAlignedBoundingBox3DFloatType;
-import rst.geometry.PoseType;
 
 /**
  * Controller for the top layer of the room plan that includes buttons for the light units.
@@ -62,9 +65,20 @@ public class UnitsPaneController {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(UnitsPaneController.class);
 
+    /**
+     * The unit types which are displayed on this layer.
+     */
+    private static final Set<UnitType> DISPLAYED_UNIT_TYPES = Collections.unmodifiableSet(EnumSet.of(UnitType.COLORABLE_LIGHT, UnitType.DIMMABLE_LIGHT, UnitType.LIGHT, UnitType.POWER_SWITCH));
+
     private final LocationPane locationPane;
     private final UnitSymbolsPane unitSymbolsPane;
 
+    /**
+     * The future of the scheduled but not yet performed unit update, null if no update is pending.
+     */
+    private CompletableFuture<Void> pendingUnitUpdate;
+    private final SyncObject unitUpdateLock = new SyncObject("UnitUpdateLock");
+
     /**
      * Constructor
      *
@@ -79,6 +93,7 @@ public class UnitsPaneController {
         unitPane.scaleYProperty().bind(locationPane.scaleYProperty());
         unitPane.translateXProperty().bind(locationPane.translateXProperty());
         unitPane.translateYProperty().bind(locationPane.translateYProperty());
+        unitPane.clusterLevelProperty().bind(Bindings.createObjectBinding(() -> Level.forScale(locationPane.getScaleX()), locationPane.scaleXProperty()));
     }
 
     /**
@@ -93,31 +108,13 @@ public class UnitsPaneController {
             Registries.getUnitRegistry().addDataObserver(new Observer<UnitRegistryData>() {
                 @Override
                 public void update(Observable<UnitRegistryData> source, UnitRegistryData data) throws InterruptedException {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocationUnitRemotes();
-                            unitSymbolsPane.updateUnitsPane();
-                        } catch (CouldNotPerformException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        } catch (InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
+                    updateUnits();
                 }
             });
             Registries.getLocationRegistry().addDataObserver(new Observer<LocationRegistryData>() {
                 @Override
                 public void update(Observable<LocationRegistryData> source, LocationRegistryData data) throws Exception {
-                    Platform.runLater(() -> {
-                        try {
-                            fetchLocationUnitRemotes();
-                            unitSymbolsPane.updateUnitsPane();
-                        } catch (CouldNotPerformException ex) {
-                            ExceptionPrinter.printHistory(ex, LOGGER);
-                        } catch (InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
+                    updateUnits();
                 }
 
             });
@@ -138,10 +135,10 @@ public class UnitsPaneController {
 
         unitSymbolsPane.clearUnits();
 
-        unitSymbolsPane.clearUnits();
-
         final double halfButtonSize = (Constants.SMALL_ICON + (2 * Constants.INSETS)) / 2;
 
+        final UnitPlacementIndex placementIndex = UnitPlacementIndex.getCurrent();
+        unitSymbolsPane.setClusterHierarchy(placementIndex.getClusterHierarchy());
         final List<UnitConfig> locationUnitConfigList = Registries.getLocationRegistry().getLocationConfigs();
 
         for (final UnitConfig locationConfig : locationUnitConfigList) {
@@ -158,9 +155,7 @@ public class UnitsPaneController {
             Point3d vertex = calculateCoordinates(locationConfig);
 
             try {
-                final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformationFuture(locationConfig,
-                        Registries.getLocationRegistry().getRootLocationConfig());
-                transform.get(Constants.TRANSFORMATION_TIMEOUT / 10, TimeUnit.MILLISECONDS).getTransform().transform(vertex);
+                UnitTransformCache.getInstance().getTransform(locationConfig, Constants.TRANSFORMATION_TIMEOUT / 10).getTransform().transform(vertex);
                 Point2D coord = new Point2D(vertex.x * Constants.METER_TO_PIXEL, vertex.y * Constants.METER_TO_PIXEL);
                 // Abstract Pane not working with a config object, only with a remote one!
                 UnitRemote<?> u = Units.getUnit(locationConfig.getId(), false);
@@ -170,46 +165,19 @@ public class UnitsPaneController {
                 ExceptionPrinter.printHistory(ex, LOGGER);
             }
 
-            for (final Map.Entry<UnitTemplateType.UnitTemplate.UnitType, List<UnitRemote>> nextEntry : Units.getUnit(locationConfig.getId(), false, Units.LOCATION).getUnitMap().entrySet()) {
-                if (nextEntry.getValue().isEmpty()) {
+            for (final UnitPlacement placement : placementIndex.getPlacementsByLocation(locationConfig.getId(), DISPLAYED_UNIT_TYPES)) {
+                if (!placement.isDisplayable()) {
                     continue;
                 }
 
-                for (UnitRemote<?> unitRemote : nextEntry.getValue()) {
-                    if (nextEntry.getKey() != UnitType.COLORABLE_LIGHT &&
-                        nextEntry.getKey() != UnitType.DIMMABLE_LIGHT &&
-                        nextEntry.getKey() != UnitType.LIGHT &&
-                        nextEntry.getKey() != UnitType.POWER_SWITCH) {
-                        continue;
-                    }
-
-                    UnitConfig config = unitRemote.getConfig();
-                    if (config.getEnablingState().getValue() != EnablingStateType.EnablingState.State.ENABLED) {
-                        continue;
-                    }
-                    if (!config.getPlacementConfig().hasPosition()) {
-                        continue;
-                    }
-
-                    PoseType.Pose pose = config.getPlacementConfig().getPosition();
-                    try {
-                        final Future<Transform> transform = Registries.getLocationRegistry().getUnitTransformationFuture(config,
-                                Registries.getLocationRegistry().getRootLocationConfig());
-                        // transformation already in unit's coordinate space, therefore the zeros
-                        final Point3d unitVertex = new Point3d(0.0, 0.0, 1.0);
-                        transform.get(Constants.TRANSFORMATION_TIMEOUT / 10, TimeUnit.MILLISECONDS).
-                                getTransform().transform(unitVertex);
-                        Point2D coord = new Point2D(unitVertex.x * Constants.METER_TO_PIXEL, unitVertex.y * Constants.METER_TO_PIXEL);
-                        // correction of position necessary because:
-                        // "pose" is left bottom of unit bounding box (y correction) and the unit button's center 
-                        // should be at the unit position (x correction) Attention: X and Y swapped in UnitButton 
-                        unitSymbolsPane.addUnit(unitRemote, coord.add(-0.5 * halfButtonSize, -halfButtonSize), locationConfig.getId());
-
-                    } catch (CouldNotPerformException | ExecutionException | TimeoutException ex) {
-                        // No exception throwing, because loop must continue it's work
-                        ExceptionPrinter.printHistory(ex, LOGGER);
-
-                    }
+                try {
+                    // correction of position necessary because:
+                    // "pose" is left bottom of unit bounding box (y correction) and the unit button's center 
+                    // should be at the unit position (x correction) Attention: X and Y swapped in UnitButton 
+                    unitSymbolsPane.addUnit(Units.getUnit(placement.getUnitConfig(), false), placement.getPosition().add(-0.5 * halfButtonSize, -halfButtonSize), locationConfig.getId());
+                } catch (CouldNotPerformException ex) {
+                    // No exception throwing, because loop must continue it's work
+                    ExceptionPrinter.printHistory(ex, LOGGER);
                 }
             }
         }
@@ -233,9 +201,25 @@ public class UnitsPaneController {
     /**
      * Fetches all unit remotes from registry and updates the unit pane,
      * so all unit buttons represent the correct configuration.
+     * Requests are coalesced, so the update is performed at most once per update window.
+     *
+     * @return a future which is done as soon as an update requested after this call was performed, also if it failed.
      */
-    public void updateUnits() {
-        Platform.runLater((() -> {
+    public CompletableFuture<Void> updateUnits() {
+        final CompletableFuture<Void> unitUpdate;
+        synchronized (unitUpdateLock) {
+            if (pendingUnitUpdate == null) {
+                pendingUnitUpdate = new CompletableFuture<>();
+            }
+            unitUpdate = pendingUnitUpdate;
+        }
+        CoalescingUpdateScheduler.getInstance().schedule(this, () -> {
+            // all requests merged into this update are completed by it.
+            final CompletableFuture<Void> performedUpdate;
+            synchronized (unitUpdateLock) {
+                performedUpdate = pendingUnitUpdate;
+                pendingUnitUpdate = null;
+            }
             try {
                 fetchLocationUnitRemotes();
                 unitSymbolsPane.updateUnitsPane();
@@ -243,7 +227,12 @@ public class UnitsPaneController {
                 ExceptionPrinter.printHistory(ex, LOGGER);
             } catch (InterruptedException ex) {
                 Thread.currentThread().interrupt();
+            } finally {
+                if (performedUpdate != null) {
+                    performedUpdate.complete(null);
+                }
             }
-        }));
+        });
+        return unitUpdate;
     }
 }
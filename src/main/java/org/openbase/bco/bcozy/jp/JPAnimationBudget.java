@@ -0,0 +1,70 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPEnum;
+
+/**
+ * Limits the effort spent on icon animations.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class JPAnimationBudget extends AbstractJPEnum<JPAnimationBudget.AnimationBudget> {
+
+    /**
+     * AnimationBudget Enum.
+     */
+    public enum AnimationBudget {
+        /**
+         * Icon animations are updated on every frame.
+         */
+        FULL,
+        /**
+         * Icon animations are updated with a reduced frame rate, recommended for low-power panels.
+         */
+        REDUCED,
+        /**
+         * Icon animations are not played, animated icons show the final state of their animation instead.
+         */
+        NONE
+    }
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--animation-budget"};
+
+    /**
+     * Constructor for the JPAnimationBudget class.
+     */
+    public JPAnimationBudget() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected AnimationBudget getPropertyDefaultValue() throws JPNotAvailableException {
+        return AnimationBudget.FULL;
+    }
+
+    @Override
+    public String getDescription() {
+        return "AnimationBudget Property is used to update icon animations on every frame, with a reduced frame rate or not at all.";
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.jp;
+
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jps.preset.AbstractJPEnum;
+
+/**
+ * Selects how the floor plan of the location pane is rendered.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class JPRenderMode extends AbstractJPEnum<JPRenderMode.RenderMode> {
+
+    /**
+     * RenderMode Enum.
+     */
+    public enum RenderMode {
+        /**
+         * Every location and connection is a styled polygon node of the scene graph.
+         */
+        SCENE_GRAPH,
+        /**
+         * All locations and connections are painted into a single canvas, recommended for low-end devices.
+         */
+        CANVAS
+    }
+
+    /**
+     * Command line argument strings.
+     */
+    public static final String[] COMMAND_IDENTIFIERS = {"--render-mode"};
+
+    /**
+     * Constructor for the JPRenderMode class.
+     */
+    public JPRenderMode() {
+        super(COMMAND_IDENTIFIERS);
+    }
+
+    @Override
+    protected RenderMode getPropertyDefaultValue() throws JPNotAvailableException {
+        return RenderMode.SCENE_GRAPH;
+    }
+
+    @Override
+    public String getDescription() {
+        return "RenderMode Property is used to select if the floor plan is rendered via scene graph nodes or via a single canvas.";
+    }
+}
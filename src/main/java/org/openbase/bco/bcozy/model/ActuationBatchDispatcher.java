@@ -0,0 +1,289 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import javafx.util.Duration;
+import org.openbase.bco.bcozy.view.Constants;
+import org.openbase.bco.bcozy.view.InfoPane;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the actions triggered by the user within a short time window into one batch.
+ * <p>
+ * A request submitted while no batch was dispatched within the last window is dispatched immediately, so a single
+ * action is not delayed. Only the requests following it within the window are collected into the next batch.
+ * <p>
+ * The actions of a batch are executed concurrently with a bounded parallelism. As soon as all of them are finished,
+ * the outcome of the whole batch is reported by a single info pane message and its end-to-end latency, measured from
+ * the first request until the last action has finished, is logged.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class ActuationBatchDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActuationBatchDispatcher.class);
+
+    /**
+     * Singleton instance.
+     */
+    private static ActuationBatchDispatcher instance;
+
+    private final ScheduledExecutorService batchScheduler;
+    private final ExecutorService actionExecutor;
+    private final long window;
+
+    private final AtomicLong batchCounter;
+    private final AtomicLong actionCounter;
+    private final AtomicLong failureCounter;
+
+    /**
+     * The batch which still collects actions, guarded by this instance.
+     */
+    private Batch openBatch;
+
+    /**
+     * The time the last batch was dispatched, guarded by this instance.
+     */
+    private long lastDispatchNanos;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param window the time in milliseconds actions are collected before the batch is dispatched.
+     * @param parallelism the maximal number of concurrently executed actions.
+     */
+    public ActuationBatchDispatcher(final long window, final int parallelism) {
+        this.window = window;
+        this.batchScheduler = Executors.newSingleThreadScheduledExecutor(createThreadFactory("ActuationBatchScheduler"));
+        this.actionExecutor = Executors.newFixedThreadPool(parallelism, createThreadFactory("ActuationBatchExecutor"));
+        this.batchCounter = new AtomicLong();
+        this.actionCounter = new AtomicLong();
+        this.failureCounter = new AtomicLong();
+        this.lastDispatchNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(window);
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the application wide dispatcher.
+     */
+    public static ActuationBatchDispatcher getInstance() {
+        synchronized (ActuationBatchDispatcher.class) {
+            if (ActuationBatchDispatcher.instance == null) {
+                ActuationBatchDispatcher.instance = new ActuationBatchDispatcher(Constants.ACTUATION_BATCH_WINDOW, Constants.ACTUATION_PARALLELISM);
+            }
+        }
+        return ActuationBatchDispatcher.instance;
+    }
+
+    /**
+     * Adds the given action to the current batch. The action is executed by the dispatcher once the batch is closed.
+     * Canceling the returned future skips the action if it is not yet executed or cancels its task otherwise.
+     *
+     * @param description a description of the action used for logging.
+     * @param action the action to execute.
+     * @return a future which is completed as soon as the task of the action is finished.
+     */
+    public synchronized CompletableFuture<Void> submit(final String description, final Action action) {
+        if (openBatch == null) {
+            openBatch = new Batch();
+            final boolean idle = System.nanoTime() - lastDispatchNanos >= TimeUnit.MILLISECONDS.toNanos(window);
+            batchScheduler.schedule(this::dispatchOpenBatch, idle ? 0 : window, TimeUnit.MILLISECONDS);
+        }
+        return openBatch.add(description, action);
+    }
+
+    private void dispatchOpenBatch() {
+        final Batch batch;
+        synchronized (this) {
+            batch = openBatch;
+            openBatch = null;
+            lastDispatchNanos = System.nanoTime();
+        }
+        batchCounter.incrementAndGet();
+        actionCounter.addAndGet(batch.entryList.size());
+
+        final List<CompletableFuture<Void>> resultList = new ArrayList<>();
+        for (final BatchEntry entry : batch.entryList) {
+            actionExecutor.execute(() -> execute(entry));
+            resultList.add(entry.result);
+        }
+
+        // the results are handled separately so canceled actions do not complete the batch early.
+        CompletableFuture.allOf(resultList.stream().map(result -> result.handle((value, throwable) -> null)).toArray(CompletableFuture[]::new))
+                .thenRun(() -> report(batch));
+    }
+
+    private void execute(final BatchEntry entry) {
+        // skip actions which were canceled while the batch was open.
+        if (entry.result.isDone()) {
+            return;
+        }
+
+        Future<?> task = null;
+        try {
+            task = entry.action.execute();
+            if (task == null) {
+                entry.empty = true;
+                entry.result.complete(null);
+                return;
+            }
+            final Future<?> executedTask = task;
+            entry.result.whenComplete((value, throwable) -> {
+                if (entry.result.isCancelled()) {
+                    executedTask.cancel(true);
+                }
+            });
+            task.get(Constants.ACTUATION_TIMEOUT, TimeUnit.MILLISECONDS);
+            entry.result.complete(null);
+        } catch (ExecutionException ex) {
+            entry.result.completeExceptionally(new CouldNotPerformException("Could not execute " + entry.description + "!", ex.getCause()));
+        } catch (TimeoutException ex) {
+            task.cancel(true);
+            entry.result.completeExceptionally(new CouldNotPerformException("Could not execute " + entry.description + " in time!", ex));
+        } catch (CouldNotPerformException | CancellationException ex) {
+            entry.result.completeExceptionally(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            entry.result.completeExceptionally(ex);
+        }
+    }
+
+    private void report(final Batch batch) {
+        int succeeded = 0;
+        int failed = 0;
+        int canceled = 0;
+        for (final BatchEntry entry : batch.entryList) {
+            if (entry.result.isCancelled()) {
+                canceled++;
+            } else if (entry.result.isCompletedExceptionally()) {
+                failed++;
+            } else if (!entry.empty) {
+                succeeded++;
+            }
+        }
+        failureCounter.addAndGet(failed);
+
+        final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.creationNanos);
+        final String summary = "Batch of " + batch.entryList.size() + " actions finished in " + latency + "ms (" + succeeded + " succeeded, " + failed + " failed, " + canceled + " canceled).";
+        if (batch.entryList.size() > 1) {
+            LOGGER.info(summary);
+        } else {
+            LOGGER.debug(summary);
+        }
+
+        if (failed > 0) {
+            InfoPane.error("batchActionsFailed", failed, succeeded + failed).hideAfter(Duration.seconds(5));
+        } else if (succeeded > 1) {
+            InfoPane.confirmation("batchActionsApplied", succeeded, latency).hideAfter(Duration.seconds(5));
+        }
+    }
+
+    /**
+     * @return the number of dispatched batches.
+     */
+    public long getBatchCount() {
+        return batchCounter.get();
+    }
+
+    /**
+     * @return the number of dispatched actions.
+     */
+    public long getActionCount() {
+        return actionCounter.get();
+    }
+
+    /**
+     * @return the number of failed actions.
+     */
+    public long getFailureCount() {
+        return failureCounter.get();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[batches:" + getBatchCount() + ", actions:" + getActionCount() + ", failures:" + getFailureCount() + "]";
+    }
+
+    private static ThreadFactory createThreadFactory(final String name) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * An action which triggers a task, e.g. a remote call.
+     */
+    @FunctionalInterface
+    public interface Action {
+
+        /**
+         * Triggers the action.
+         *
+         * @return the future of the triggered task or null if no task was triggered.
+         * @throws CouldNotPerformException if the action could not be triggered.
+         */
+        Future<?> execute() throws CouldNotPerformException;
+    }
+
+    private static final class Batch {
+
+        private final long creationNanos;
+        private final List<BatchEntry> entryList;
+
+        private Batch() {
+            this.creationNanos = System.nanoTime();
+            this.entryList = new ArrayList<>();
+        }
+
+        private CompletableFuture<Void> add(final String description, final Action action) {
+            final BatchEntry entry = new BatchEntry(description, action);
+            entryList.add(entry);
+            return entry.result;
+        }
+    }
+
+    private static final class BatchEntry {
+
+        private final String description;
+        private final Action action;
+        private final CompletableFuture<Void> result;
+        private volatile boolean empty;
+
+        private BatchEntry(final String description, final Action action) {
+            this.description = description;
+            this.action = action;
+            this.result = new CompletableFuture<>();
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import org.openbase.jps.core.JPService;
 
@@ -35,6 +36,18 @@ public final class LanguageSelection extends Observable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LanguageSelection.class);
 
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * Message tables of all locales used so far, each one is loaded on first use.
+     */
+    private static final Map<Locale, MessageTable> MESSAGE_TABLE_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * Locales without language resource bundle which were already reported.
+     */
+    private static final Set<Locale> MISSING_BUNDLE_LOCALE_SET = ConcurrentHashMap.newKeySet();
+
     /**
      * Singleton instance.
      */
@@ -78,7 +91,7 @@ public final class LanguageSelection extends Observable {
      * @return the localized string
      */
     public static String getLocalized(String identifier) {
-        return getLocalized(identifier, new Object[0]);
+        return getLocalized(identifier, NO_ARGUMENTS);
     }
 
     /**
@@ -92,22 +105,51 @@ public final class LanguageSelection extends Observable {
     public static String getLocalized(final String identifier, final Object... args) {
         Objects.requireNonNull(identifier);
 
-        String text;
+        final MessageTable messageTable;
         try {
-            text = ResourceBundle.getBundle(Constants.LANGUAGE_RESOURCE_BUNDLE, Locale.getDefault()).getString(identifier);
-            for (int i = 0; i < args.length; i++) {
-                text = text.replace("{" + i + "}", Objects.toString(args[i]));
-            }
+            messageTable = getMessageTable(Locale.getDefault());
         } catch (MissingResourceException ex) {
+            // a missing bundle is only reported once per locale
+            if (MISSING_BUNDLE_LOCALE_SET.add(Locale.getDefault())) {
+                if (JPService.verboseMode()) {
+                    ExceptionPrinter.printHistory("Could not resolve Identifier[" + identifier + "]", ex, LOGGER, LogLevel.WARN);
+                } else {
+                    ExceptionPrinter.printHistory("Could not resolve Identifier[" + identifier + "]", ex, LOGGER, LogLevel.DEBUG);
+                }
+            }
+            return identifier;
+        }
+
+        final String text = messageTable.format(identifier, args);
+        if (text != null) {
+            return text;
+        }
+
+        // each miss is only reported once per locale
+        if (messageTable.reportMissing(identifier)) {
+            final MissingResourceException ex = new MissingResourceException("Can't find resource for bundle " + Constants.LANGUAGE_RESOURCE_BUNDLE + ", key " + identifier, Constants.LANGUAGE_RESOURCE_BUNDLE, identifier);
             if (JPService.verboseMode()) {
                 ExceptionPrinter.printHistory("Could not resolve Identifier[" + identifier + "]", ex, LOGGER, LogLevel.WARN);
             } else {
                 ExceptionPrinter.printHistory("Could not resolve Identifier[" + identifier + "]", ex, LOGGER, LogLevel.DEBUG);
             }
-            text = identifier;
         }
+        return identifier;
+    }
 
-        return text;
+    /**
+     * Returns the preloaded messages of the given locale and loads them on first use.
+     *
+     * @param locale the locale of the messages.
+     * @return the message table of the locale.
+     * @throws MissingResourceException is thrown if no language resource bundle is available.
+     */
+    public static MessageTable getMessageTable(final Locale locale) throws MissingResourceException {
+        final MessageTable messageTable = MESSAGE_TABLE_MAP.get(locale);
+        if (messageTable != null) {
+            return messageTable;
+        }
+        return MESSAGE_TABLE_MAP.computeIfAbsent(locale, MessageTable::load);
     }
 
     /**
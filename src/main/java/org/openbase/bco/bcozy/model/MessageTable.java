@@ -0,0 +1,192 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import org.openbase.bco.bcozy.view.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable table of all localized messages of one locale.
+ * <p>
+ * The language resource bundle is read once when the table is loaded and every message is parsed into a template, so
+ * formatting a message neither looks up the bundle nor searches the text for placeholders. Messages without
+ * placeholders are returned without any allocation. The identifiers which could not be resolved are remembered, so
+ * each miss is only reported once.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class MessageTable {
+
+    private final Locale locale;
+    private final Map<String, Template> templateMap;
+    private final Set<String> missingIdentifierSet;
+
+    private MessageTable(final Locale locale, final Map<String, Template> templateMap) {
+        this.locale = locale;
+        this.templateMap = Collections.unmodifiableMap(templateMap);
+        this.missingIdentifierSet = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Reads all messages of the given locale from the language resource bundle.
+     *
+     * @param locale the locale of the messages.
+     * @return the loaded table.
+     * @throws MissingResourceException is thrown if no language resource bundle is available.
+     */
+    public static MessageTable load(final Locale locale) throws MissingResourceException {
+        final ResourceBundle bundle = ResourceBundle.getBundle(Constants.LANGUAGE_RESOURCE_BUNDLE, locale);
+        final Map<String, Template> templateMap = new HashMap<>();
+        for (final String identifier : bundle.keySet()) {
+            templateMap.put(identifier, Template.parse(bundle.getString(identifier)));
+        }
+        return new MessageTable(locale, templateMap);
+    }
+
+    /**
+     * @return the locale of the messages.
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @param identifier the identifier of the message.
+     * @return true if the table contains a message for the identifier.
+     */
+    public boolean contains(final String identifier) {
+        return templateMap.containsKey(identifier);
+    }
+
+    /**
+     * Returns the message of the given identifier whose placeholders like {@code {0}} are replaced by the given
+     * arguments. Placeholders without an argument are kept.
+     *
+     * @param identifier the identifier of the message.
+     * @param args the placeholder arguments.
+     * @return the formatted message or null if the table does not contain the identifier.
+     */
+    public String format(final String identifier, final Object... args) {
+        final Template template = templateMap.get(identifier);
+        if (template == null) {
+            return null;
+        }
+        return template.format(args);
+    }
+
+    /**
+     * Remembers an identifier which could not be resolved.
+     *
+     * @param identifier the unresolved identifier.
+     * @return true if the identifier was not reported before.
+     */
+    public boolean reportMissing(final String identifier) {
+        return missingIdentifierSet.add(identifier);
+    }
+
+    /**
+     * Message text split at its placeholders.
+     */
+    static final class Template {
+
+        private final String text;
+        private final String[] literals;
+        private final int[] argumentIndices;
+        private final int literalLength;
+
+        private Template(final String text, final String[] literals, final int[] argumentIndices) {
+            this.text = text;
+            this.literals = literals;
+            this.argumentIndices = argumentIndices;
+            int length = 0;
+            for (final String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        /**
+         * Splits the given text at all placeholders like {@code {0}}.
+         *
+         * @param text the message text.
+         * @return the parsed template.
+         */
+        static Template parse(final String text) {
+            final StringBuilder literal = new StringBuilder();
+            final List<String> literalList = new ArrayList<>();
+            final List<Integer> indexList = new ArrayList<>();
+            int position = 0;
+            while (position < text.length()) {
+                final char c = text.charAt(position);
+                if (c == '{') {
+                    int end = position + 1;
+                    while (end < text.length() && Character.isDigit(text.charAt(end))) {
+                        end++;
+                    }
+                    // only canonical numbers are placeholders, as they are matched literally by their index
+                    final int digits = end - position - 1;
+                    final boolean canonical = digits == 1 || (digits > 1 && digits < 10 && text.charAt(position + 1) != '0');
+                    if (canonical && end < text.length() && text.charAt(end) == '}') {
+                        literalList.add(literal.toString());
+                        literal.setLength(0);
+                        indexList.add(Integer.parseInt(text.substring(position + 1, end)));
+                        position = end + 1;
+                        continue;
+                    }
+                }
+                literal.append(c);
+                position++;
+            }
+            literalList.add(literal.toString());
+            final int[] argumentIndices = new int[indexList.size()];
+            for (int i = 0; i < argumentIndices.length; i++) {
+                argumentIndices[i] = indexList.get(i);
+            }
+            return new Template(text, literalList.toArray(new String[literalList.size()]), argumentIndices);
+        }
+
+        /**
+         * @param args the placeholder arguments.
+         * @return the text with all placeholders replaced which have an argument.
+         */
+        String format(final Object... args) {
+            if (argumentIndices.length == 0) {
+                return text;
+            }
+            final StringBuilder builder = new StringBuilder(literalLength + 16 * argumentIndices.length);
+            for (int i = 0; i < argumentIndices.length; i++) {
+                builder.append(literals[i]);
+                final int argumentIndex = argumentIndices[i];
+                if (argumentIndex < args.length) {
+                    builder.append(Objects.toString(args[argumentIndex]));
+                } else {
+                    builder.append('{').append(argumentIndex).append('}');
+                }
+            }
+            return builder.append(literals[argumentIndices.length]).toString();
+        }
+    }
+}
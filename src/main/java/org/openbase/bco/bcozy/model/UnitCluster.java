@@ -0,0 +1,82 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import javafx.geometry.Point2D;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable group of units placed in the same location, displayed as one summary node on the room plan if the plan is
+ * zoomed out.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitCluster {
+
+    private final String locationId;
+    private final String label;
+    private final Point2D position;
+    private final List<UnitPlacement> placementList;
+
+    /**
+     * Creates a new cluster.
+     *
+     * @param locationId the id of the location containing the units.
+     * @param label the label of the location.
+     * @param position the center of all units in pixel.
+     * @param placementList the placements of the units.
+     */
+    public UnitCluster(final String locationId, final String label, final Point2D position, final List<UnitPlacement> placementList) {
+        this.locationId = locationId;
+        this.label = label;
+        this.position = position;
+        this.placementList = Collections.unmodifiableList(placementList);
+    }
+
+    /**
+     * @return the id of the location containing the units.
+     */
+    public String getLocationId() {
+        return locationId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the center of all units of the cluster in pixel.
+     * Attention: X and Y are not yet swapped according to the location pane.
+     *
+     * @return the position.
+     */
+    public Point2D getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the placements of all units of the cluster.
+     */
+    public List<UnitPlacement> getPlacements() {
+        return placementList;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + label + ", units:" + placementList.size() + "]";
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import javafx.geometry.Point2D;
+import org.openbase.bco.bcozy.view.Constants;
+import org.openbase.jul.exception.NotAvailableException;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+import rst.domotic.unit.location.LocationConfigType.LocationConfig.LocationType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable hierarchy of unit clusters per zoom level.
+ * <p>
+ * On each level the units are grouped by the closest location of the related location type containing them. The
+ * hierarchy is built once together with the {@link UnitPlacementIndex} of a registry revision, so zooming only has to
+ * switch between the precomputed levels.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitClusterHierarchy {
+
+    /**
+     * Protects against cyclic location hierarchies.
+     */
+    private static final int MAX_LOCATION_DEPTH = 32;
+
+    /**
+     * The zoom levels of the room plan.
+     */
+    public enum Level {
+
+        /**
+         * Every unit is displayed on its own.
+         */
+        UNIT(null),
+
+        /**
+         * Units are grouped per tile.
+         */
+        TILE(LocationType.TILE),
+
+        /**
+         * Units are grouped per zone.
+         */
+        ZONE(LocationType.ZONE);
+
+        private final LocationType locationType;
+
+        Level(final LocationType locationType) {
+            this.locationType = locationType;
+        }
+
+        /**
+         * Returns the level to display for the given scale of the room plan.
+         *
+         * @param scale the scale of the room plan.
+         * @return the level.
+         */
+        public static Level forScale(final double scale) {
+            if (scale < Constants.UNIT_CLUSTER_ZONE_SCALE) {
+                return ZONE;
+            } else if (scale < Constants.UNIT_CLUSTER_TILE_SCALE) {
+                return TILE;
+            }
+            return UNIT;
+        }
+    }
+
+    /**
+     * Hierarchy without any clusters.
+     */
+    public static final UnitClusterHierarchy EMPTY = new UnitClusterHierarchy(Collections.emptyList(), Collections.emptyMap());
+
+    private final Map<Level, Map<String, UnitCluster>> unitClusterMap;
+
+    /**
+     * Creates the hierarchy of the given placements.
+     *
+     * @param placements the placements of all units, units without position are skipped.
+     * @param locationUnitConfigMap the configs of all locations referred by their id.
+     */
+    UnitClusterHierarchy(final Collection<UnitPlacement> placements, final Map<String, UnitConfig> locationUnitConfigMap) {
+        this.unitClusterMap = new EnumMap<>(Level.class);
+
+        for (final Level level : Level.values()) {
+            if (level.locationType == null) {
+                continue;
+            }
+
+            // group the units by the location of the level type containing them.
+            final Map<String, List<UnitPlacement>> locationPlacementMap = new LinkedHashMap<>();
+            for (final UnitPlacement placement : placements) {
+                if (!placement.isDisplayable()) {
+                    continue;
+                }
+                final UnitConfig locationUnitConfig = findLocation(placement.getLocationId(), level.locationType, locationUnitConfigMap);
+                if (locationUnitConfig != null) {
+                    locationPlacementMap.computeIfAbsent(locationUnitConfig.getId(), id -> new ArrayList<>()).add(placement);
+                }
+            }
+
+            final Map<String, UnitCluster> clusterMap = new HashMap<>();
+            for (final Map.Entry<String, List<UnitPlacement>> entry : locationPlacementMap.entrySet()) {
+                final UnitCluster cluster = new UnitCluster(entry.getKey(), locationUnitConfigMap.get(entry.getKey()).getLabel(), computeCenter(entry.getValue()), entry.getValue());
+                for (final UnitPlacement placement : entry.getValue()) {
+                    clusterMap.put(placement.getUnitId(), cluster);
+                }
+            }
+            unitClusterMap.put(level, Collections.unmodifiableMap(clusterMap));
+        }
+    }
+
+    /**
+     * Returns the cluster containing the given unit on the given level.
+     *
+     * @param level the zoom level.
+     * @param unitId the id of the unit.
+     * @return the cluster or null if the unit is displayed on its own on this level.
+     */
+    public UnitCluster getCluster(final Level level, final String unitId) {
+        return unitClusterMap.getOrDefault(level, Collections.emptyMap()).get(unitId);
+    }
+
+    private static UnitConfig findLocation(final String locationId, final LocationType locationType, final Map<String, UnitConfig> locationUnitConfigMap) {
+        String currentId = locationId;
+        for (int depth = 0; depth < MAX_LOCATION_DEPTH && currentId != null; depth++) {
+            final UnitConfig locationUnitConfig = locationUnitConfigMap.get(currentId);
+            if (locationUnitConfig == null) {
+                return null;
+            }
+            if (locationUnitConfig.getLocationConfig().getType() == locationType) {
+                return locationUnitConfig;
+            }
+            final String parentId = locationUnitConfig.getPlacementConfig().getLocationId();
+            if (parentId.isEmpty() || parentId.equals(currentId)) {
+                return null;
+            }
+            currentId = parentId;
+        }
+        return null;
+    }
+
+    private static Point2D computeCenter(final List<UnitPlacement> placementList) {
+        double x = 0;
+        double y = 0;
+        for (final UnitPlacement placement : placementList) {
+            try {
+                x += placement.getPosition().getX();
+                y += placement.getPosition().getY();
+            } catch (NotAvailableException ex) {
+                // only displayable placements are clustered.
+            }
+        }
+        return new Point2D(x / placementList.size(), y / placementList.size());
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import javafx.geometry.Point2D;
+import org.openbase.jul.exception.NotAvailableException;
+import rst.domotic.state.EnablingStateType.EnablingState;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
+
+/**
+ * Immutable entry of the {@link UnitPlacementIndex} describing where a unit is placed on the room plan.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitPlacement {
+
+    private final UnitConfig unitConfig;
+    private final Point2D position;
+
+    /**
+     * Creates a new placement entry.
+     *
+     * @param unitConfig the config of the unit.
+     * @param position the root relative pixel position of the unit or null if the unit can not be placed.
+     */
+    public UnitPlacement(final UnitConfig unitConfig, final Point2D position) {
+        this.unitConfig = unitConfig;
+        this.position = position;
+    }
+
+    public UnitConfig getUnitConfig() {
+        return unitConfig;
+    }
+
+    public String getUnitId() {
+        return unitConfig.getId();
+    }
+
+    /**
+     * @return the id of the location the unit is placed in.
+     */
+    public String getLocationId() {
+        return unitConfig.getPlacementConfig().getLocationId();
+    }
+
+    public UnitType getUnitType() {
+        return unitConfig.getType();
+    }
+
+    public boolean isEnabled() {
+        return unitConfig.getEnablingState().getValue() == EnablingState.State.ENABLED;
+    }
+
+    public boolean hasPosition() {
+        return position != null;
+    }
+
+    /**
+     * Returns the root relative position of the unit in pixel.
+     * Attention: X and Y are not yet swapped according to the location pane.
+     *
+     * @return the position.
+     * @throws NotAvailableException if the unit has no position or its transformation could not be resolved.
+     */
+    public Point2D getPosition() throws NotAvailableException {
+        if (position == null) {
+            throw new NotAvailableException("Position of Unit[" + unitConfig.getLabel() + "]");
+        }
+        return position;
+    }
+
+    /**
+     * @return true if the unit is enabled and can be placed on the room plan.
+     */
+    public boolean isDisplayable() {
+        return isEnabled() && hasPosition();
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import javafx.geometry.Point2D;
+import org.openbase.bco.bcozy.view.Constants;
+import org.openbase.bco.registry.remote.Registries;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rct.Transform;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
+
+import javax.vecmath.Point3d;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Index of the placement of all units which are part of a location with a shape.
+ * <p>
+ * The index is an immutable snapshot which is built at most once per registry revision and shared by all symbol
+ * layers of the room plan. It answers which units are placed in a location, which units are of a given type and
+ * where they are located on the room plan.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitPlacementIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitPlacementIndex.class);
+
+    /**
+     * The index of the registry revision referenced by currentUnitRegistryRevision and currentLocationRegistryRevision.
+     */
+    private static UnitPlacementIndex current;
+    private static Object currentUnitRegistryRevision;
+    private static Object currentLocationRegistryRevision;
+
+    private final Map<String, UnitPlacement> placementMap;
+    private final Map<String, List<UnitPlacement>> locationPlacementMap;
+    private final Map<UnitType, List<UnitPlacement>> typePlacementMap;
+    private final UnitClusterHierarchy clusterHierarchy;
+
+    private UnitPlacementIndex(final Map<String, UnitPlacement> placementMap, final Map<String, List<UnitPlacement>> locationPlacementMap, final UnitClusterHierarchy clusterHierarchy) {
+        this.placementMap = Collections.unmodifiableMap(placementMap);
+        this.locationPlacementMap = Collections.unmodifiableMap(locationPlacementMap);
+        this.clusterHierarchy = clusterHierarchy;
+        this.typePlacementMap = new EnumMap<>(UnitType.class);
+        for (final UnitPlacement placement : placementMap.values()) {
+            typePlacementMap.computeIfAbsent(placement.getUnitType(), type -> new ArrayList<>()).add(placement);
+        }
+    }
+
+    /**
+     * Returns the index of the current registry revision. The index is only rebuilt if the unit or the location
+     * registry has changed since the last call.
+     *
+     * @return the current index.
+     * @throws CouldNotPerformException if the registries are not available.
+     * @throws InterruptedException is thrown if the thread was externally interrupted.
+     */
+    public static UnitPlacementIndex getCurrent() throws CouldNotPerformException, InterruptedException {
+        synchronized (UnitPlacementIndex.class) {
+            final Object unitRegistryRevision = Registries.getUnitRegistry().getData();
+            final Object locationRegistryRevision = Registries.getLocationRegistry().getData();
+            if (current == null || unitRegistryRevision != currentUnitRegistryRevision || locationRegistryRevision != currentLocationRegistryRevision) {
+                current = build();
+                currentUnitRegistryRevision = unitRegistryRevision;
+                currentLocationRegistryRevision = locationRegistryRevision;
+            }
+            return current;
+        }
+    }
+
+    private static UnitPlacementIndex build() throws CouldNotPerformException, InterruptedException {
+        final long startTime = System.currentTimeMillis();
+
+        final List<UnitConfig> locationUnitConfigList = Registries.getLocationRegistry().getLocationConfigs();
+        final Map<String, UnitConfig> locationUnitConfigMap = new HashMap<>();
+        for (final UnitConfig locationUnitConfig : locationUnitConfigList) {
+            locationUnitConfigMap.put(locationUnitConfig.getId(), locationUnitConfig);
+        }
+
+        // collect all units of locations with a valuable shape and request their transformations at once.
+        final Map<String, UnitConfig> unitConfigMap = new LinkedHashMap<>();
+        final Map<String, Future<Transform>> transformFutureMap = new HashMap<>();
+        for (final UnitConfig locationUnitConfig : locationUnitConfigList) {
+            if (locationUnitConfig.getPlacementConfig().getShape().getFloorCount() == 0) {
+                continue;
+            }
+            for (final String unitId : locationUnitConfig.getLocationConfig().getUnitIdList()) {
+                if (unitConfigMap.containsKey(unitId)) {
+                    continue;
+                }
+                final UnitConfig unitConfig;
+                try {
+                    unitConfig = Registries.getUnitRegistry().getUnitConfigById(unitId);
+                } catch (CouldNotPerformException ex) {
+                    ExceptionPrinter.printHistory("Could not resolve unit " + unitId + " of location " + locationUnitConfig.getLabel(), ex, LOGGER, LogLevel.WARN);
+                    continue;
+                }
+                unitConfigMap.put(unitId, unitConfig);
+                if (unitConfig.getPlacementConfig().hasPosition()) {
+                    transformFutureMap.put(unitId, UnitTransformCache.getInstance().getTransformFuture(unitConfig, locationUnitConfigMap::get));
+                }
+            }
+        }
+
+        final Map<String, UnitPlacement> placementMap = new HashMap<>();
+        for (final UnitConfig unitConfig : unitConfigMap.values()) {
+            placementMap.put(unitConfig.getId(), new UnitPlacement(unitConfig, resolvePosition(unitConfig, transformFutureMap.get(unitConfig.getId()))));
+        }
+
+        final Map<String, List<UnitPlacement>> locationPlacementMap = new HashMap<>();
+        for (final UnitConfig locationUnitConfig : locationUnitConfigList) {
+            final List<UnitPlacement> placementList = new ArrayList<>();
+            for (final String unitId : locationUnitConfig.getLocationConfig().getUnitIdList()) {
+                final UnitPlacement placement = placementMap.get(unitId);
+                if (placement != null) {
+                    placementList.add(placement);
+                }
+            }
+            if (!placementList.isEmpty()) {
+                locationPlacementMap.put(locationUnitConfig.getId(), Collections.unmodifiableList(placementList));
+            }
+        }
+
+        LOGGER.debug("Built placement index of " + placementMap.size() + " units in " + (System.currentTimeMillis() - startTime) + "ms.");
+        return new UnitPlacementIndex(placementMap, locationPlacementMap, new UnitClusterHierarchy(placementMap.values(), locationUnitConfigMap));
+    }
+
+    private static Point2D resolvePosition(final UnitConfig unitConfig, final Future<Transform> transformFuture) throws InterruptedException {
+        if (transformFuture == null) {
+            return null;
+        }
+        try {
+            // transformation already in unit's coordinate space, therefore the zeros
+            final Point3d unitVertex = new Point3d(0.0, 0.0, 1.0);
+            transformFuture.get(Constants.TRANSFORMATION_TIMEOUT / 10, TimeUnit.MILLISECONDS).getTransform().transform(unitVertex);
+            return new Point2D(unitVertex.x * Constants.METER_TO_PIXEL, unitVertex.y * Constants.METER_TO_PIXEL);
+        } catch (ExecutionException | TimeoutException ex) {
+            UnitTransformCache.getInstance().invalidate(unitConfig.getId());
+            ExceptionPrinter.printHistory("Could not resolve position of unit " + unitConfig.getLabel(), ex, LOGGER);
+            return null;
+        }
+    }
+
+    /**
+     * @param unitId the id of the unit.
+     * @return the placement of the unit or null if the unit is not part of a location with a shape.
+     */
+    public UnitPlacement getPlacement(final String unitId) {
+        return placementMap.get(unitId);
+    }
+
+    /**
+     * @return the placements of all indexed units.
+     */
+    public Collection<UnitPlacement> getPlacements() {
+        return placementMap.values();
+    }
+
+    /**
+     * @return the clusters of the indexed units per zoom level.
+     */
+    public UnitClusterHierarchy getClusterHierarchy() {
+        return clusterHierarchy;
+    }
+
+    /**
+     * @param locationId the id of the location.
+     * @return the placements of all units which are part of the given location.
+     */
+    public List<UnitPlacement> getPlacementsByLocation(final String locationId) {
+        return locationPlacementMap.getOrDefault(locationId, Collections.emptyList());
+    }
+
+    /**
+     * @param locationId the id of the location.
+     * @param unitTypes the unit types of interest.
+     * @return the placements of all units of the given types which are part of the given location.
+     */
+    public List<UnitPlacement> getPlacementsByLocation(final String locationId, final Set<UnitType> unitTypes) {
+        final List<UnitPlacement> placementList = new ArrayList<>();
+        for (final UnitPlacement placement : getPlacementsByLocation(locationId)) {
+            if (unitTypes.contains(placement.getUnitType())) {
+                placementList.add(placement);
+            }
+        }
+        return placementList;
+    }
+
+    /**
+     * @param unitTypes the unit types of interest.
+     * @return the placements of all indexed units of the given types.
+     */
+    public List<UnitPlacement> getPlacementsByType(final Set<UnitType> unitTypes) {
+        final List<UnitPlacement> placementList = new ArrayList<>();
+        for (final UnitType unitType : unitTypes) {
+            placementList.addAll(typePlacementMap.getOrDefault(unitType, Collections.emptyList()));
+        }
+        return placementList;
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * ==================================================================
+ * This file is part of org.openbase.bco.bcozy.
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.model;
+
+import org.openbase.bco.bcozy.util.PlacementFingerprint;
+import org.openbase.bco.registry.remote.Registries;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rct.Transform;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Application wide cache of the root relative unit transformations.
+ * <p>
+ * Each entry is stored together with the placement fingerprint of the unit it was requested for. The fingerprint
+ * covers the placement of the unit and of all its parent locations, so an entry is only replaced if the unit or one
+ * of its ancestors has been moved. Registry updates which do not touch any placement are answered from the cache.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitTransformCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitTransformCache.class);
+
+    /**
+     * Singleton instance.
+     */
+    private static UnitTransformCache instance;
+
+    private final Map<String, CacheEntry> entryMap;
+
+    private final AtomicLong hitCounter;
+    private final AtomicLong missCounter;
+    private final AtomicLong evictionCounter;
+
+    /**
+     * Private constructor to deny manual instantiation.
+     */
+    private UnitTransformCache() {
+        this.entryMap = new HashMap<>();
+        this.hitCounter = new AtomicLong();
+        this.missCounter = new AtomicLong();
+        this.evictionCounter = new AtomicLong();
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the singleton instance of the transform cache.
+     */
+    public static UnitTransformCache getInstance() {
+        synchronized (UnitTransformCache.class) {
+            if (UnitTransformCache.instance == null) {
+                UnitTransformCache.instance = new UnitTransformCache();
+            }
+        }
+        return UnitTransformCache.instance;
+    }
+
+    /**
+     * Returns the future of the root relative transformation of the given unit.
+     * Parent locations are resolved via the location registry.
+     *
+     * @param unitConfig the config of the unit.
+     * @return the future of the transformation.
+     * @throws CouldNotPerformException if the transformation could not be requested.
+     * @throws InterruptedException is thrown if the thread was externally interrupted.
+     */
+    public Future<Transform> getTransformFuture(final UnitConfig unitConfig) throws CouldNotPerformException, InterruptedException {
+        return getTransformFuture(unitConfig, UnitTransformCache::resolveLocationConfig);
+    }
+
+    /**
+     * Returns the future of the root relative transformation of the given unit.
+     *
+     * @param unitConfig the config of the unit.
+     * @param locationResolver resolves the configs of the parent locations, returns null for unknown locations.
+     * @return the future of the transformation.
+     * @throws CouldNotPerformException if the transformation could not be requested.
+     * @throws InterruptedException is thrown if the thread was externally interrupted.
+     */
+    public Future<Transform> getTransformFuture(final UnitConfig unitConfig, final Function<String, UnitConfig> locationResolver) throws CouldNotPerformException, InterruptedException {
+        final UnitConfig rootLocationConfig = Registries.getLocationRegistry().getRootLocationConfig();
+        final long fingerprint = PlacementFingerprint.mix(PlacementFingerprint.compute(unitConfig, locationResolver), rootLocationConfig.getId());
+
+        synchronized (entryMap) {
+            final CacheEntry entry = entryMap.get(unitConfig.getId());
+            if (entry != null) {
+                if (entry.fingerprint == fingerprint && !entry.transformFuture.isCancelled()) {
+                    hitCounter.incrementAndGet();
+                    return entry.transformFuture;
+                }
+                evictionCounter.incrementAndGet();
+            }
+            missCounter.incrementAndGet();
+            final Future<Transform> transformFuture = Registries.getLocationRegistry().getUnitTransformationFuture(unitConfig, rootLocationConfig);
+            entryMap.put(unitConfig.getId(), new CacheEntry(fingerprint, transformFuture));
+            return transformFuture;
+        }
+    }
+
+    /**
+     * Returns the root relative transformation of the given unit and waits at most the given timeout.
+     * Failed lookups are removed from the cache so they are requested again next time.
+     *
+     * @param unitConfig the config of the unit.
+     * @param timeout the timeout in milliseconds.
+     * @return the transformation.
+     * @throws CouldNotPerformException if the transformation could not be requested.
+     * @throws InterruptedException is thrown if the thread was externally interrupted.
+     * @throws ExecutionException if the transformation lookup failed.
+     * @throws TimeoutException if the transformation is not available within the timeout.
+     */
+    public Transform getTransform(final UnitConfig unitConfig, final long timeout) throws CouldNotPerformException, InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return getTransformFuture(unitConfig).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            invalidate(unitConfig.getId());
+            throw ex;
+        }
+    }
+
+    /**
+     * Removes the transformation of the given unit from the cache.
+     *
+     * @param unitId the id of the unit.
+     */
+    public void invalidate(final String unitId) {
+        synchronized (entryMap) {
+            if (entryMap.remove(unitId) != null) {
+                evictionCounter.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached transformations.
+     */
+    public void clear() {
+        synchronized (entryMap) {
+            evictionCounter.addAndGet(entryMap.size());
+            entryMap.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCounter.get();
+    }
+
+    public long getMissCount() {
+        return missCounter.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCounter.get();
+    }
+
+    public int size() {
+        synchronized (entryMap) {
+            return entryMap.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size:" + size() + ", hits:" + getHitCount() + ", misses:" + getMissCount() + ", evictions:" + getEvictionCount() + "]";
+    }
+
+    private static UnitConfig resolveLocationConfig(final String locationId) {
+        try {
+            return Registries.getUnitRegistry(false).getUnitConfigById(locationId);
+        } catch (CouldNotPerformException ex) {
+            LOGGER.debug("Could not resolve location " + locationId + " for placement fingerprint.");
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final long fingerprint;
+        private final Future<Transform> transformFuture;
+
+        private CacheEntry(final long fingerprint, final Future<Transform> transformFuture) {
+            this.fingerprint = fingerprint;
+            this.transformFuture = transformFuture;
+        }
+    }
+}
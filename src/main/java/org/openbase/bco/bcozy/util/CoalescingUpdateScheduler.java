@@ -0,0 +1,184 @@
+package org.openbase.bco.bcozy.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.openbase.bco.bcozy.view.Constants;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces update requests and executes them on the JavaFX application thread.
+ * <p>
+ * Every subscriber is identified by a key. Scheduling an update only marks the subscriber as dirty, so any number of
+ * requests between two drains results in a single execution of the latest update. Pending updates are drained on
+ * the next frame once the configured window since the last drain has passed. The underlying animation timer only
+ * runs while updates are pending.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class CoalescingUpdateScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingUpdateScheduler.class);
+
+    /**
+     * Singleton instance.
+     */
+    private static CoalescingUpdateScheduler instance;
+
+    private final Map<Object, Runnable> pendingUpdateMap;
+    private final AnimationTimer drainTimer;
+
+    private final AtomicLong requestCounter;
+    private final AtomicLong coalescedCounter;
+    private final AtomicLong executionCounter;
+
+    private volatile long windowNanos;
+    private long lastDrainNanos;
+    private boolean timerActive;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param window the minimal time in milliseconds between two drains, 0 drains on every frame.
+     */
+    public CoalescingUpdateScheduler(final long window) {
+        this.pendingUpdateMap = new LinkedHashMap<>();
+        this.requestCounter = new AtomicLong();
+        this.coalescedCounter = new AtomicLong();
+        this.executionCounter = new AtomicLong();
+        this.timerActive = false;
+        this.lastDrainNanos = 0;
+        setWindow(window);
+        this.drainTimer = new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                drain(now);
+            }
+        };
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the shared scheduler using the {@link Constants#REGISTRY_UPDATE_WINDOW}.
+     */
+    public static CoalescingUpdateScheduler getInstance() {
+        synchronized (CoalescingUpdateScheduler.class) {
+            if (CoalescingUpdateScheduler.instance == null) {
+                CoalescingUpdateScheduler.instance = new CoalescingUpdateScheduler(Constants.REGISTRY_UPDATE_WINDOW);
+            }
+        }
+        return CoalescingUpdateScheduler.instance;
+    }
+
+    /**
+     * Schedules the update of the given subscriber. If an update of the subscriber is already pending, it is
+     * replaced by the given one. Can be called from any thread.
+     *
+     * @param subscriber the key identifying the subscriber.
+     * @param update the update which is executed on the application thread.
+     */
+    public void schedule(final Object subscriber, final Runnable update) {
+        requestCounter.incrementAndGet();
+        synchronized (pendingUpdateMap) {
+            if (pendingUpdateMap.put(subscriber, update) != null) {
+                coalescedCounter.incrementAndGet();
+            }
+            if (!timerActive) {
+                timerActive = true;
+                Platform.runLater(drainTimer::start);
+            }
+        }
+    }
+
+    /**
+     * Drops a pending update of the given subscriber.
+     *
+     * @param subscriber the key identifying the subscriber.
+     */
+    public void cancel(final Object subscriber) {
+        synchronized (pendingUpdateMap) {
+            pendingUpdateMap.remove(subscriber);
+        }
+    }
+
+    private void drain(final long now) {
+        if (now - lastDrainNanos < windowNanos) {
+            return;
+        }
+
+        final List<Runnable> updateList;
+        synchronized (pendingUpdateMap) {
+            if (pendingUpdateMap.isEmpty()) {
+                drainTimer.stop();
+                timerActive = false;
+                return;
+            }
+            updateList = new ArrayList<>(pendingUpdateMap.values());
+            pendingUpdateMap.clear();
+        }
+        lastDrainNanos = now;
+
+        for (final Runnable update : updateList) {
+            try {
+                update.run();
+            } catch (RuntimeException ex) {
+                ExceptionPrinter.printHistory("Could not execute scheduled update!", ex, LOGGER);
+            }
+            executionCounter.incrementAndGet();
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(toString());
+        }
+    }
+
+    /**
+     * @param window the minimal time in milliseconds between two drains, 0 drains on every frame.
+     */
+    public void setWindow(final long window) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, window));
+    }
+
+    /**
+     * @return the number of subscribers with a pending update.
+     */
+    public int getPendingCount() {
+        synchronized (pendingUpdateMap) {
+            return pendingUpdateMap.size();
+        }
+    }
+
+    /**
+     * @return the number of all scheduled update requests.
+     */
+    public long getRequestCount() {
+        return requestCounter.get();
+    }
+
+    /**
+     * @return the number of update requests which were merged into an already pending update.
+     */
+    public long getCoalescedCount() {
+        return coalescedCounter.get();
+    }
+
+    /**
+     * @return the number of executed updates.
+     */
+    public long getExecutionCount() {
+        return executionCounter.get();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[pending:" + getPendingCount() + ", requested:" + getRequestCount() + ", coalesced:" + getCoalescedCount() + ", executed:" + getExecutionCount() + "]";
+    }
+}
@@ -0,0 +1,87 @@
+package org.openbase.bco.bcozy.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of comparing two fingerprint maps (id to fingerprint). Entries only known by the target map are added,
+ * entries only known by the current map are removed and entries with differing fingerprints are changed.
+ *
+ * @param <K> the key type, usually a unit id.
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class FingerprintDiff<K> {
+
+    private final Set<K> added;
+    private final Set<K> removed;
+    private final Set<K> changed;
+
+    private FingerprintDiff(final Set<K> added, final Set<K> removed, final Set<K> changed) {
+        this.added = Collections.unmodifiableSet(added);
+        this.removed = Collections.unmodifiableSet(removed);
+        this.changed = Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * Computes the difference between the currently applied state and the target state.
+     *
+     * @param current the fingerprints of the currently applied entries.
+     * @param target the fingerprints of the entries which should be applied.
+     * @param <K> the key type.
+     * @return the diff which transforms the current state into the target state.
+     */
+    public static <K> FingerprintDiff<K> compute(final Map<K, Long> current, final Map<K, Long> target) {
+        final Set<K> added = new HashSet<>();
+        final Set<K> removed = new HashSet<>();
+        final Set<K> changed = new HashSet<>();
+
+        for (final Map.Entry<K, Long> entry : target.entrySet()) {
+            final Long currentFingerprint = current.get(entry.getKey());
+            if (currentFingerprint == null) {
+                added.add(entry.getKey());
+            } else if (!currentFingerprint.equals(entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        for (final K key : current.keySet()) {
+            if (!target.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        return new FingerprintDiff<>(added, removed, changed);
+    }
+
+    public Set<K> getAdded() {
+        return added;
+    }
+
+    public Set<K> getRemoved() {
+        return removed;
+    }
+
+    public Set<K> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return true if both states are equal and nothing has to be applied.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return the number of entries which have to be touched to apply this diff.
+     */
+    public int size() {
+        return added.size() + removed.size() + changed.size();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[added:" + added.size() + ", removed:" + removed.size() + ", changed:" + changed.size() + "]";
+    }
+}
@@ -0,0 +1,98 @@
+package org.openbase.bco.bcozy.util;
+
+import com.google.protobuf.MessageLite;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+
+import java.util.function.Function;
+
+/**
+ * Computes cheap fingerprints of the placement of units. Two configs with the same fingerprint are placed at the same
+ * spot of the floor plan, so any geometry derived from them (transformed vertices, button positions) can be reused.
+ * <p>
+ * The placement of a unit depends on its own shape and pose as well as on the poses of all its parent locations,
+ * therefore the parent chain is resolved by the given location resolver and mixed into the fingerprint.
+ * <p>
+ * The fingerprint is a 64 bit FNV-1a digest over the full content of all mixed values, protobuf messages are digested
+ * via their serialized form. Unlike a combination of 32 bit hash codes this makes a collision, which would skip a
+ * needed rebuild, practically impossible.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class PlacementFingerprint {
+
+    /**
+     * Upper bound for the resolved parent chain to be safe against cyclic placements.
+     */
+    private static final int MAX_PARENT_DEPTH = 64;
+
+    private static final long SEED = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private PlacementFingerprint() {
+    }
+
+    /**
+     * Computes the placement fingerprint of the given unit config.
+     *
+     * @param unitConfig the config of the unit.
+     * @param locationResolver resolves a location id to its config or returns null if the location is unknown.
+     * @return the fingerprint of the placement.
+     */
+    public static long compute(final UnitConfig unitConfig, final Function<String, UnitConfig> locationResolver) {
+        long fingerprint = mix(SEED, unitConfig.getPlacementConfig().getShape());
+        fingerprint = mix(fingerprint, unitConfig.getPlacementConfig().getPosition());
+        fingerprint = mix(fingerprint, unitConfig.getPlacementConfig().getLocationId());
+
+        String parentId = unitConfig.getPlacementConfig().getLocationId();
+        String childId = unitConfig.getId();
+        for (int depth = 0; depth < MAX_PARENT_DEPTH && !parentId.isEmpty() && !parentId.equals(childId); depth++) {
+            final UnitConfig parentConfig = locationResolver.apply(parentId);
+            if (parentConfig == null) {
+                break;
+            }
+            fingerprint = mix(fingerprint, parentConfig.getPlacementConfig().getPosition());
+            if (parentConfig.getLocationConfig().getRoot()) {
+                break;
+            }
+            childId = parentId;
+            parentId = parentConfig.getPlacementConfig().getLocationId();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Mixes the digest of the given value into the fingerprint.
+     *
+     * @param fingerprint the fingerprint computed so far.
+     * @param value the value to add, null is allowed.
+     * @return the new fingerprint.
+     */
+    public static long mix(final long fingerprint, final Object value) {
+        long digest = fingerprint;
+        final long length;
+        if (value == null) {
+            length = -1;
+        } else if (value instanceof MessageLite) {
+            final byte[] bytes = ((MessageLite) value).toByteArray();
+            for (final byte b : bytes) {
+                digest = (digest ^ (b & 0xff)) * PRIME;
+            }
+            length = bytes.length;
+        } else if (value instanceof Iterable) {
+            long count = 0;
+            for (final Object element : (Iterable<?>) value) {
+                digest = mix(digest, element);
+                count++;
+            }
+            length = count;
+        } else {
+            final String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                digest = (digest ^ text.charAt(i)) * PRIME;
+            }
+            length = text.length();
+        }
+        // the length terminates the value, so the borders between mixed values are part of the digest
+        return (digest ^ length) * PRIME;
+    }
+}
@@ -0,0 +1,216 @@
+package org.openbase.bco.bcozy.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Region quadtree over axis aligned bounding boxes used for fast point and area queries.
+ * <p>
+ * Items are stored in the deepest node which fully contains their bounds. Items outside of the tree bounds are kept
+ * in the root node, so the tree stays correct for any input but is only efficient for items inside the bounds.
+ *
+ * @param <T> the type of the indexed items.
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class QuadTree<T> {
+
+    private static final int MAX_NODE_ITEMS = 8;
+    private static final int MAX_DEPTH = 10;
+
+    private final Node<T> root;
+    private final Map<T, Entry<T>> entryMap;
+
+    /**
+     * Creates a new quadtree covering the given area.
+     *
+     * @param minX the minimal x coordinate of the covered area.
+     * @param minY the minimal y coordinate of the covered area.
+     * @param maxX the maximal x coordinate of the covered area.
+     * @param maxY the maximal y coordinate of the covered area.
+     */
+    public QuadTree(final double minX, final double minY, final double maxX, final double maxY) {
+        this.root = new Node<>(minX, minY, maxX, maxY, 0);
+        this.entryMap = new HashMap<>();
+    }
+
+    /**
+     * Adds the item with the given bounds. An already indexed item is moved to the new bounds.
+     *
+     * @param item the item to add.
+     * @param minX the minimal x coordinate of the item bounds.
+     * @param minY the minimal y coordinate of the item bounds.
+     * @param maxX the maximal x coordinate of the item bounds.
+     * @param maxY the maximal y coordinate of the item bounds.
+     */
+    public void insert(final T item, final double minX, final double minY, final double maxX, final double maxY) {
+        remove(item);
+        final Entry<T> entry = new Entry<>(item, minX, minY, maxX, maxY);
+        entryMap.put(item, entry);
+        root.insert(entry);
+    }
+
+    /**
+     * Removes the given item.
+     *
+     * @param item the item to remove.
+     * @return true if the item was indexed.
+     */
+    public boolean remove(final T item) {
+        final Entry<T> entry = entryMap.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        entry.node.items.remove(entry);
+        return true;
+    }
+
+    /**
+     * Returns all items whose bounds contain the given point.
+     *
+     * @param x the x coordinate of the point.
+     * @param y the y coordinate of the point.
+     * @return the items in no particular order.
+     */
+    public List<T> query(final double x, final double y) {
+        return query(x, y, x, y);
+    }
+
+    /**
+     * Returns all items whose bounds intersect the given area.
+     *
+     * @param minX the minimal x coordinate of the area.
+     * @param minY the minimal y coordinate of the area.
+     * @param maxX the maximal x coordinate of the area.
+     * @param maxY the maximal y coordinate of the area.
+     * @return the items in no particular order.
+     */
+    public List<T> query(final double minX, final double minY, final double maxX, final double maxY) {
+        final List<T> result = new ArrayList<>();
+        root.query(minX, minY, maxX, maxY, result);
+        return result;
+    }
+
+    public int size() {
+        return entryMap.size();
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+        entryMap.clear();
+        root.items.clear();
+        root.children = null;
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+        private Node<T> node;
+
+        private Entry(final T item, final double minX, final double minY, final double maxX, final double maxY) {
+            this.item = item;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        private boolean intersects(final double minX, final double minY, final double maxX, final double maxY) {
+            return this.minX <= maxX && this.maxX >= minX && this.minY <= maxY && this.maxY >= minY;
+        }
+    }
+
+    private static final class Node<T> {
+
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+        private final int depth;
+        private final List<Entry<T>> items;
+        private Node<T>[] children;
+
+        private Node(final double minX, final double minY, final double maxX, final double maxY, final int depth) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.depth = depth;
+            this.items = new ArrayList<>();
+        }
+
+        private void insert(final Entry<T> entry) {
+            if (children != null) {
+                final Node<T> child = findContainingChild(entry);
+                if (child != null) {
+                    child.insert(entry);
+                    return;
+                }
+            }
+            entry.node = this;
+            items.add(entry);
+
+            if (children == null && items.size() > MAX_NODE_ITEMS && depth < MAX_DEPTH) {
+                split();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void split() {
+            final double centerX = (minX + maxX) / 2;
+            final double centerY = (minY + maxY) / 2;
+            children = new Node[]{
+                new Node<>(minX, minY, centerX, centerY, depth + 1),
+                new Node<>(centerX, minY, maxX, centerY, depth + 1),
+                new Node<>(minX, centerY, centerX, maxY, depth + 1),
+                new Node<>(centerX, centerY, maxX, maxY, depth + 1)
+            };
+
+            final List<Entry<T>> entries = new ArrayList<>(items);
+            items.clear();
+            for (final Entry<T> entry : entries) {
+                final Node<T> child = findContainingChild(entry);
+                if (child != null) {
+                    child.insert(entry);
+                } else {
+                    entry.node = this;
+                    items.add(entry);
+                }
+            }
+        }
+
+        private Node<T> findContainingChild(final Entry<T> entry) {
+            for (final Node<T> child : children) {
+                if (entry.minX >= child.minX && entry.maxX <= child.maxX && entry.minY >= child.minY && entry.maxY <= child.maxY) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void query(final double minX, final double minY, final double maxX, final double maxY, final List<T> result) {
+            for (final Entry<T> entry : items) {
+                if (entry.intersects(minX, minY, maxX, maxY)) {
+                    result.add(entry.item);
+                }
+            }
+
+            if (children == null) {
+                return;
+            }
+
+            for (final Node<T> child : children) {
+                if (child.minX <= maxX && child.maxX >= minX && child.minY <= maxY && child.maxY >= minY) {
+                    child.query(minX, minY, maxX, maxY, result);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.openbase.bco.bcozy.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over points used to find the nearest item within a fixed radius in constant time.
+ * <p>
+ * The cell size equals the search radius, so only the cell of the query point and its eight neighbours have to be
+ * checked.
+ *
+ * @param <T> the type of the indexed items.
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class SpatialHash<T> {
+
+    private final double radius;
+    private final Map<Long, List<Entry<T>>> cellMap;
+    private final Map<T, Entry<T>> entryMap;
+
+    /**
+     * Creates a new spatial hash.
+     *
+     * @param radius the search radius, has to be greater than zero.
+     */
+    public SpatialHash(final double radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius has to be greater than zero!");
+        }
+        this.radius = radius;
+        this.cellMap = new HashMap<>();
+        this.entryMap = new HashMap<>();
+    }
+
+    /**
+     * Adds the item at the given position. An already indexed item is moved to the new position.
+     *
+     * @param item the item to add.
+     * @param x the x coordinate of the item.
+     * @param y the y coordinate of the item.
+     */
+    public void put(final T item, final double x, final double y) {
+        remove(item);
+        final Entry<T> entry = new Entry<>(item, x, y);
+        entryMap.put(item, entry);
+        cellMap.computeIfAbsent(key(cell(x), cell(y)), key -> new ArrayList<>(2)).add(entry);
+    }
+
+    /**
+     * Removes the given item.
+     *
+     * @param item the item to remove.
+     * @return true if the item was indexed.
+     */
+    public boolean remove(final T item) {
+        final Entry<T> entry = entryMap.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        final long key = key(cell(entry.x), cell(entry.y));
+        final List<Entry<T>> cell = cellMap.get(key);
+        cell.remove(entry);
+        if (cell.isEmpty()) {
+            cellMap.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the item nearest to the given position within the search radius.
+     *
+     * @param x the x coordinate of the position.
+     * @param y the y coordinate of the position.
+     * @return the nearest item or null if no item is within the radius.
+     */
+    public T findNearest(final double x, final double y) {
+        final long cellX = cell(x);
+        final long cellY = cell(y);
+        Entry<T> nearest = null;
+        double nearestDistance = radius * radius;
+        for (long neighbourX = cellX - 1; neighbourX <= cellX + 1; neighbourX++) {
+            for (long neighbourY = cellY - 1; neighbourY <= cellY + 1; neighbourY++) {
+                final List<Entry<T>> cell = cellMap.get(key(neighbourX, neighbourY));
+                if (cell == null) {
+                    continue;
+                }
+                for (final Entry<T> entry : cell) {
+                    final double distance = (entry.x - x) * (entry.x - x) + (entry.y - y) * (entry.y - y);
+                    if (distance <= nearestDistance) {
+                        nearest = entry;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+        }
+        return nearest == null ? null : nearest.item;
+    }
+
+    /**
+     * @return the number of indexed items.
+     */
+    public int size() {
+        return entryMap.size();
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+        cellMap.clear();
+        entryMap.clear();
+    }
+
+    private long cell(final double value) {
+        return (long) Math.floor(value / radius);
+    }
+
+    private static long key(final long cellX, final long cellY) {
+        return (cellX << 32) ^ (cellY & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+        private final double x;
+        private final double y;
+
+        private Entry(final T item, final double x, final double y) {
+            this.item = item;
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
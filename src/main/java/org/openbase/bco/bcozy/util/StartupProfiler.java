@@ -0,0 +1,317 @@
+package org.openbase.bco.bcozy.util;
+
+import javafx.application.Platform;
+import org.openbase.bco.bcozy.jp.JPProfileStartup;
+import org.openbase.jps.core.JPService;
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the startup phases of the application and writes them as json timeline on exit.
+ * <p>
+ * Every phase records its wall time, the bytes allocated by the executing thread and the time the application thread
+ * was blocked while the phase was running. The blocked time is measured by a probe thread which continuously posts
+ * runnables to the application thread and sums up all delays longer than a frame. Phases begun on the same thread are
+ * nested. The profiler is only active if enabled via {@link JPProfileStartup}, otherwise all calls are no-ops.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class StartupProfiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupProfiler.class);
+
+    /**
+     * Delays of the application thread below this threshold are not counted as blocked.
+     */
+    private static final long FX_BLOCK_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(17);
+    private static final long FX_PROBE_INTERVAL_MILLIS = 5;
+
+    /**
+     * Upper bound of recorded phases, protects against unbounded growth if a phase is used outside of the startup.
+     */
+    private static final int MAX_RECORDS = 10000;
+
+    private static final String REPORT_FILE_NAME = "bcozy-startup-profile.json";
+
+    /**
+     * Singleton instance.
+     */
+    private static StartupProfiler instance;
+
+    private final boolean enabled;
+    private final long startNanos;
+    private final long startTimeMillis;
+    private final List<Record> recordList;
+    private final ThreadLocal<Deque<String>> phaseStack;
+    private final AtomicLong fxBlockedNanos;
+    private final ThreadMXBean threadMXBean;
+
+    private volatile boolean finished;
+    private long finishNanos;
+    private Thread fxProbeThread;
+
+    private StartupProfiler(final boolean enabled) {
+        this.enabled = enabled;
+        this.startNanos = System.nanoTime();
+        this.startTimeMillis = System.currentTimeMillis();
+        this.recordList = new ArrayList<>();
+        this.phaseStack = ThreadLocal.withInitial(ArrayDeque::new);
+        this.fxBlockedNanos = new AtomicLong();
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.finished = !enabled;
+        if (enabled) {
+            startFxProbe();
+        }
+    }
+
+    /**
+     * Returns the profiler which is enabled if requested via the {@link JPProfileStartup} property.
+     *
+     * @return the singleton instance.
+     */
+    public static synchronized StartupProfiler getInstance() {
+        if (instance == null) {
+            boolean enabled;
+            try {
+                enabled = JPService.getProperty(JPProfileStartup.class).getValue();
+            } catch (JPNotAvailableException ex) {
+                enabled = false;
+            }
+            instance = new StartupProfiler(enabled);
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the startup is profiled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Begins a new phase which ends by closing the returned phase. Phases begun after the startup was finished are not
+     * recorded.
+     *
+     * @param name the name of the phase.
+     * @return the phase to close.
+     */
+    public Phase begin(final String name) {
+        if (finished) {
+            return Phase.NONE;
+        }
+        final Deque<String> stack = phaseStack.get();
+        final Phase phase = new Phase(this, name, stack.peek());
+        stack.push(name);
+        return phase;
+    }
+
+    /**
+     * Marks the end of the startup. The application thread probe is stopped and no new phases are recorded.
+     */
+    public synchronized void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        finishNanos = System.nanoTime();
+        if (fxProbeThread != null) {
+            fxProbeThread.interrupt();
+        }
+        LOGGER.info("Startup finished after " + TimeUnit.NANOSECONDS.toMillis(finishNanos - startNanos) + "ms, application thread was blocked for " + TimeUnit.NANOSECONDS.toMillis(fxBlockedNanos.get()) + "ms.");
+    }
+
+    /**
+     * Writes the recorded timeline as json file into the temp directory. Nothing is written if the profiler is disabled.
+     */
+    public void writeReport() {
+        if (!enabled) {
+            return;
+        }
+        final File reportFile = new File(System.getProperty("java.io.tmpdir"), REPORT_FILE_NAME);
+        try (final Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+            LOGGER.info("Startup profile written to " + reportFile.getAbsolutePath());
+        } catch (IOException ex) {
+            LOGGER.warn("Could not write startup profile to " + reportFile.getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * @return the timeline as json string.
+     */
+    public synchronized String toJson() {
+        final long endNanos = finishNanos == 0 ? System.nanoTime() : finishNanos;
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"startTime\": ").append(startTimeMillis).append(",\n");
+        json.append("  \"durationMillis\": ").append(toMillis(endNanos - startNanos)).append(",\n");
+        json.append("  \"fxBlockedMillis\": ").append(toMillis(fxBlockedNanos.get())).append(",\n");
+        json.append("  \"phases\": [");
+        for (int i = 0; i < recordList.size(); i++) {
+            json.append(i == 0 ? "\n" : ",\n");
+            recordList.get(i).appendJson(json, startNanos);
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    private synchronized void record(final Record record) {
+        if (recordList.size() < MAX_RECORDS) {
+            recordList.add(record);
+        }
+    }
+
+    private long getAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private void startFxProbe() {
+        fxProbeThread = new Thread(() -> {
+            try {
+                while (!finished) {
+                    final CountDownLatch latch = new CountDownLatch(1);
+                    final long postNanos = System.nanoTime();
+                    try {
+                        Platform.runLater(latch::countDown);
+                    } catch (IllegalStateException ex) {
+                        // toolkit not yet initialized
+                        Thread.sleep(FX_PROBE_INTERVAL_MILLIS);
+                        continue;
+                    }
+                    latch.await();
+                    final long delayNanos = System.nanoTime() - postNanos;
+                    if (delayNanos > FX_BLOCK_THRESHOLD_NANOS) {
+                        fxBlockedNanos.addAndGet(delayNanos);
+                    }
+                    Thread.sleep(FX_PROBE_INTERVAL_MILLIS);
+                }
+            } catch (InterruptedException ex) {
+                // probe finished
+            }
+        }, "StartupProfilerFxProbe");
+        fxProbeThread.setDaemon(true);
+        fxProbeThread.start();
+    }
+
+    private static double toMillis(final long nanos) {
+        return Math.round(nanos / 10000.0) / 100.0;
+    }
+
+    private static String escape(final String value) {
+        if (value == null) {
+            return "null";
+        }
+        final StringBuilder escaped = new StringBuilder("\"");
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    /**
+     * A running phase of the startup, recorded when closed.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private static final Phase NONE = new Phase(null, null, null);
+
+        private final StartupProfiler profiler;
+        private final String name;
+        private final String parent;
+        private final long beginNanos;
+        private final long beginFxBlockedNanos;
+        private final long beginAllocatedBytes;
+
+        private Phase(final StartupProfiler profiler, final String name, final String parent) {
+            this.profiler = profiler;
+            this.name = name;
+            this.parent = parent;
+            this.beginNanos = System.nanoTime();
+            this.beginFxBlockedNanos = profiler == null ? 0 : profiler.fxBlockedNanos.get();
+            this.beginAllocatedBytes = profiler == null ? 0 : profiler.getAllocatedBytes();
+        }
+
+        @Override
+        public void close() {
+            if (profiler == null) {
+                return;
+            }
+            final Deque<String> stack = profiler.phaseStack.get();
+            if (!stack.isEmpty()) {
+                stack.pop();
+            }
+            final long allocatedBytes = profiler.getAllocatedBytes();
+            profiler.record(new Record(name, parent, Thread.currentThread().getName(), Platform.isFxApplicationThread(),
+                    beginNanos, System.nanoTime(), profiler.fxBlockedNanos.get() - beginFxBlockedNanos,
+                    (allocatedBytes < 0 || beginAllocatedBytes < 0) ? -1 : allocatedBytes - beginAllocatedBytes));
+        }
+    }
+
+    private static final class Record {
+
+        private final String name;
+        private final String parent;
+        private final String thread;
+        private final boolean fxThread;
+        private final long beginNanos;
+        private final long endNanos;
+        private final long fxBlockedNanos;
+        private final long allocatedBytes;
+
+        private Record(final String name, final String parent, final String thread, final boolean fxThread, final long beginNanos, final long endNanos, final long fxBlockedNanos, final long allocatedBytes) {
+            this.name = name;
+            this.parent = parent;
+            this.thread = thread;
+            this.fxThread = fxThread;
+            this.beginNanos = beginNanos;
+            this.endNanos = endNanos;
+            this.fxBlockedNanos = fxBlockedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        private void appendJson(final StringBuilder json, final long startNanos) {
+            json.append("    {\"name\": ").append(escape(name))
+                    .append(", \"parent\": ").append(escape(parent))
+                    .append(", \"thread\": ").append(escape(thread))
+                    .append(", \"fxThread\": ").append(fxThread)
+                    .append(", \"startMillis\": ").append(toMillis(beginNanos - startNanos))
+                    .append(", \"durationMillis\": ").append(toMillis(endNanos - beginNanos))
+                    .append(", \"fxBlockedMillis\": ").append(toMillis(fxBlockedNanos))
+                    .append(", \"allocatedBytes\": ").append(allocatedBytes)
+                    .append('}');
+        }
+    }
+}
@@ -66,7 +66,8 @@ public class BackgroundPane extends StackPane {
             editingLayerPane = new SimpleUnitSymbolsPane();
             editingLayerPane.setPickOnBounds(false);
 
-            // layer management
+            // layer management, the unit buttons are shared between the layers. Hidden layers are detached and do not
+            // populate themselves, so the shown one has to add its buttons again.
             foregroundPane.getAppState().addListener(new ChangeListener<CenterPaneController.State>() {
 
                 @Override
@@ -76,16 +77,19 @@ public class BackgroundPane extends StackPane {
                             getChildren().clear();
                             getChildren().add(locationPane);
                             getChildren().add(editingLayerPane);
+                            editingLayerPane.updateUnitsPane();
                             break;
                         case TEMPERATURE:
                             getChildren().clear();
                             getChildren().add(locationPane);
                             getChildren().add(maintenanceLayerPane);
+                            maintenanceLayerPane.updateUnitsPane();
                             break;
                         case MOVEMENT:
                             getChildren().clear();
                             getChildren().add(locationPane);
                             getChildren().add(unitSymbolsPane);
+                            unitSymbolsPane.updateUnitsPane();
                             break;
                     }
 
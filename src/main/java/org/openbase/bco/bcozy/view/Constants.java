@@ -371,6 +371,87 @@ public final class Constants {
      */
     public static final long TRANSFORMATION_TIMEOUT = 10000;
 
+    /**
+     * Minimal time in milliseconds between two rebuilds of the same subscriber triggered by registry updates.
+     */
+    public static final long REGISTRY_UPDATE_WINDOW = 250;
+
+    /**
+     * Minimal time in milliseconds between two updates of the same unit pane, 0 applies the latest update on every frame.
+     */
+    public static final long UNIT_PANE_UPDATE_WINDOW = 0;
+
+    /**
+     * Maximal number of locations whose unit panes are kept by the context menu.
+     */
+    public static final int CONTEXT_MENU_CACHE_SIZE = 16;
+
+    /**
+     * Maximal number of released unit panes kept per unit type for reuse.
+     */
+    public static final int UNIT_PANE_POOL_SIZE = 32;
+
+    /**
+     * Units of a location closer to each other than this distance in pixel are grouped into one button.
+     */
+    public static final double UNIT_BUTTON_MERGE_RADIUS = SMALL_ICON;
+
+    /**
+     * Below this scale of the room plan the units are summarized per tile.
+     */
+    public static final double UNIT_CLUSTER_TILE_SCALE = 0.4;
+
+    /**
+     * Below this scale of the room plan the units are summarized per zone.
+     */
+    public static final double UNIT_CLUSTER_ZONE_SCALE = 0.2;
+
+    /**
+     * Maximal number of rasterized icon variants kept by the glyph snapshot cache.
+     */
+    public static final int GLYPH_SNAPSHOT_CACHE_SIZE = 512;
+
+    /**
+     * Factor by which icon snapshots are rasterized above their scene scale. Java 8 exposes no output scale of the
+     * screen, so this covers HiDPI displays.
+     */
+    public static final double GLYPH_SNAPSHOT_OVERSAMPLING = 2.0;
+
+    /**
+     * Maximal scale at which an icon snapshot is rasterized.
+     */
+    public static final double GLYPH_SNAPSHOT_MAX_SCALE = 8.0;
+
+    /**
+     * Minimal time in milliseconds between two updates of the icon animations if the animation budget is reduced.
+     */
+    public static final long ICON_ANIMATION_REDUCED_FRAME_INTERVAL = 100;
+
+    /**
+     * Time in milliseconds after which the visibility of an animated icon is checked again.
+     */
+    public static final long ICON_ANIMATION_VISIBILITY_CHECK_INTERVAL = 250;
+
+    /**
+     * Number of threads executing the independent stages of the startup concurrently.
+     */
+    public static final int STARTUP_THREAD_POOL_SIZE = 4;
+
+    /**
+     * Time window in milliseconds in which actions triggered by the user are collected into one batch.
+     */
+    public static final long ACTUATION_BATCH_WINDOW = 100;
+
+    /**
+     * Maximal number of actions of a batch which are executed concurrently.
+     */
+    public static final int ACTUATION_PARALLELISM = 8;
+
+    /**
+     * Timeout in milliseconds for a single action of a batch.
+     */
+    public static final long ACTUATION_TIMEOUT = 10000;
+
     /**
      * String for CSS styling of icons.
      */
@@ -0,0 +1,162 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view;
+
+import de.jensd.fx.glyphs.GlyphIcons;
+import de.jensd.fx.glyphs.GlyphsDude;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rasterized glyph icons.
+ * <p>
+ * Each variant of a glyph, defined by its size, fill, stroke, render scale and if it is styled by the theme, is
+ * rendered only once into an image which can be displayed by any number of image views. The least recently used variants are dropped if
+ * more than {@link Constants#GLYPH_SNAPSHOT_CACHE_SIZE} variants are cached. All methods have to be called on the
+ * application thread.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class GlyphSnapshotCache {
+
+    /**
+     * Singleton instance.
+     */
+    private static GlyphSnapshotCache instance;
+
+    private final Map<String, Image> snapshotMap;
+    private final SnapshotParameters snapshotParameters;
+    private final Group renderRoot;
+    private long hitCount;
+    private long missCount;
+
+    private GlyphSnapshotCache() {
+        this.snapshotMap = new LinkedHashMap<String, Image>(Constants.GLYPH_SNAPSHOT_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Image> eldest) {
+                return size() > Constants.GLYPH_SNAPSHOT_CACHE_SIZE;
+            }
+        };
+        this.snapshotParameters = new SnapshotParameters();
+        this.snapshotParameters.setFill(Color.TRANSPARENT);
+        this.renderRoot = new Group();
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the cache shared by all icons.
+     */
+    public static GlyphSnapshotCache getInstance() {
+        synchronized (GlyphSnapshotCache.class) {
+            if (GlyphSnapshotCache.instance == null) {
+                GlyphSnapshotCache.instance = new GlyphSnapshotCache();
+            }
+        }
+        return GlyphSnapshotCache.instance;
+    }
+
+    /**
+     * Returns the image of the given glyph variant and renders it if not cached yet. The image covers the layout
+     * bounds of the glyph multiplied by the render scale, so it is aligned like the text node of the same glyph if it
+     * is displayed at the size of the image divided by the render scale.
+     *
+     * @param glyph the glyph to render.
+     * @param size the font size of the glyph.
+     * @param fill the fill of the glyph.
+     * @param stroke the stroke of the glyph or null if the glyph is not outlined.
+     * @param strokeWidth the width of the stroke.
+     * @param styled true if the fill was resolved from the theme.
+     * @param renderScale the scale at which the glyph is rasterized.
+     * @return the rendered glyph.
+     */
+    public Image getSnapshot(final GlyphIcons glyph, final double size, final Paint fill, final Paint stroke, final double strokeWidth, final boolean styled, final double renderScale) {
+        assert Platform.isFxApplicationThread();
+        final boolean outlined = stroke != null && strokeWidth > 0;
+        final String key = glyph.getFontFamily() + ":" + glyph.characterToString() + ":" + size + ":" + fill + ":" + (outlined ? stroke + ":" + strokeWidth : "") + ":" + styled + ":" + renderScale;
+        Image snapshot = snapshotMap.get(key);
+        if (snapshot != null) {
+            hitCount++;
+            return snapshot;
+        }
+        missCount++;
+        final Text text = GlyphsDude.createIcon(glyph, String.valueOf(size));
+        text.setSmooth(true);
+        text.setFill(fill);
+        if (outlined) {
+            text.setStroke(stroke);
+            text.setStrokeWidth(strokeWidth);
+        }
+        if (renderRoot.getScene() == null) {
+            // css is only applied to nodes which are part of a scene
+            new Scene(renderRoot);
+        }
+        renderRoot.getChildren().setAll(text);
+        // applies the glyph font before measuring the bounds
+        text.applyCss();
+        final Bounds bounds = text.getLayoutBounds();
+        // the viewport is defined in the scaled coordinates of the snapshot
+        snapshotParameters.setTransform(Transform.scale(renderScale, renderScale));
+        snapshotParameters.setViewport(new Rectangle2D(bounds.getMinX() * renderScale, bounds.getMinY() * renderScale, Math.ceil(bounds.getWidth() * renderScale), Math.ceil(bounds.getHeight() * renderScale)));
+        snapshot = text.snapshot(snapshotParameters, null);
+        renderRoot.getChildren().clear();
+        snapshotMap.put(key, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Drops all cached images.
+     */
+    public void clear() {
+        snapshotMap.clear();
+    }
+
+    /**
+     * @return the number of cached glyph variants.
+     */
+    public int size() {
+        return snapshotMap.size();
+    }
+
+    /**
+     * @return the number of requests served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of requests which had to render the glyph.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+}
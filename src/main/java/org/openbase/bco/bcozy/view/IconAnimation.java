@@ -0,0 +1,195 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view;
+
+import javafx.animation.Animation;
+import javafx.animation.Animation.Status;
+import javafx.animation.Interpolator;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fade or rotate animation of an icon which is advanced by the {@link IconAnimationDriver} instead of an own timeline.
+ * <p>
+ * The animation interpolates the opacity or the rotation of its node like the corresponding transition. Endless
+ * animations derive their phase from the clock of the driver, so all icons animated with the same duration pulse in
+ * sync.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class IconAnimation {
+
+    private final Node node;
+    private final DoubleProperty value;
+    private final double fromValue;
+    private final double toValue;
+    private final int cycleCount;
+    private final long cycleDurationNanos;
+    private final Interpolator interpolator;
+    private final boolean autoReverse;
+    private final ReadOnlyObjectWrapper<Status> status;
+    private EventHandler<ActionEvent> onFinished;
+    private long startNanos;
+    private boolean shown;
+    private long nextVisibilityCheckNanos;
+
+    private IconAnimation(final Node node, final DoubleProperty value, final double fromValue, final double toValue, final int cycleCount, final double duration, final Interpolator interpolator, final boolean autoReverse) {
+        assert node != null;
+        this.node = node;
+        this.value = value;
+        this.fromValue = fromValue;
+        this.toValue = toValue;
+        this.cycleCount = cycleCount;
+        this.cycleDurationNanos = Math.max(1, TimeUnit.MICROSECONDS.toNanos(Math.round(duration * 1000)));
+        this.interpolator = interpolator;
+        this.autoReverse = autoReverse;
+        this.status = new ReadOnlyObjectWrapper<>(Status.STOPPED);
+    }
+
+    /**
+     * Creates an animation fading the opacity of the given node back and forth.
+     *
+     * @param node the node to which the animation should be applied.
+     * @param fromValue the opacity value from which the animation should start.
+     * @param toValue the opacity value where the animation should end.
+     * @param cycleCount the number of times the animation should be played (use Animation.INDEFINITE for endless).
+     * @param duration the duration in milliseconds which one animation cycle should take.
+     * @return the created animation.
+     */
+    public static IconAnimation createFadeAnimation(final Node node, final double fromValue, final double toValue, final int cycleCount, final double duration) {
+        return new IconAnimation(node, node.opacityProperty(), fromValue, toValue, cycleCount, duration, Interpolator.EASE_BOTH, true);
+    }
+
+    /**
+     * Creates an animation rotating the given node.
+     *
+     * @param node the node to which the animation should be applied.
+     * @param fromAngle the rotation angle where the animation should start.
+     * @param toAngle the rotation angle where the animation should end.
+     * @param cycleCount the number of times the animation should be played (use Animation.INDEFINITE for endless).
+     * @param duration the duration in milliseconds which one animation cycle should take.
+     * @param interpolator defines the rotation value interpolation between {@code fromAngle} and {@code toAngle}.
+     * @param autoReverse defines if the animation should be reversed at the end.
+     * @return the created animation.
+     */
+    public static IconAnimation createRotateAnimation(final Node node, final double fromAngle, final double toAngle, final int cycleCount, final double duration, final Interpolator interpolator, final boolean autoReverse) {
+        return new IconAnimation(node, node.rotateProperty(), fromAngle, toAngle, cycleCount, duration, interpolator, autoReverse);
+    }
+
+    /**
+     * Starts the animation from the beginning.
+     */
+    public void play() {
+        IconAnimationDriver.getInstance().play(this);
+    }
+
+    /**
+     * Stops the animation, the node keeps its current value.
+     */
+    public void stop() {
+        IconAnimationDriver.getInstance().stop(this);
+    }
+
+    /**
+     * @param onFinished the handler called after the last cycle of the animation was played.
+     */
+    public void setOnFinished(final EventHandler<ActionEvent> onFinished) {
+        this.onFinished = onFinished;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public ReadOnlyObjectProperty<Status> statusProperty() {
+        return status.getReadOnlyProperty();
+    }
+
+    public Node getNode() {
+        return node;
+    }
+
+    boolean isEndless() {
+        return cycleCount == Animation.INDEFINITE;
+    }
+
+    void start(final long nowNanos) {
+        startNanos = nowNanos;
+        nextVisibilityCheckNanos = nowNanos;
+        status.set(Status.RUNNING);
+    }
+
+    void halt() {
+        status.set(Status.STOPPED);
+    }
+
+    /**
+     * Applies the value of the final state. Used if animations are disabled, endless animations stay running.
+     */
+    void skipToEnd() {
+        if (isEndless()) {
+            value.set(toValue);
+            return;
+        }
+        finish();
+    }
+
+    /**
+     * Applies the value of the given point in time.
+     *
+     * @param nowNanos the current time of the driver clock.
+     * @return false if the last cycle was played.
+     */
+    boolean advance(final long nowNanos) {
+        final long elapsedNanos = Math.max(0, isEndless() ? nowNanos : nowNanos - startNanos);
+        final long cycle = elapsedNanos / cycleDurationNanos;
+        if (!isEndless() && cycle >= cycleCount) {
+            finish();
+            return false;
+        }
+        double fraction = (double) (elapsedNanos % cycleDurationNanos) / cycleDurationNanos;
+        if (autoReverse && cycle % 2 == 1) {
+            fraction = 1 - fraction;
+        }
+        value.set(interpolator.interpolate(fromValue, toValue, fraction));
+        return true;
+    }
+
+    private void finish() {
+        value.set(autoReverse && cycleCount % 2 == 0 ? fromValue : toValue);
+        status.set(Status.STOPPED);
+        if (onFinished != null) {
+            onFinished.handle(new ActionEvent(this, null));
+        }
+    }
+
+    boolean isShown(final long nowNanos, final long checkIntervalNanos) {
+        if (nowNanos >= nextVisibilityCheckNanos) {
+            shown = IconAnimationDriver.isShown(node);
+            nextVisibilityCheckNanos = nowNanos + checkIntervalNanos;
+        }
+        return shown;
+    }
+}
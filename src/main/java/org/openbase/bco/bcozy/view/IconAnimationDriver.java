@@ -0,0 +1,195 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import org.openbase.bco.bcozy.jp.JPAnimationBudget;
+import org.openbase.bco.bcozy.jp.JPAnimationBudget.AnimationBudget;
+import org.openbase.jps.core.JPService;
+import org.openbase.jps.exception.JPNotAvailableException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advances all running {@link IconAnimation}s by a single animation timer.
+ * <p>
+ * Endless animations of icons which are not shown, because they are detached, hidden by a collapsed pane or scrolled
+ * out of the window, are paused until the icon is shown again. Finite animations are always played to the end so
+ * their finish handlers are called in time. The effort is limited by the {@link JPAnimationBudget}: a reduced budget
+ * lowers the frame rate of all icon animations, no budget applies the final state of each animation instead of
+ * playing it. The timer only runs while at least one animation is running.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class IconAnimationDriver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IconAnimationDriver.class);
+
+    private static final long REDUCED_FRAME_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Constants.ICON_ANIMATION_REDUCED_FRAME_INTERVAL);
+    private static final long VISIBILITY_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Constants.ICON_ANIMATION_VISIBILITY_CHECK_INTERVAL);
+
+    /**
+     * Singleton instance.
+     */
+    private static IconAnimationDriver instance;
+
+    private final AnimationBudget animationBudget;
+    private final Set<IconAnimation> runningAnimationSet;
+    private final AnimationTimer timer;
+    private final long epochNanos;
+    private long lastFrameNanos;
+    private boolean timerRunning;
+
+    private IconAnimationDriver() {
+        AnimationBudget budget;
+        try {
+            budget = JPService.getProperty(JPAnimationBudget.class).getValue();
+        } catch (JPNotAvailableException ex) {
+            ExceptionPrinter.printHistory("Could not detect animation budget, icons are animated on every frame.", ex, LOGGER);
+            budget = AnimationBudget.FULL;
+        }
+        this.animationBudget = budget;
+        this.runningAnimationSet = new LinkedHashSet<>();
+        this.epochNanos = System.nanoTime();
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(final long now) {
+                advance(now);
+            }
+        };
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the driver of all icon animations.
+     */
+    public static IconAnimationDriver getInstance() {
+        synchronized (IconAnimationDriver.class) {
+            if (IconAnimationDriver.instance == null) {
+                IconAnimationDriver.instance = new IconAnimationDriver();
+            }
+        }
+        return IconAnimationDriver.instance;
+    }
+
+    /**
+     * @return the budget limiting the icon animations.
+     */
+    public AnimationBudget getAnimationBudget() {
+        return animationBudget;
+    }
+
+    /**
+     * @return the number of currently running icon animations.
+     */
+    public int getRunningAnimationCount() {
+        return runningAnimationSet.size();
+    }
+
+    void play(final IconAnimation animation) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> play(animation));
+            return;
+        }
+        animation.start(getClockNanos(System.nanoTime()));
+        if (animationBudget == AnimationBudget.NONE) {
+            animation.skipToEnd();
+            return;
+        }
+        runningAnimationSet.add(animation);
+        if (!timerRunning) {
+            timerRunning = true;
+            lastFrameNanos = 0;
+            timer.start();
+        }
+    }
+
+    void stop(final IconAnimation animation) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> stop(animation));
+            return;
+        }
+        runningAnimationSet.remove(animation);
+        animation.halt();
+        stopTimerIfIdle();
+    }
+
+    private void advance(final long now) {
+        if (animationBudget == AnimationBudget.REDUCED && now - lastFrameNanos < REDUCED_FRAME_INTERVAL_NANOS) {
+            return;
+        }
+        lastFrameNanos = now;
+        final long clockNanos = getClockNanos(now);
+
+        // copy because finish handlers may start or stop animations
+        for (final IconAnimation animation : new ArrayList<>(runningAnimationSet)) {
+            if (animation.isEndless() && !animation.isShown(clockNanos, VISIBILITY_CHECK_INTERVAL_NANOS)) {
+                continue;
+            }
+            if (!animation.advance(clockNanos)) {
+                runningAnimationSet.remove(animation);
+            }
+        }
+        stopTimerIfIdle();
+    }
+
+    private void stopTimerIfIdle() {
+        if (timerRunning && runningAnimationSet.isEmpty()) {
+            timerRunning = false;
+            timer.stop();
+        }
+    }
+
+    private long getClockNanos(final long nanos) {
+        return nanos - epochNanos;
+    }
+
+    /**
+     * Checks if the given node is part of a showing window, is not hidden by any of its parents and intersects the
+     * visible area of its scene. The visibility of the node itself is ignored because icons show the node of a glyph
+     * only while it is animated.
+     *
+     * @param node the node to check.
+     * @return true if the node is shown.
+     */
+    static boolean isShown(final Node node) {
+        final Scene scene = node.getScene();
+        if (scene == null || scene.getWindow() == null || !scene.getWindow().isShowing()) {
+            return false;
+        }
+        for (Node current = node.getParent(); current != null; current = current.getParent()) {
+            if (!current.isVisible()) {
+                return false;
+            }
+        }
+        final Bounds sceneBounds = node.localToScene(node.getBoundsInLocal());
+        return sceneBounds.intersects(0, 0, scene.getWidth(), scene.getHeight());
+    }
+}
@@ -22,17 +22,21 @@ import javafx.scene.effect.ColorAdjust;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Created by hoestreich on 12/14/15.
+ * <p>
+ * Each image is decoded once per path at its native resolution and shared by all image views showing it, the views
+ * scale it via their fit size so it stays sharp on HiDPI screens and when scaled. All views share the same
+ * color adjustment, so a theme change only updates this effect and no view has to be referenced by the provider.
  */
 public final class ImageViewProvider {
 
-    private static List<ImageView> imageViews = new ArrayList<>();
+    private static final Map<String, Image> IMAGE_CACHE = new HashMap<>();
 
-    private static ColorAdjust actColor = new ColorAdjust(360.0, 100, -100.0, 0.0);
+    private static final ColorAdjust COLOR_ADJUST = new ColorAdjust(360.0, 100, -100.0, 0.0);
 
     private ImageViewProvider() {
     }
@@ -76,6 +80,7 @@ public final class ImageViewProvider {
 
     /**
      * Colorizes all icons created by this provider to a choosen color (defined by the parameters).
+     * Has to be called on the application thread because the effect is shared by all displayed icons.
      *
      * @param hue the hue of the color to be set
      * @param saturation the saturation of the color to be set
@@ -83,24 +88,31 @@ public final class ImageViewProvider {
      * @param contrast the contrast of the color to be set
      */
     public static void colorizeIcons(final double hue, final double saturation, final double brightness, final double contrast) {
-
-        actColor = new ColorAdjust(hue, saturation, brightness, contrast);
-
-        for (final ImageView imageView : imageViews) {
-            imageView.setEffect(actColor);
-            imageView.setSmooth(true);
-        }
+        COLOR_ADJUST.setHue(hue);
+        COLOR_ADJUST.setSaturation(saturation);
+        COLOR_ADJUST.setBrightness(brightness);
+        COLOR_ADJUST.setContrast(contrast);
     }
 
     private static ImageView init(final String imagePath, final double width, final double height) {
-        final Image icon = new Image(ImageViewProvider.class.getResourceAsStream(imagePath));
-        final ImageView imageView = new ImageView(icon);
+        final ImageView imageView = new ImageView(getImage(imagePath));
         imageView.setPreserveRatio(true);
         imageView.setFitHeight(height);
         imageView.setFitWidth(width);
-        imageView.setEffect(actColor);
+        imageView.setEffect(COLOR_ADJUST);
         imageView.setSmooth(true);
-        imageViews.add(imageView);
         return imageView;
     }
+
+    /**
+     * Returns the image of the given path and decodes it at its native resolution if not cached yet.
+     */
+    private static synchronized Image getImage(final String imagePath) {
+        Image image = IMAGE_CACHE.get(imagePath);
+        if (image == null) {
+            image = new Image(ImageViewProvider.class.getResourceAsStream(imagePath));
+            IMAGE_CACHE.put(imagePath, image);
+        }
+        return image;
+    }
 }
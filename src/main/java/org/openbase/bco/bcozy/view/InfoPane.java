@@ -105,6 +105,17 @@ public class InfoPane extends BorderPane {
         return show(identifier, "-fx-text-fill: green;");
     }
 
+    /**
+     * Shows a confirmation whose localized text contains placeholders like {@code {0}}.
+     *
+     * @param identifier the identifier of the localized text.
+     * @param arguments the placeholder-arguments.
+     * @return a configurer of the info pane.
+     */
+    public static InfoPaneConfigurer confirmation(final String identifier, final Object... arguments) {
+        return show(identifier, arguments, "-fx-text-fill: green;", "");
+    }
+
     public static InfoPaneConfigurer warn(final String identifier) {
         return show(identifier, "-fx-text-fill: orange;");
     }
@@ -113,12 +124,27 @@ public class InfoPane extends BorderPane {
         return show(identifier, "-fx-text-fill: red;");
     }
 
+    /**
+     * Shows an error whose localized text contains placeholders like {@code {0}}.
+     *
+     * @param identifier the identifier of the localized text.
+     * @param arguments the placeholder-arguments.
+     * @return a configurer of the info pane.
+     */
+    public static InfoPaneConfigurer error(final String identifier, final Object... arguments) {
+        return show(identifier, arguments, "-fx-text-fill: red;", "");
+    }
+
 
     public static InfoPaneConfigurer show(final String identifier, String style) {
         return show(identifier, style, "");
     }
 
     public static InfoPaneConfigurer show(final String identifier, String style, String infopaneStyle) {
+        return show(identifier, new Object[0], style, infopaneStyle);
+    }
+
+    private static InfoPaneConfigurer show(final String identifier, final Object[] arguments, final String style, final String infopaneStyle) {
         Objects.requireNonNull(identifier);
         Objects.requireNonNull(style);
 
@@ -130,7 +156,7 @@ public class InfoPane extends BorderPane {
                 infoPane.clearBackground();
                 infoPane.setStyle(infopaneStyle);
                 infoPane.textLabel.setStyle(style + "-fx-font-size: 16;");
-                infoPane.textLabel.setIdentifier(identifier);
+                infoPane.textLabel.setIdentifier(identifier, arguments);
             });
         } catch (CouldNotPerformException ex) {
             ExceptionPrinter.printHistory("Could not print user feedback!", ex, LOGGER);
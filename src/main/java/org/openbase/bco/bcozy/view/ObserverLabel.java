@@ -45,6 +45,11 @@ public class ObserverLabel extends Label implements Observer {
      */
     private Function<String, String> applyOnNewText = Function.identity();
 
+    /**
+     * The arguments replacing the placeholders of the localized text.
+     */
+    private Object[] arguments = new Object[0];
+
     public ObserverLabel() {
         super();
         identifier.addListener((observable, oldValue, newValue) -> update(null, null));
@@ -83,7 +88,7 @@ public class ObserverLabel extends Label implements Observer {
             super.setText("");
         }
         
-        super.setText(applyOnNewText.apply(LanguageSelection.getLocalized(getIdentifier())));
+        super.setText(applyOnNewText.apply(LanguageSelection.getLocalized(getIdentifier(), arguments)));
     }
 
     /**
@@ -92,7 +97,23 @@ public class ObserverLabel extends Label implements Observer {
      * @param identifier identifier
      */
     public void setIdentifier(String identifier) {
-        this.identifier.set(identifier);
+        setIdentifier(identifier, new Object[0]);
+    }
+
+    /**
+     * Sets the new identifier for this ObserverLabel and the arguments replacing the placeholders like {@code {0}} of
+     * its localized text.
+     *
+     * @param identifier identifier
+     * @param arguments the placeholder-arguments
+     */
+    public void setIdentifier(final String identifier, final Object... arguments) {
+        this.arguments = arguments;
+        if (identifier != null && identifier.equals(getIdentifier())) {
+            update(null, null);
+        } else {
+            this.identifier.set(identifier);
+        }
     }
 
     public String getIdentifier() {
@@ -22,17 +22,44 @@ import de.jensd.fx.glyphs.GlyphIcons;
 import de.jensd.fx.glyphs.GlyphsDude;
 import javafx.animation.Animation;
 import javafx.animation.Animation.Status;
-import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
-import javafx.animation.RotateTransition;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.beans.value.ObservableValue;
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableObjectProperty;
+import javafx.css.StyleConverter;
+import javafx.css.Styleable;
+import javafx.css.StyleableObjectProperty;
+import javafx.css.StyleableProperty;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
 import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
+ * Icon composed of a foreground and an optional background glyph.
+ * <p>
+ * As long as a glyph is not animated it is displayed as image provided by the {@link GlyphSnapshotCache}, so equal
+ * icons share one rasterized image and no text has to be rendered per frame. The image is rasterized at the scene
+ * scale of the icon when the snapshot is refreshed. Icons do not observe their scene transform, instead zoomable layers
+ * refresh the icons they contain via {@link #observeRenderScale(Parent)}, so the image stays sharp if the room plan is
+ * zoomed. The text node of a glyph replaces the image only
+ * while one of its animations is running. The theme color of the glyphs is resolved by the icon itself, so the
+ * detached text nodes do not have to be styled. The fade icons are created when a fade animation requires them. All
+ * fade and rotate animations are advanced by the {@link IconAnimationDriver}.
+ *
  * @author hoestreich
  * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
  *
@@ -46,15 +73,48 @@ public class SVGIcon extends StackPane {
         BACKGROUND;
     }
 
+    private static final CssMetaData<SVGIcon, Paint> THEME_FILL = new CssMetaData<SVGIcon, Paint>("-fx-fill", StyleConverter.getPaintConverter(), Color.BLACK) {
+
+        @Override
+        public boolean isSettable(final SVGIcon icon) {
+            return !icon.themeFill.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Paint> getStyleableProperty(final SVGIcon icon) {
+            return icon.themeFill;
+        }
+    };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+    static {
+        final List<CssMetaData<? extends Styleable, ?>> cssMetaDataList = new ArrayList<>(StackPane.getClassCssMetaData());
+        cssMetaDataList.add(THEME_FILL);
+        CSS_META_DATA = Collections.unmodifiableList(cssMetaDataList);
+    }
+
     private Text backgroundIcon;
     private Text backgroundFadeIcon;
     private Text foregroundIcon;
     private Text foregroundFadeIcon;
+    private GlyphIcons backgroundGlyph;
+    private GlyphIcons foregroundGlyph;
+    private final ImageView backgroundSnapshotView;
+    private final ImageView foregroundSnapshotView;
+    private final InvalidationListener snapshotInvalidationListener;
+    private final StyleableObjectProperty<Paint> themeFill;
+    private boolean snapshotUpdateScheduled;
+    private boolean backgroundSnapshotShown;
+    private boolean foregroundSnapshotShown;
+    private boolean backgroundThemed;
+    private boolean foregroundThemed;
+    private double renderScale;
 
     private final double size;
     private final boolean styled;
-    private FadeTransition foregroundColorFadeAnimation, backgroundIconColorFadeAnimation;
-    private RotateTransition foregroundRotateAnimation, backgroundRotateAnimation;
+    private IconAnimation foregroundColorFadeAnimation, backgroundIconColorFadeAnimation;
+    private IconAnimation foregroundRotateAnimation, backgroundRotateAnimation;
     private IconState iconState;
 
     /**
@@ -67,11 +127,10 @@ public class SVGIcon extends StackPane {
      */
     public SVGIcon(final GlyphIcons icon, final double size, final boolean styled) {
         this(size, styled);
+        this.foregroundGlyph = icon;
         this.foregroundIcon = createIcon(icon, Layer.FOREGROUND);
-        this.foregroundFadeIcon = createColorFadeIcon(icon, Layer.FOREGROUND);
         this.backgroundIcon = null;
-        this.backgroundFadeIcon = null;
-        this.getChildren().addAll(foregroundIcon, foregroundFadeIcon);
+        updateChildren();
     }
 
     /**
@@ -84,16 +143,27 @@ public class SVGIcon extends StackPane {
      */
     public SVGIcon(final GlyphIcons backgroundIcon, final GlyphIcons foregroundIcon, final double size) {
         this(size, true);
+        this.foregroundGlyph = foregroundIcon;
         this.foregroundIcon = createIcon(foregroundIcon, Layer.FOREGROUND);
-        this.foregroundFadeIcon = createColorFadeIcon(foregroundIcon, Layer.FOREGROUND);
+        this.backgroundGlyph = backgroundIcon;
         this.backgroundIcon = createIcon(backgroundIcon, Layer.BACKGROUND);
-        this.backgroundFadeIcon = createColorFadeIcon(backgroundIcon, Layer.BACKGROUND);
-        this.getChildren().addAll(this.backgroundIcon, this.backgroundFadeIcon, this.foregroundIcon, this.foregroundFadeIcon);
+        updateChildren();
     }
 
     public SVGIcon(double size, boolean styled) {
         this.size = size;
         this.styled = styled;
+        this.backgroundSnapshotView = new ImageView();
+        this.foregroundSnapshotView = new ImageView();
+        this.snapshotInvalidationListener = observable -> scheduleSnapshotUpdate();
+        this.themeFill = new SimpleStyleableObjectProperty<>(THEME_FILL, this, "themeFill");
+        this.foregroundThemed = styled;
+        this.backgroundThemed = false;
+        this.renderScale = computeRenderScale();
+
+        // the theme color is resolved by the icon because the text nodes are detached while their snapshot is shown
+        getStyleClass().add(Constants.ICONS_CSS_STRING);
+        themeFill.addListener(snapshotInvalidationListener);
 
         disableProperty().addListener((ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean disabled) -> {
             if (disabled) {
@@ -196,7 +266,11 @@ public class SVGIcon extends StackPane {
     }
 
     private Text createIcon(final GlyphIcons glyphIcon, final Layer layer) {
-        return createIcon(glyphIcon, size, layer == Layer.FOREGROUND && styled);
+        final Text icon = createIcon(glyphIcon, size, layer == Layer.FOREGROUND && styled);
+        icon.fillProperty().addListener(snapshotInvalidationListener);
+        icon.strokeProperty().addListener(snapshotInvalidationListener);
+        icon.strokeWidthProperty().addListener(snapshotInvalidationListener);
+        return icon;
     }
 
     private static Text createIcon(final GlyphIcons glyphIcon, final double size, final boolean styled) {
@@ -221,6 +295,168 @@ public class SVGIcon extends StackPane {
         return icon;
     }
 
+    private Text getForegroundFadeIcon() {
+        if (foregroundFadeIcon == null) {
+            foregroundFadeIcon = createColorFadeIcon(foregroundGlyph, Layer.FOREGROUND);
+            updateChildren();
+        }
+        return foregroundFadeIcon;
+    }
+
+    private Text getBackgroundFadeIcon() {
+        if (backgroundFadeIcon == null) {
+            backgroundFadeIcon = createColorFadeIcon(backgroundGlyph, Layer.BACKGROUND);
+            updateChildren();
+        }
+        return backgroundFadeIcon;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    /**
+     * Shows the text nodes of the glyphs until their snapshots are updated.
+     */
+    private void updateChildren() {
+        backgroundSnapshotShown = false;
+        foregroundSnapshotShown = false;
+        arrangeChildren();
+        scheduleSnapshotUpdate();
+    }
+
+    /**
+     * Arranges the children from back to front, each glyph is represented by its text node or by its snapshot and is
+     * followed by its fade icon.
+     */
+    private void arrangeChildren() {
+        final List<Node> childList = new ArrayList<>();
+        addLayer(childList, backgroundIcon, backgroundSnapshotView, backgroundFadeIcon, backgroundSnapshotShown);
+        addLayer(childList, foregroundIcon, foregroundSnapshotView, foregroundFadeIcon, foregroundSnapshotShown);
+        getChildren().setAll(childList);
+    }
+
+    private static void addLayer(final List<Node> childList, final Text icon, final ImageView snapshotView, final Text fadeIcon, final boolean snapshotShown) {
+        if (icon == null) {
+            return;
+        }
+        snapshotView.opacityProperty().bind(icon.opacityProperty());
+        snapshotView.rotateProperty().bind(icon.rotateProperty());
+        childList.add(snapshotShown ? snapshotView : icon);
+        if (fadeIcon != null) {
+            childList.add(fadeIcon);
+        }
+    }
+
+    /**
+     * Refreshes the snapshots of the icons within the given layer as soon as the zoom of the layer changes the render
+     * scale. A single listener per zoomable layer is used instead of one per icon, so panning and zooming do not
+     * compute the scene transform of every icon per frame.
+     *
+     * @param layer the zoomable layer containing icons.
+     */
+    public static void observeRenderScale(final Parent layer) {
+        final double[] layerRenderScale = {computeRenderScale(layer.getLocalToSceneTransform())};
+        layer.localToSceneTransformProperty().addListener(observable -> {
+            // also revalidates the transform, so the next change is reported again
+            final double renderScale = computeRenderScale(layer.getLocalToSceneTransform());
+            if (renderScale == layerRenderScale[0]) {
+                return;
+            }
+            layerRenderScale[0] = renderScale;
+            for (final Node node : layer.lookupAll("." + Constants.ICONS_CSS_STRING)) {
+                if (node instanceof SVGIcon) {
+                    ((SVGIcon) node).refreshRenderScale();
+                }
+            }
+        });
+    }
+
+    /**
+     * Refreshes the snapshots if the scene scale of the icon requires another render scale.
+     */
+    public void refreshRenderScale() {
+        if (computeRenderScale() != renderScale) {
+            scheduleSnapshotUpdate();
+        }
+    }
+
+    private double computeRenderScale() {
+        return computeRenderScale(getLocalToSceneTransform());
+    }
+
+    /**
+     * Computes the scale at which the snapshots are rasterized, which is the scene scale including the oversampling
+     * for HiDPI screens, rounded up to a power of two so small zoom steps reuse the cached images.
+     */
+    private static double computeRenderScale(final Transform transform) {
+        final double sceneScale = Math.max(Math.hypot(transform.getMxx(), transform.getMyx()), Math.hypot(transform.getMxy(), transform.getMyy()));
+        final double scale = Math.max(1.0, sceneScale * Constants.GLYPH_SNAPSHOT_OVERSAMPLING);
+        return Math.min(Constants.GLYPH_SNAPSHOT_MAX_SCALE, Math.pow(2, Math.ceil(Math.log(scale) / Math.log(2))));
+    }
+
+    private IconAnimation observe(final IconAnimation animation) {
+        animation.statusProperty().addListener(snapshotInvalidationListener);
+        return animation;
+    }
+
+    /**
+     * Updates the snapshots on the next pulse, so the final state of a finished animation is already applied.
+     */
+    private void scheduleSnapshotUpdate() {
+        if (snapshotUpdateScheduled) {
+            return;
+        }
+        snapshotUpdateScheduled = true;
+        Platform.runLater(() -> {
+            snapshotUpdateScheduled = false;
+            renderScale = computeRenderScale();
+            final boolean foregroundShown = updateSnapshot(foregroundGlyph, foregroundIcon, foregroundFadeIcon, foregroundSnapshotView, foregroundThemed, foregroundColorFadeAnimation, foregroundRotateAnimation);
+            final boolean backgroundShown = updateSnapshot(backgroundGlyph, backgroundIcon, backgroundFadeIcon, backgroundSnapshotView, backgroundThemed, backgroundIconColorFadeAnimation, backgroundRotateAnimation);
+            if (foregroundShown != foregroundSnapshotShown || backgroundShown != backgroundSnapshotShown) {
+                foregroundSnapshotShown = foregroundShown;
+                backgroundSnapshotShown = backgroundShown;
+                arrangeChildren();
+            }
+        });
+    }
+
+    /**
+     * @return the fill of the given layer or null if the layer is themed and the theme is not applied yet.
+     */
+    private Paint getLayerFill(final Text icon, final boolean themed) {
+        if (!themed) {
+            return icon.getFill();
+        }
+        return themeFill.getStyleOrigin() != null ? themeFill.get() : null;
+    }
+
+    /**
+     * Updates the snapshot of the glyph, unless one of the given animations is running or the fade icon is visible.
+     *
+     * @return true if the snapshot should be displayed instead of the text node.
+     */
+    private boolean updateSnapshot(final GlyphIcons glyph, final Text icon, final Text fadeIcon, final ImageView snapshotView, final boolean themed, final IconAnimation... animations) {
+        if (icon == null) {
+            return false;
+        }
+        boolean animated = fadeIcon != null && fadeIcon.getOpacity() > Constants.FULLY_TRANSPARENT && !Color.TRANSPARENT.equals(fadeIcon.getFill());
+        for (final IconAnimation animation : animations) {
+            animated |= animation != null && animation.getStatus() == Status.RUNNING;
+        }
+        final Paint fill = getLayerFill(icon, themed);
+        if (animated || fill == null) {
+            return false;
+        }
+        final Image snapshot = GlyphSnapshotCache.getInstance().getSnapshot(glyph, size, fill, icon.getStroke(), icon.getStrokeWidth(), themed, renderScale);
+        snapshotView.setImage(snapshot);
+        snapshotView.setFitWidth(snapshot.getWidth() / renderScale);
+        snapshotView.setFitHeight(snapshot.getHeight() / renderScale);
+        snapshotView.setSmooth(true);
+        return true;
+    }
+
     /**
      * Apply and play a FadeTransition on the icon in the foregroundIcon.
      * This Transition modifies the opacity of the foregroundIcon from fully transparent to opaque.
@@ -229,7 +465,7 @@ public class SVGIcon extends StackPane {
      */
     public void fadeForegroundIconColorFromTransparentToOpaque(final int cycleCount) {
         stopForegroundIconColorFadeAnimation();
-        foregroundColorFadeAnimation = AnimationProvider.createFadeTransition(foregroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.FADE_DURATION_SLOW);
+        foregroundColorFadeAnimation = observe(IconAnimation.createFadeAnimation(foregroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.FADE_DURATION_SLOW));
         foregroundColorFadeAnimation.setOnFinished(event -> foregroundIcon.setOpacity(Constants.NO_TRANSPARENCY));
         foregroundColorFadeAnimation.play();
     }
@@ -242,7 +478,7 @@ public class SVGIcon extends StackPane {
      */
     public void fadeForegroundIconColorFromOpaqueToTransparent(final int cycleCount) {
         stopForegroundIconColorFadeAnimation();
-        foregroundColorFadeAnimation = AnimationProvider.createFadeTransition(foregroundIcon, Constants.NO_TRANSPARENCY, Constants.FULLY_TRANSPARENT, cycleCount, Constants.FADE_DURATION_SLOW);
+        foregroundColorFadeAnimation = observe(IconAnimation.createFadeAnimation(foregroundIcon, Constants.NO_TRANSPARENCY, Constants.FULLY_TRANSPARENT, cycleCount, Constants.FADE_DURATION_SLOW));
         foregroundColorFadeAnimation.setOnFinished(event -> foregroundIcon.setOpacity(Constants.FULLY_TRANSPARENT));
         foregroundColorFadeAnimation.play();
     }
@@ -255,7 +491,7 @@ public class SVGIcon extends StackPane {
      */
     public void fadeBackgroundIconColorFromTransparentToOpaque(final int cycleCount) {
         stopBackgroundIconColorFadeAnimation();
-        backgroundIconColorFadeAnimation = AnimationProvider.createFadeTransition(backgroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, 1, Constants.FADE_DURATION_SLOW);
+        backgroundIconColorFadeAnimation = observe(IconAnimation.createFadeAnimation(backgroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, 1, Constants.FADE_DURATION_SLOW));
         backgroundIconColorFadeAnimation.setOnFinished(event -> backgroundIcon.setOpacity(Constants.NO_TRANSPARENCY));
         backgroundIconColorFadeAnimation.play();
     }
@@ -268,7 +504,7 @@ public class SVGIcon extends StackPane {
      */
     public void fadeBackgroundIconColorFromOpaqueToTransparent(final int cycleCount) {
         stopBackgroundIconColorFadeAnimation();
-        backgroundIconColorFadeAnimation = AnimationProvider.createFadeTransition(backgroundIcon, Constants.NO_TRANSPARENCY, Constants.FULLY_TRANSPARENT, cycleCount, Constants.FADE_DURATION_SLOW);
+        backgroundIconColorFadeAnimation = observe(IconAnimation.createFadeAnimation(backgroundIcon, Constants.NO_TRANSPARENCY, Constants.FULLY_TRANSPARENT, cycleCount, Constants.FADE_DURATION_SLOW));
         backgroundIconColorFadeAnimation.setOnFinished(event -> backgroundIcon.setOpacity(Constants.FULLY_TRANSPARENT));
         backgroundIconColorFadeAnimation.play();
     }
@@ -279,7 +515,7 @@ public class SVGIcon extends StackPane {
      * @param cycleCount the number of times the animation should be played (use Animation.INDEFINITE for endless)
      */
     public void startForegroundIconColorFadeAnimation(final int cycleCount) {
-        foregroundColorFadeAnimation = AnimationProvider.createFadeTransition(foregroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.FADE_DURATION_SLOW);
+        foregroundColorFadeAnimation = observe(IconAnimation.createFadeAnimation(foregroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.FADE_DURATION_SLOW));
         foregroundColorFadeAnimation.setOnFinished(event -> foregroundIcon.setOpacity(Constants.FULLY_TRANSPARENT));
         foregroundColorFadeAnimation.play();
     }
@@ -294,7 +530,7 @@ public class SVGIcon extends StackPane {
             LOGGER.warn("Background animation skipped because background icon not set!");
             return;
         }
-        backgroundIconColorFadeAnimation = AnimationProvider.createFadeTransition(backgroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.FADE_DURATION_SLOW);
+        backgroundIconColorFadeAnimation = observe(IconAnimation.createFadeAnimation(backgroundIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.FADE_DURATION_SLOW));
         backgroundIconColorFadeAnimation.setOnFinished(event -> backgroundIcon.setOpacity(Constants.FULLY_TRANSPARENT));
         backgroundIconColorFadeAnimation.play();
     }
@@ -360,8 +596,9 @@ public class SVGIcon extends StackPane {
     public void setForegroundIconColorAnimated(final Color color, final int cycleCount) {
         assert color != null;
         stopForegroundIconColorFadeAnimation();
+        final Text foregroundFadeIcon = getForegroundFadeIcon();
         foregroundFadeIcon.setFill(color);
-        foregroundColorFadeAnimation = AnimationProvider.createFadeTransition(foregroundFadeIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, Animation.INDEFINITE, Constants.LIGHT_CHANGE_FADE_DURATION);
+        foregroundColorFadeAnimation = observe(IconAnimation.createFadeAnimation(foregroundFadeIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, Animation.INDEFINITE, Constants.LIGHT_CHANGE_FADE_DURATION));
         foregroundColorFadeAnimation.setOnFinished(event -> {
             foregroundFadeIcon.setFill(color);
             foregroundFadeIcon.setOpacity(Constants.FULLY_TRANSPARENT);
@@ -381,8 +618,9 @@ public class SVGIcon extends StackPane {
             return;
         }
         stopBackgroundIconColorFadeAnimation();
+        final Text backgroundFadeIcon = getBackgroundFadeIcon();
         backgroundFadeIcon.setFill(color);
-        backgroundIconColorFadeAnimation = AnimationProvider.createFadeTransition(backgroundFadeIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.LIGHT_CHANGE_FADE_DURATION);
+        backgroundIconColorFadeAnimation = observe(IconAnimation.createFadeAnimation(backgroundFadeIcon, Constants.FULLY_TRANSPARENT, Constants.NO_TRANSPARENCY, cycleCount, Constants.LIGHT_CHANGE_FADE_DURATION));
         backgroundIconColorFadeAnimation.setOnFinished(event -> {
             backgroundFadeIcon.setFill(color);
             backgroundFadeIcon.setOpacity(Constants.FULLY_TRANSPARENT);
@@ -402,7 +640,7 @@ public class SVGIcon extends StackPane {
      */
     public void startForegroundIconRotateAnimation(final double fromAngle, final double toAngle, final int cycleCount, final double duration, final Interpolator interpolator, final boolean autoReverse) {
         stopForegroundIconRotateAnimation();
-        foregroundRotateAnimation = AnimationProvider.createRotateTransition(foregroundIcon, fromAngle, toAngle, cycleCount, duration, interpolator, autoReverse);
+        foregroundRotateAnimation = observe(IconAnimation.createRotateAnimation(foregroundIcon, fromAngle, toAngle, cycleCount, duration, interpolator, autoReverse));
         foregroundRotateAnimation.setOnFinished(event -> foregroundIcon.setRotate(0));
         foregroundRotateAnimation.play();
     }
@@ -419,7 +657,7 @@ public class SVGIcon extends StackPane {
      */
     public void startBackgroundIconRotateAnimation(final double fromAngle, final double toAngle, final int cycleCount, final double duration, final Interpolator interpolator, final boolean autoReverse) {
         stopBackgroundIconRotateAnimation();
-        backgroundRotateAnimation = AnimationProvider.createRotateTransition(backgroundIcon, fromAngle, toAngle, cycleCount, duration, interpolator, autoReverse);
+        backgroundRotateAnimation = observe(IconAnimation.createRotateAnimation(backgroundIcon, fromAngle, toAngle, cycleCount, duration, interpolator, autoReverse));
         backgroundRotateAnimation.setOnFinished(event -> backgroundIcon.setRotate(0));
         backgroundRotateAnimation.play();
     }
@@ -499,10 +737,13 @@ public class SVGIcon extends StackPane {
      */
     public void setForegroundIconColor(final Color color) {
         stopForegroundIconColorFadeAnimation();
+        foregroundThemed = false;
         foregroundIcon.setFill(color);
         foregroundIcon.setStroke(Color.TRANSPARENT);
         foregroundIcon.setStrokeWidth(0);
-        foregroundFadeIcon.setFill(Color.TRANSPARENT);
+        if (foregroundFadeIcon != null) {
+            foregroundFadeIcon.setFill(Color.TRANSPARENT);
+        }
     }
 
     /**
@@ -516,10 +757,13 @@ public class SVGIcon extends StackPane {
             return;
         }
         stopBackgroundIconColorFadeAnimation();
+        backgroundThemed = false;
         backgroundIcon.setFill(color);
 //        backgroundIcon.setStroke(Color.TRANSPARENT);
 //        backgroundIcon.setStrokeWidth(0);
-        backgroundFadeIcon.setFill(Color.TRANSPARENT);
+        if (backgroundFadeIcon != null) {
+            backgroundFadeIcon.setFill(Color.TRANSPARENT);
+        }
     }
 
     /**
@@ -555,7 +799,11 @@ public class SVGIcon extends StackPane {
         stopForegroundIconColorFadeAnimation();
         foregroundIcon.getStyleClass().clear();
         foregroundIcon.getStyleClass().add(Constants.ICONS_CSS_STRING);
-        foregroundFadeIcon.setFill(Color.TRANSPARENT);
+        foregroundThemed = true;
+        if (foregroundFadeIcon != null) {
+            foregroundFadeIcon.setFill(Color.TRANSPARENT);
+        }
+        scheduleSnapshotUpdate();
     }
 
     /**
@@ -569,7 +817,11 @@ public class SVGIcon extends StackPane {
         stopBackgroundIconColorFadeAnimation();
         backgroundIcon.getStyleClass().clear();
         backgroundIcon.getStyleClass().add(Constants.ICONS_CSS_STRING);
-        backgroundFadeIcon.setFill(Color.TRANSPARENT);
+        backgroundThemed = true;
+        if (backgroundFadeIcon != null) {
+            backgroundFadeIcon.setFill(Color.TRANSPARENT);
+        }
+        scheduleSnapshotUpdate();
     }
 
     /**
@@ -623,13 +875,11 @@ public class SVGIcon extends StackPane {
      * @param color the color of the new icon.
      */
     public void setForegroundIcon(final GlyphIcons icon, final Color color) {
-        // copy old images to replace later.
-        final Text oldForegroundIcon = foregroundIcon;
-        final Text oldForegroundFadeIcon = foregroundFadeIcon;
-
         // create new images.
+        this.foregroundGlyph = icon;
         this.foregroundIcon = createIcon(icon, Layer.FOREGROUND);
-        this.foregroundFadeIcon = createColorFadeIcon(icon, Layer.FOREGROUND);
+        this.foregroundFadeIcon = null;
+        this.foregroundThemed = styled;
 
         // setup icon color
         if (color != null) {
@@ -637,15 +887,7 @@ public class SVGIcon extends StackPane {
         }
 
         // replace old icons with new ones.
-        getChildren().replaceAll((node) -> {
-            if (node.equals(oldForegroundIcon)) {
-                return foregroundIcon;
-            } else if (node.equals(oldForegroundFadeIcon)) {
-                return foregroundFadeIcon;
-            } else {
-                return node;
-            }
-        });
+        updateChildren();
     }
 
     /**
@@ -657,36 +899,19 @@ public class SVGIcon extends StackPane {
      * @param color the color of the new icon.
      */
     public void setBackgroundIcon(final GlyphIcons icon, final Color color) {
-        // copy old images to replace later.
-        final Text oldBackgroundIcon = backgroundIcon;
-        final Text oldBackgroundFadeIcon = backgroundFadeIcon;
-
         // create new images.
+        this.backgroundGlyph = icon;
         this.backgroundIcon = createIcon(icon, Layer.BACKGROUND);
-        this.backgroundFadeIcon = createColorFadeIcon(icon, Layer.BACKGROUND);
+        this.backgroundFadeIcon = null;
+        this.backgroundThemed = false;
 
         // setup icon color
         if (color != null) {
             setBackgroundIconColor(color);
         }
 
-        // add background icon if not exists
-        if (oldBackgroundIcon == null || oldBackgroundFadeIcon == null) {
-            getChildren().clear();
-            getChildren().addAll(this.backgroundIcon, this.backgroundFadeIcon, this.foregroundIcon, this.foregroundFadeIcon);
-            return;
-        }
-
         // replace old icons with new ones.
-        getChildren().replaceAll((node) -> {
-            if (node.equals(oldBackgroundIcon)) {
-                return backgroundIcon;
-            } else if (node.equals(oldBackgroundFadeIcon)) {
-                return backgroundFadeIcon;
-            } else {
-                return node;
-            }
-        });
+        updateChildren();
     }
 
     /**
@@ -695,6 +920,9 @@ public class SVGIcon extends StackPane {
      * @return color value
      */
     public Color getForegroundIconColor() {
+        if (foregroundThemed && themeFill.get() instanceof Color) {
+            return (Color) themeFill.get();
+        }
         return (Color) foregroundIcon.getFill();
     }
 
@@ -708,6 +936,9 @@ public class SVGIcon extends StackPane {
             LOGGER.warn("Background color unknown because background icon not set!");
             return Color.TRANSPARENT;
         }
+        if (backgroundThemed && themeFill.get() instanceof Color) {
+            return (Color) themeFill.get();
+        }
         return (Color) backgroundIcon.getFill();
     }
 
@@ -22,11 +22,17 @@ package org.openbase.bco.bcozy.view;
 import com.google.protobuf.GeneratedMessage;
 import java.util.HashMap;
 import java.util.Map;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javafx.geometry.Point2D;
 import javafx.scene.layout.Pane;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy.Level;
 import org.openbase.bco.bcozy.view.location.UnitButton;
+import org.openbase.bco.bcozy.view.location.UnitClusterButton;
+import org.openbase.bco.bcozy.view.location.UnitButtonRegistry;
 import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
 import org.openbase.jul.exception.CouldNotPerformException;
 
@@ -42,8 +48,12 @@ public class SimpleUnitSymbolsPane extends Pane {
      * Application logger.
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleUnitSymbolsPane.class);
-    // unitId, unit button
+    /**
+     * The buttons of the displayed units by unit id.
+     */
     private final Map<String, UnitButton> unitsMap;
+    private final UnitClusterNodeCache clusterNodeCache;
+    private final ObjectProperty<Level> clusterLevel;
 
     /**
      * Constructor for the UnitSymbolsPane.
@@ -51,6 +61,12 @@ public class SimpleUnitSymbolsPane extends Pane {
     public SimpleUnitSymbolsPane() {
         super();
         unitsMap = new HashMap<>();
+        clusterNodeCache = new UnitClusterNodeCache();
+        clusterLevel = new SimpleObjectProperty<>(Level.UNIT);
+        clusterLevel.addListener((observable, oldValue, newValue) -> updateUnitsPane());
+
+        // the icons are rasterized at the zoom of this layer
+        SVGIcon.observeRenderScale(this);
     }
 
     /**
@@ -58,44 +74,74 @@ public class SimpleUnitSymbolsPane extends Pane {
      *
      * @param unitRemoteObject Unit to be controlled by the button.
      * @param position Position of the button on the map, should be the center of the location unit pane.
-     * @param locationId Id of the location the unit belongs to.
+     * @param unitId Id of the unit, a button already added for the same unit is replaced.
      * @throws CouldNotPerformException
      * @throws InterruptedException
      */
-    public void addUnit(final UnitRemote<? extends GeneratedMessage> unitRemoteObject, final Point2D position, final String locationId) throws CouldNotPerformException, InterruptedException {
+    public void addUnit(final UnitRemote<? extends GeneratedMessage> unitRemoteObject, final Point2D position, final String unitId) throws CouldNotPerformException, InterruptedException {
         UnitButton newButton;
         try {
-            newButton = new UnitButton(unitRemoteObject);
+            newButton = UnitButtonRegistry.getInstance().acquire(unitRemoteObject);
             newButton.setTranslateX(position.getY());
             newButton.setTranslateY(position.getX());
-            unitsMap.put(locationId, newButton);
+            final UnitButton replacedButton = unitsMap.put(unitId, newButton);
+            if (replacedButton != null) {
+                // the same unit acquires the same button
+                if (replacedButton != newButton) {
+                    this.getChildren().remove(replacedButton);
+                }
+                UnitButtonRegistry.getInstance().release(replacedButton);
+            }
         } catch (CouldNotPerformException ex) {
             throw new CouldNotPerformException("UnitType[" + unitRemoteObject.getConfig().getType() + "] is not supported yet!", ex);
         }
     }
 
     /**
-     * Clears the pane to prepare the update.
+     * Clears the pane to prepare the update. All buttons are released from the shared registry.
      */
     public void clearUnits() {
         unitsMap.forEach((unitId, button)
                 -> {
             this.getChildren().remove(button);
+            UnitButtonRegistry.getInstance().release(button);
         });
         unitsMap.clear();
+        this.getChildren().removeIf(node -> node instanceof UnitClusterButton);
+        clusterNodeCache.clear();
     }
 
     /**
      * Draws all unit buttons for the selected location.
+     * The buttons are shared with the other layers, so the pane is only populated while it is displayed and has to be
+     * updated again as soon as it is shown.
      */
     public void updateUnitsPane() {
         this.getChildren().clear();
+        if (getParent() == null) {
+            return;
+        }
 
-        unitsMap.forEach((unitId, button)
-                -> {
+        // summarize the units if the plan is zoomed out
+        this.getChildren().addAll(clusterNodeCache.getNodes(clusterLevel.get(), "", unitsMap.values()));
+    }
 
-            this.getChildren().add(button);
-        });
+    /**
+     * Sets the unit clusters of the current registry revision. Should be set before the units are added.
+     *
+     * @param clusterHierarchy the cluster hierarchy.
+     */
+    public void setClusterHierarchy(final UnitClusterHierarchy clusterHierarchy) {
+        clusterNodeCache.setClusterHierarchy(clusterHierarchy);
+    }
+
+    /**
+     * The zoom level defines if the units are displayed on their own or summarized per cluster.
+     *
+     * @return the cluster level property.
+     */
+    public ObjectProperty<Level> clusterLevelProperty() {
+        return clusterLevel;
     }
 
 }
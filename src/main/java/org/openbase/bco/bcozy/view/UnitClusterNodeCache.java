@@ -0,0 +1,122 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see
+ * <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view;
+
+import com.google.protobuf.GeneratedMessage;
+import javafx.scene.Node;
+import org.openbase.bco.bcozy.model.UnitCluster;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy.Level;
+import org.openbase.bco.bcozy.view.location.UnitButton;
+import org.openbase.bco.bcozy.view.location.UnitButtonGrouped;
+import org.openbase.bco.bcozy.view.location.UnitClusterButton;
+import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
+import org.openbase.jul.exception.NotAvailableException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates and caches the nodes displayed by a unit symbol layer for a zoom level. Units which are part of a cluster on
+ * the level are replaced by one summary node per cluster, all other units keep their buttons. The nodes are created
+ * once per level and scope and reused until the layer is rebuilt.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+class UnitClusterNodeCache {
+
+    private final Map<String, List<Node>> nodeListMap;
+    private UnitClusterHierarchy clusterHierarchy;
+
+    UnitClusterNodeCache() {
+        this.nodeListMap = new HashMap<>();
+        this.clusterHierarchy = UnitClusterHierarchy.EMPTY;
+    }
+
+    /**
+     * Sets the hierarchy of the current registry revision and drops all cached nodes.
+     *
+     * @param clusterHierarchy the new hierarchy.
+     */
+    void setClusterHierarchy(final UnitClusterHierarchy clusterHierarchy) {
+        this.clusterHierarchy = clusterHierarchy;
+        clear();
+    }
+
+    /**
+     * Drops all cached nodes.
+     */
+    void clear() {
+        nodeListMap.clear();
+    }
+
+    /**
+     * Returns the nodes to display instead of the given buttons.
+     *
+     * @param level the zoom level.
+     * @param scope identifies the given buttons, e.g. the selected location.
+     * @param buttonList the unit buttons and grouped buttons of the layer.
+     * @return the summary nodes of the clustered units and the buttons of all other units.
+     */
+    List<Node> getNodes(final Level level, final String scope, final Collection<? extends Node> buttonList) {
+        if (level == Level.UNIT) {
+            return new ArrayList<>(buttonList);
+        }
+        return nodeListMap.computeIfAbsent(level.name() + ":" + scope, key -> createNodes(level, buttonList));
+    }
+
+    private List<Node> createNodes(final Level level, final Collection<? extends Node> buttonList) {
+        final List<Node> nodeList = new ArrayList<>();
+        final Map<UnitCluster, List<UnitRemote<? extends GeneratedMessage>>> clusterUnitMap = new LinkedHashMap<>();
+        for (final Node button : buttonList) {
+            final List<UnitRemote<? extends GeneratedMessage>> unitRemoteList = getUnitRemoteList(button);
+            final UnitCluster cluster = unitRemoteList.isEmpty() ? null : getCluster(level, unitRemoteList.get(0));
+            if (cluster == null) {
+                nodeList.add(button);
+            } else {
+                clusterUnitMap.computeIfAbsent(cluster, key -> new ArrayList<>()).addAll(unitRemoteList);
+            }
+        }
+        clusterUnitMap.forEach((cluster, unitRemoteList) -> nodeList.add(new UnitClusterButton(cluster, unitRemoteList)));
+        return nodeList;
+    }
+
+    private UnitCluster getCluster(final Level level, final UnitRemote<? extends GeneratedMessage> unitRemote) {
+        try {
+            return clusterHierarchy.getCluster(level, unitRemote.getConfig().getId());
+        } catch (NotAvailableException ex) {
+            return null;
+        }
+    }
+
+    private static List<UnitRemote<? extends GeneratedMessage>> getUnitRemoteList(final Node button) {
+        if (button instanceof UnitButton) {
+            return Collections.singletonList(((UnitButton) button).getUnitRemote());
+        } else if (button instanceof UnitButtonGrouped) {
+            return ((UnitButtonGrouped) button).getUnitRemoteList();
+        }
+        return Collections.emptyList();
+    }
+}
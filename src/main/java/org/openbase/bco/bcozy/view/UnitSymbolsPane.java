@@ -20,18 +20,27 @@
 package org.openbase.bco.bcozy.view;
 
 import com.google.protobuf.GeneratedMessage;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import javafx.geometry.Point2D;
+import javafx.scene.Node;
 import javafx.scene.layout.Pane;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy;
+import org.openbase.bco.bcozy.model.UnitClusterHierarchy.Level;
+import org.openbase.bco.bcozy.util.SpatialHash;
 import org.openbase.bco.bcozy.view.location.UnitButton;
+import org.openbase.bco.bcozy.view.location.UnitButtonRegistry;
 import org.openbase.bco.bcozy.view.location.UnitButtonGrouped;
+import org.openbase.bco.bcozy.view.location.UnitClusterButton;
 import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.NotAvailableException;
@@ -53,7 +62,11 @@ public class UnitSymbolsPane extends Pane {
     private final Map<String, Map<String, UnitButton>> unitsPerLocationMap;
     // coordinates, grouped unit-level buttons
     private final Map<Point2D, UnitButtonGrouped> groupedButtons;
-    private boolean putIntoGroup;
+    // locationId, spatial index of the unit-level and grouped buttons
+    private final Map<String, SpatialHash<Node>> buttonIndexMap;
+    private double mergeRadius;
+    private final UnitClusterNodeCache clusterNodeCache;
+    private final ObjectProperty<Level> clusterLevel;
     public final SimpleStringProperty selectedLocationId;
 
     /**
@@ -64,6 +77,14 @@ public class UnitSymbolsPane extends Pane {
         locationUnitsMap = new HashMap<>();
         unitsPerLocationMap = new HashMap<>();
         groupedButtons = new HashMap<>();
+        buttonIndexMap = new HashMap<>();
+        mergeRadius = Constants.UNIT_BUTTON_MERGE_RADIUS;
+        clusterNodeCache = new UnitClusterNodeCache();
+        clusterLevel = new SimpleObjectProperty<>(Level.UNIT);
+        clusterLevel.addListener((observable, oldValue, newValue) -> updateUnitsPane());
+
+        // the icons are rasterized at the zoom of this layer
+        SVGIcon.observeRenderScale(this);
         selectedLocationId = new SimpleStringProperty(Constants.DUMMY_LABEL);
         selectedLocationId.addListener(new ChangeListener<String>() {
             @Override
@@ -85,11 +106,18 @@ public class UnitSymbolsPane extends Pane {
     public void addLocationUnit(final UnitRemote<? extends GeneratedMessage> unitRemoteObject, final Point2D position) throws CouldNotPerformException, InterruptedException {
         UnitButton newButton;
         try {
-            newButton = new UnitButton(unitRemoteObject);
+            newButton = UnitButtonRegistry.getInstance().acquire(unitRemoteObject);
 
             newButton.setTranslateX(position.getY());  //swap according to swap in location pane 
             newButton.setTranslateY(position.getX());
-            locationUnitsMap.put(unitRemoteObject.getConfig().getId(), newButton);
+            final UnitButton replacedButton = locationUnitsMap.put(unitRemoteObject.getConfig().getId(), newButton);
+            if (replacedButton != null) {
+                // the same unit acquires the same button
+                if (replacedButton != newButton) {
+                    this.getChildren().remove(replacedButton);
+                }
+                UnitButtonRegistry.getInstance().release(replacedButton);
+            }
         } catch (NotAvailableException ex) {
             throw new CouldNotPerformException("Could not create unit button for unit " + this, ex);
         }
@@ -107,52 +135,52 @@ public class UnitSymbolsPane extends Pane {
     public void addUnit(final UnitRemote<? extends GeneratedMessage> unitRemoteObject, final Point2D position, final String locationId) throws CouldNotPerformException, InterruptedException {
         UnitButton newButton;
         try {
-            newButton = new UnitButton(unitRemoteObject);
+            newButton = UnitButtonRegistry.getInstance().acquire(unitRemoteObject);
 
             newButton.setTranslateX(position.getY());
             newButton.setTranslateY(position.getX());
 
-            putIntoGroup = false;
-            String toDelete;
-
-            // room unit for this location already exists in the map 
-            if (unitsPerLocationMap.containsKey(locationId)) {
+            final Map<String, UnitButton> units = unitsPerLocationMap.computeIfAbsent(locationId, id -> new HashMap<>());
+            final SpatialHash<Node> buttonIndex = buttonIndexMap.computeIfAbsent(locationId, id -> new SpatialHash<>(mergeRadius));
+            final Node neighbour = buttonIndex.findNearest(position.getX(), position.getY());
 
-                Point2D coord = new Point2D(position.getX(), position.getY());
+            if (neighbour instanceof UnitButtonGrouped) {
                 // grouped button already exists
-                if (groupedButtons.containsKey(coord)) {
-                    groupedButtons.get(coord).addUnit(unitRemoteObject);
-                    putIntoGroup = true;
-
-                    // grouped button needs to be initalized
-                } else {
-                    Iterator<Map.Entry<String, UnitButton>> iter = unitsPerLocationMap.get(locationId).entrySet().iterator();
-                    while (iter.hasNext()) {
-                        Map.Entry<String, UnitButton> entry = iter.next();
-                        UnitButton button = entry.getValue();
-
-                        if (button.getTranslateX() == position.getY() && button.getTranslateY() == position.getX()) {
-                            UnitButtonGrouped newGroupedButton = new UnitButtonGrouped();
-                            newGroupedButton.setTranslateX(position.getY());
-                            newGroupedButton.setTranslateY(position.getX());
-                            groupedButtons.put(new Point2D(position.getX(), position.getY()), newGroupedButton);
-                            newGroupedButton.addUnit(unitRemoteObject);
-                            newGroupedButton.addUnit(button.getUnitRemote());
-                            // remove from normal buttons list to prevent double buttons
-                            iter.remove();
-                            putIntoGroup = true;
-                        }
-                    }
-                }
-                if (!putIntoGroup) {
-                    unitsPerLocationMap.get(locationId).put(unitRemoteObject.getConfig().getId(), newButton);
-                }
+                ((UnitButtonGrouped) neighbour).addUnit(unitRemoteObject);
+
+                // the unit is displayed by the grouped button
+                UnitButtonRegistry.getInstance().release(newButton);
+            } else if (neighbour instanceof UnitButton && neighbour != newButton) {
+                // grouped button needs to be initalized at the position of the existing button
+                final UnitButton button = (UnitButton) neighbour;
+                final Point2D coord = new Point2D(button.getTranslateY(), button.getTranslateX());
+                final UnitButtonGrouped newGroupedButton = new UnitButtonGrouped();
+                newGroupedButton.setTranslateX(coord.getY());
+                newGroupedButton.setTranslateY(coord.getX());
+                groupedButtons.put(coord, newGroupedButton);
+                newGroupedButton.addUnit(unitRemoteObject);
+                newGroupedButton.addUnit(button.getUnitRemote());
 
-                // entry in the map for this location needs to be initalized
+                // remove from normal buttons list to prevent double buttons
+                units.remove(button.getUnitRemote().getConfig().getId());
+                buttonIndex.remove(button);
+                buttonIndex.put(newGroupedButton, coord.getX(), coord.getY());
+                this.getChildren().remove(button);
+                UnitButtonRegistry.getInstance().release(button);
+
+                // the unit is displayed by the grouped button
+                UnitButtonRegistry.getInstance().release(newButton);
             } else {
-                Map<String, UnitButton> units = new HashMap<>();
-                units.put(unitRemoteObject.getConfig().getId(), newButton);
-                unitsPerLocationMap.put(locationId, units);
+                final UnitButton replacedButton = units.put(unitRemoteObject.getConfig().getId(), newButton);
+                if (replacedButton != null) {
+                    // the same unit acquires the same button
+                    if (replacedButton != newButton) {
+                        this.getChildren().remove(replacedButton);
+                        buttonIndex.remove(replacedButton);
+                    }
+                    UnitButtonRegistry.getInstance().release(replacedButton);
+                }
+                buttonIndex.put(newButton, position.getX(), position.getY());
             }
         } catch (NotAvailableException ex) {
             throw new CouldNotPerformException("Could not create unit button for unit " + this, ex);
@@ -160,34 +188,58 @@ public class UnitSymbolsPane extends Pane {
     }
 
     /**
-     * Clears the UnitSymbolsPane to prepare the update.
+     * Sets the distance in pixel below which units of a location are grouped into one button. Applied on the next
+     * rebuild of the pane.
+     *
+     * @param mergeRadius the merge radius, has to be greater than zero.
+     */
+    public void setMergeRadius(final double mergeRadius) {
+        if (mergeRadius <= 0) {
+            throw new IllegalArgumentException("Merge radius has to be greater than zero!");
+        }
+        this.mergeRadius = mergeRadius;
+    }
+
+    /**
+     * Clears the UnitSymbolsPane to prepare the update. All buttons are released from the shared registry.
      */
     public void clearUnits() {
         locationUnitsMap.forEach((unitId, button)
                 -> {
             this.getChildren().remove(button);
+            UnitButtonRegistry.getInstance().release(button);
         });
         locationUnitsMap.clear();
         unitsPerLocationMap.forEach((locationId, entry)
                 -> entry.forEach((unitId, button)
                         -> {
                     this.getChildren().remove(button);
+                    UnitButtonRegistry.getInstance().release(button);
                 })
         );
         unitsPerLocationMap.clear();
+        buttonIndexMap.clear();
         groupedButtons.forEach((point, button)
                 -> {
             this.getChildren().remove(button);
+            button.release();
         });
         groupedButtons.clear();
+        this.getChildren().removeIf(node -> node instanceof UnitClusterButton);
+        clusterNodeCache.clear();
     }
 
     /**
      * Draws all location buttons except for the selected location, draws all unit buttons
      * and grouped buttons for the selected location.
+     * The buttons are shared with the other layers, so the pane is only populated while it is displayed and has to be
+     * updated again as soon as it is shown.
      */
     public void updateUnitsPane() {
         this.getChildren().clear();
+        if (getParent() == null) {
+            return;
+        }
 
         locationUnitsMap.forEach((unitId, button)
                 -> {
@@ -196,12 +248,9 @@ public class UnitSymbolsPane extends Pane {
             }
         });
 
+        final List<Node> unitButtonList = new ArrayList<>();
         if (unitsPerLocationMap.get(selectedLocationId.getValue()) != null) {
-            unitsPerLocationMap.get(selectedLocationId.getValue()).forEach((unitId, button)
-                    -> {
-                this.getChildren().add(button);
-            }
-            );
+            unitButtonList.addAll(unitsPerLocationMap.get(selectedLocationId.getValue()).values());
         }
         groupedButtons.forEach((point, button)
                 -> {
@@ -209,8 +258,29 @@ public class UnitSymbolsPane extends Pane {
                 return;
             }
             if (button.getLocationId().equals(selectedLocationId.getValue())) {
-                this.getChildren().add(button);
+                unitButtonList.add(button);
             }
         });
+
+        // summarize the units if the plan is zoomed out
+        this.getChildren().addAll(clusterNodeCache.getNodes(clusterLevel.get(), selectedLocationId.getValue(), unitButtonList));
+    }
+
+    /**
+     * Sets the unit clusters of the current registry revision. Should be set before the units are added.
+     *
+     * @param clusterHierarchy the cluster hierarchy.
+     */
+    public void setClusterHierarchy(final UnitClusterHierarchy clusterHierarchy) {
+        clusterNodeCache.setClusterHierarchy(clusterHierarchy);
+    }
+
+    /**
+     * The zoom level defines if the units are displayed on their own or summarized per cluster.
+     *
+     * @return the cluster level property.
+     */
+    public ObjectProperty<Level> clusterLevelProperty() {
+        return clusterLevel;
     }
 }
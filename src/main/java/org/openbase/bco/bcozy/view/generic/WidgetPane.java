@@ -22,12 +22,17 @@ import com.jfoenix.controls.JFXToggleButton;
 import org.openbase.jul.visual.javafx.iface.DynamicPane;
 import de.jensd.fx.glyphs.GlyphIcons;
 import de.jensd.fx.glyphs.materialdesignicons.MaterialDesignIcon;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.css.PseudoClass;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -38,6 +43,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import org.openbase.bco.bcozy.model.ActuationBatchDispatcher;
 import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.ObserverText;
 import org.openbase.bco.bcozy.view.SVGIcon;
@@ -54,6 +60,11 @@ public class WidgetPane extends VBox implements DynamicPane {
 
     protected final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
+    /**
+     * Pseudo class of the head pane while a primary activation is not yet confirmed.
+     */
+    private static final PseudoClass PENDING_PSEUDO_CLASS = PseudoClass.getPseudoClass("pending");
+
     /**
      * Text for tooltip dependent on selected language.
      */
@@ -114,6 +125,26 @@ public class WidgetPane extends VBox implements DynamicPane {
 
     private final ChangeListener<Boolean> primaryActivationObserver;
 
+    /**
+     * True while the latest primary activation is not yet confirmed.
+     */
+    private final ReadOnlyBooleanWrapper pendingProperty;
+
+    /**
+     * Incremented by every primary activation so outdated results are ignored. Only accessed by the application thread.
+     */
+    private long activationGeneration;
+
+    /**
+     * The activation to restore if the pending activation fails. Only accessed by the application thread.
+     */
+    private Boolean confirmedActivation;
+
+    /**
+     * The dispatched task of the latest primary activation. Only accessed by the application thread.
+     */
+    private CompletableFuture<Void> currentActivationTask;
+
     /**
      * defines if this widget can be activated e.g. by mouse click.
      */
@@ -132,25 +163,46 @@ public class WidgetPane extends VBox implements DynamicPane {
         this.secondaryActivationProperty = new SimpleBooleanProperty();
         this.mainIcon = new SVGIcon(MaterialDesignIcon.VECTOR_CIRCLE, Constants.SMALL_ICON, false);
         this.widgetLabel = new Label("?");
+        this.pendingProperty = new ReadOnlyBooleanWrapper(false);
+        this.pendingProperty.addListener((observable, oldValue, pending) -> headPane.pseudoClassStateChanged(PENDING_PSEUDO_CLASS, pending));
 
+        // the new activation is shown immediately and only reset if the action fails.
         this.primaryActivationObserver = new ChangeListener<Boolean>() {
-            private Future currentTask;
 
             @Override
             public void changed(ObservableValue<? extends Boolean> observable, Boolean lastActivation, Boolean newActivation) {
-                try {
-                    // cancel all already running tasks.
-                    if (currentTask != null) {
-                        currentTask.cancel(true);
-                    }
-                    currentTask = applyPrimaryActivationUpdate(newActivation);
-                    currentTask.get();
-                } catch (CouldNotPerformException | ExecutionException | InterruptedException ex) {
-                    ExceptionPrinter.printHistory("Could not apply activation update " + this, ex, LOGGER);
+                if (!isPending()) {
+                    confirmedActivation = lastActivation;
+                }
+                final long generation = ++activationGeneration;
+
+                // cancel all already running tasks.
+                cancelActivationTask();
+                pendingProperty.set(true);
 
-                    // If the task failed, reset the activation value.
-                    setPrimaryActivationWithoutNotification(lastActivation);
+                // the action is executed by the dispatcher, so the ui values are captured on the application thread.
+                final String description = widgetLabel.getText();
+                final ActuationBatchDispatcher.Action action;
+                try {
+                    action = createPrimaryActivationAction(newActivation);
+                } catch (CouldNotPerformException ex) {
+                    ExceptionPrinter.printHistory("Could not apply activation update " + WidgetPane.this, ex, LOGGER);
+                    Platform.runLater(() -> rollbackPrimaryActivation(generation));
+                    return;
                 }
+
+                // activations of several panes toggled in a row are dispatched as one batch.
+                final CompletableFuture<Void> currentTask = ActuationBatchDispatcher.getInstance().submit(description, action);
+                currentActivationTask = currentTask;
+                currentTask.whenComplete((result, throwable) -> {
+                    if (throwable == null) {
+                        Platform.runLater(() -> confirmPrimaryActivation(generation));
+                    } else if (!(throwable instanceof CancellationException)) {
+                        // canceled tasks are outdated by a newer activation
+                        ExceptionPrinter.printHistory("Could not apply activation update " + WidgetPane.this, throwable, LOGGER);
+                        Platform.runLater(() -> rollbackPrimaryActivation(generation));
+                    }
+                });
             }
         };
         primaryActivationProperty().addListener(primaryActivationObserver);
@@ -283,6 +335,59 @@ public class WidgetPane extends VBox implements DynamicPane {
         primaryActivationProperty.addListener(primaryActivationObserver);
     }
 
+    /**
+     * Marks the activation of the given generation as confirmed if no newer activation was triggered meanwhile.
+     */
+    private void confirmPrimaryActivation(final long generation) {
+        if (generation != activationGeneration) {
+            return;
+        }
+        confirmedActivation = primaryActivationProperty.getValue();
+        pendingProperty.set(false);
+    }
+
+    /**
+     * Restores the last confirmed activation if no newer activation was triggered meanwhile.
+     */
+    private void rollbackPrimaryActivation(final long generation) {
+        if (generation != activationGeneration) {
+            return;
+        }
+        pendingProperty.set(false);
+        setPrimaryActivationWithoutNotification(confirmedActivation);
+    }
+
+    /**
+     * Forgets the pending primary activation, so results of actions triggered before are ignored.
+     * Must be called on the application thread.
+     */
+    protected void resetActivationState() {
+        activationGeneration++;
+        cancelActivationTask();
+        confirmedActivation = null;
+        pendingProperty.set(false);
+    }
+
+    private void cancelActivationTask() {
+        if (currentActivationTask != null) {
+            currentActivationTask.cancel(true);
+            currentActivationTask = null;
+        }
+    }
+
+    /**
+     * Flag is true while the latest primary activation is sent but not yet confirmed.
+     *
+     * @return the pending property.
+     */
+    public ReadOnlyBooleanProperty pendingProperty() {
+        return pendingProperty.getReadOnlyProperty();
+    }
+
+    public boolean isPending() {
+        return pendingProperty.get();
+    }
+
     public void togglePrimaryActivation() {
         primaryActivationProperty.set(!primaryActivationProperty.getValue());
     }
@@ -296,8 +401,22 @@ public class WidgetPane extends VBox implements DynamicPane {
 //        infoText.setIdentifier(identifier);
     }
 
+    /**
+     * Creates the action which applies the given primary activation. The method is called on the application thread,
+     * so the action can capture the ui state it depends on.
+     *
+     * @param activation the new primary activation.
+     * @return the action to dispatch.
+     * @throws CouldNotPerformException can be thrown if the action could not be created.
+     */
+    protected ActuationBatchDispatcher.Action createPrimaryActivationAction(final boolean activation) throws CouldNotPerformException {
+        return () -> applyPrimaryActivationUpdate(activation);
+    }
+
     /**
      * Overwrite this method to get informed about main function updates.
+     * The method is called by the actuation dispatcher outside of the application thread, so it must only use the
+     * given activation and must not read any ui values.
      *
      * @param activation a boolean value which refers to the current function activation.
      * @return should return a future object of the triggered tasks or null if no task was triggered.
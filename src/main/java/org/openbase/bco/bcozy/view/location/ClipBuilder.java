@@ -0,0 +1,78 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see
+ * <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view.location;
+
+import javafx.scene.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds clip shapes which cut a set of shapes out of a base shape.
+ * <p>
+ * Instead of subtracting every cutting shape one by one, which results in a chain of boolean geometry operations
+ * on an ever growing path, all cutting shapes are united pairwise in a balanced way and the union is subtracted from
+ * the base shape in a single step.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class ClipBuilder {
+
+    private ClipBuilder() {
+    }
+
+    /**
+     * Builds the clip of the base shape without the given cutting shapes.
+     *
+     * @param base the shape to cut.
+     * @param cuttingShapes the shapes to cut out of the base shape.
+     * @return the clip shape or null if no cutting shape is given.
+     */
+    public static Shape build(final Shape base, final Collection<? extends Shape> cuttingShapes) {
+        if (cuttingShapes.isEmpty()) {
+            return null;
+        }
+        return Shape.subtract(base, union(cuttingShapes));
+    }
+
+    /**
+     * Unites all given shapes by merging neighbouring pairs until one shape is left, so every shape takes part in a
+     * logarithmic number of union operations.
+     *
+     * @param shapes the shapes to unite, must not be empty.
+     * @return the union of all shapes.
+     */
+    public static Shape union(final Collection<? extends Shape> shapes) {
+        List<Shape> level = new ArrayList<>(shapes);
+        while (level.size() > 1) {
+            final List<Shape> nextLevel = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                if (i + 1 < level.size()) {
+                    nextLevel.add(Shape.union(level.get(i), level.get(i + 1)));
+                } else {
+                    nextLevel.add(level.get(i));
+                }
+            }
+            level = nextLevel;
+        }
+        return level.get(0);
+    }
+}
@@ -0,0 +1,488 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see
+ * <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view.location;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.shape.StrokeType;
+import javafx.scene.transform.Scale;
+import org.openbase.bco.bcozy.util.QuadTree;
+import org.openbase.bco.bcozy.view.Constants;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paints the polygons of the location pane into a single canvas instead of adding them to the scene graph.
+ * <p>
+ * The polygons are still used as model of the floor plan: their style is read from the fill, stroke and clip properties
+ * and every change of these properties repaints only the area covered by the changed polygon.
+ * The canvas only covers the visible area of the floor plan and some margin around it, with a resolution matching the
+ * current zoom. It is moved and repainted as soon as the viewport leaves the covered area or the zoom changes the
+ * resolution, so its size is bounded by the viewport instead of the floor plan.
+ * Mouse events are not handled by the canvas, picking is done by the location pane.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class FloorPlanCanvas extends Canvas {
+
+    /**
+     * The lowest canvas resolution in relation to the pane coordinates, used if the whole floor plan is visible.
+     */
+    private static final double MIN_RENDER_SCALE = 0.25;
+
+    /**
+     * The highest canvas resolution in relation to the pane coordinates, used if zoomed in deeply.
+     */
+    private static final double MAX_RENDER_SCALE = 4.0;
+
+    /**
+     * The maximal width and height of the canvas in pixels, which is safely supported as texture by all pipelines.
+     */
+    private static final double MAX_CANVAS_SIZE = 4096;
+
+    /**
+     * Additional margin of a dirty area which covers strokes painted before a stroke width change.
+     */
+    private static final double DIRTY_MARGIN = Constants.ROOM_STROKE_WIDTH_MOUSE_OVER + 1.0;
+
+    private final Map<AbstractPolygon, InvalidationListener> listenerMap;
+    private final Map<AbstractPolygon, Integer> zOrderMap;
+    private QuadTree<AbstractPolygon> polygonIndex;
+    private ZonePolygon rootLocation;
+    private InvalidationListener rootLocationListener;
+
+    private final Scale renderTransform;
+    private double renderScale;
+    private double requestedScale;
+
+    private double planMinX;
+    private double planMinY;
+    private double planMaxX;
+    private double planMaxY;
+
+    private boolean viewportKnown;
+    private double viewportMinX;
+    private double viewportMinY;
+    private double viewportMaxX;
+    private double viewportMaxY;
+    private double zoom;
+
+    private double originX;
+    private double originY;
+    private double coveredMaxX;
+    private double coveredMaxY;
+
+    private boolean dirty;
+    private boolean repaintScheduled;
+    private double dirtyMinX;
+    private double dirtyMinY;
+    private double dirtyMaxX;
+    private double dirtyMaxY;
+
+    /**
+     * Creates an empty floor plan canvas.
+     */
+    public FloorPlanCanvas() {
+        super();
+        this.listenerMap = new HashMap<>();
+        this.zOrderMap = new HashMap<>();
+        this.polygonIndex = new QuadTree<>(0, 0, 0, 0);
+        this.renderScale = 1.0;
+        this.requestedScale = 1.0;
+        this.zoom = 1.0;
+        this.renderTransform = new Scale(1, 1, 0, 0);
+        this.getTransforms().add(renderTransform);
+        this.setMouseTransparent(true);
+
+        // the canvas follows the viewport, so it should not affect the layout of the location pane.
+        this.setManaged(false);
+    }
+
+    /**
+     * Replaces the painted floor plan. The polygons are painted in the given order and the root location on top of them.
+     * The canvas is placed on the last known viewport and completely repainted.
+     *
+     * @param rootLocation the root zone or null if not available.
+     * @param polygons the tiles, regions and connections to paint.
+     */
+    public void setPolygons(final ZonePolygon rootLocation, final List<? extends AbstractPolygon> polygons) {
+        clear();
+
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+
+        final List<AbstractPolygon> allPolygons = new ArrayList<>(polygons);
+        if (rootLocation != null) {
+            allPolygons.add(rootLocation);
+        }
+
+        for (final AbstractPolygon polygon : allPolygons) {
+            final Bounds bounds = polygon.getLayoutBounds();
+            minX = Math.min(minX, bounds.getMinX());
+            minY = Math.min(minY, bounds.getMinY());
+            maxX = Math.max(maxX, bounds.getMaxX());
+            maxY = Math.max(maxY, bounds.getMaxY());
+        }
+
+        if (allPolygons.isEmpty()) {
+            minX = minY = maxX = maxY = 0;
+        }
+
+        planMinX = Math.floor(minX - DIRTY_MARGIN);
+        planMinY = Math.floor(minY - DIRTY_MARGIN);
+        planMaxX = Math.ceil(maxX + DIRTY_MARGIN);
+        planMaxY = Math.ceil(maxY + DIRTY_MARGIN);
+
+        polygonIndex = new QuadTree<>(minX, minY, maxX, maxY);
+        for (int i = 0; i < polygons.size(); i++) {
+            final AbstractPolygon polygon = polygons.get(i);
+            final Bounds bounds = polygon.getLayoutBounds();
+            final InvalidationListener listener = observable -> markDirty(polygon);
+            observeStyle(polygon, listener);
+            listenerMap.put(polygon, listener);
+            zOrderMap.put(polygon, i);
+            polygonIndex.insert(polygon, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        }
+
+        this.rootLocation = rootLocation;
+        if (rootLocation != null) {
+            rootLocationListener = observable -> markDirty(rootLocation);
+            observeStyle(rootLocation, rootLocationListener);
+        }
+
+        updateCoveredArea(true);
+    }
+
+    /**
+     * Informs the canvas about the area of the location pane which is currently visible. The canvas is only moved and
+     * repainted if the visible area is not covered anymore or the zoom requires another resolution.
+     *
+     * @param minX the left border of the visible area in the coordinates of the location pane.
+     * @param minY the upper border of the visible area in the coordinates of the location pane.
+     * @param maxX the right border of the visible area in the coordinates of the location pane.
+     * @param maxY the lower border of the visible area in the coordinates of the location pane.
+     * @param zoom the scale of the location pane.
+     */
+    public void setViewport(final double minX, final double minY, final double maxX, final double maxY, final double zoom) {
+        this.viewportKnown = true;
+        this.viewportMinX = minX;
+        this.viewportMinY = minY;
+        this.viewportMaxX = maxX;
+        this.viewportMaxY = maxY;
+        this.zoom = zoom;
+        updateCoveredArea(false);
+    }
+
+    /**
+     * Places the canvas on the visible part of the floor plan extended by half the viewport in every direction, so
+     * panning does not require a repaint each frame. The resolution follows the zoom in powers of two and the canvas is
+     * shrunk to the visible part or a lower resolution if it would exceed the maximal canvas size.
+     */
+    private void updateCoveredArea(final boolean force) {
+        final double visibleMinX = viewportKnown ? Math.max(planMinX, viewportMinX) : planMinX;
+        final double visibleMinY = viewportKnown ? Math.max(planMinY, viewportMinY) : planMinY;
+        final double visibleMaxX = viewportKnown ? Math.min(planMaxX, viewportMaxX) : planMaxX;
+        final double visibleMaxY = viewportKnown ? Math.min(planMaxY, viewportMaxY) : planMaxY;
+        final double visibleWidth = visibleMaxX - visibleMinX;
+        final double visibleHeight = visibleMaxY - visibleMinY;
+
+        if (visibleWidth <= 0 || visibleHeight <= 0) {
+            setWidth(0);
+            setHeight(0);
+            coveredMaxX = originX;
+            coveredMaxY = originY;
+            return;
+        }
+
+        double targetScale = Math.pow(2, Math.ceil(Math.log(zoom) / Math.log(2)));
+        targetScale = Math.max(MIN_RENDER_SCALE, Math.min(MAX_RENDER_SCALE, targetScale));
+
+        if (!force && targetScale == requestedScale
+                && originX <= visibleMinX && originY <= visibleMinY
+                && coveredMaxX >= visibleMaxX && coveredMaxY >= visibleMaxY) {
+            return;
+        }
+
+        requestedScale = targetScale;
+        double minX = Math.floor(Math.max(planMinX, visibleMinX - visibleWidth / 2));
+        double minY = Math.floor(Math.max(planMinY, visibleMinY - visibleHeight / 2));
+        double maxX = Math.ceil(Math.min(planMaxX, visibleMaxX + visibleWidth / 2));
+        double maxY = Math.ceil(Math.min(planMaxY, visibleMaxY + visibleHeight / 2));
+
+        if ((maxX - minX) * targetScale > MAX_CANVAS_SIZE || (maxY - minY) * targetScale > MAX_CANVAS_SIZE) {
+            minX = Math.floor(visibleMinX);
+            minY = Math.floor(visibleMinY);
+            maxX = Math.ceil(visibleMaxX);
+            maxY = Math.ceil(visibleMaxY);
+            targetScale = Math.min(targetScale, Math.min(MAX_CANVAS_SIZE / (maxX - minX), MAX_CANVAS_SIZE / (maxY - minY)));
+        }
+
+        renderScale = targetScale;
+        renderTransform.setX(1 / renderScale);
+        renderTransform.setY(1 / renderScale);
+        originX = minX;
+        originY = minY;
+        coveredMaxX = maxX;
+        coveredMaxY = maxY;
+        setLayoutX(originX);
+        setLayoutY(originY);
+        setWidth(Math.min(MAX_CANVAS_SIZE, Math.ceil((maxX - minX) * renderScale)));
+        setHeight(Math.min(MAX_CANVAS_SIZE, Math.ceil((maxY - minY) * renderScale)));
+
+        // a resized canvas keeps its old content, so everything is erased before painting.
+        getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+        repaint(originX, originY, coveredMaxX, coveredMaxY);
+    }
+
+    /**
+     * Stops observing all polygons and erases the canvas.
+     */
+    public void clear() {
+        listenerMap.forEach(this::unobserveStyle);
+        listenerMap.clear();
+        zOrderMap.clear();
+        polygonIndex.clear();
+        if (rootLocation != null) {
+            unobserveStyle(rootLocation, rootLocationListener);
+            rootLocation = null;
+            rootLocationListener = null;
+        }
+        dirty = false;
+        getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+    }
+
+    private void observeStyle(final AbstractPolygon polygon, final InvalidationListener listener) {
+        polygon.fillProperty().addListener(listener);
+        polygon.strokeProperty().addListener(listener);
+        polygon.strokeWidthProperty().addListener(listener);
+        polygon.getStrokeDashArray().addListener(listener);
+        polygon.clipProperty().addListener(listener);
+    }
+
+    private void unobserveStyle(final AbstractPolygon polygon, final InvalidationListener listener) {
+        polygon.fillProperty().removeListener(listener);
+        polygon.strokeProperty().removeListener(listener);
+        polygon.strokeWidthProperty().removeListener(listener);
+        polygon.getStrokeDashArray().removeListener(listener);
+        polygon.clipProperty().removeListener(listener);
+    }
+
+    /**
+     * Marks the area of the given polygon as dirty. All dirty areas are repainted at once during the next pulse.
+     * Unit data updates change the style outside of the application thread, so the call is forwarded if needed.
+     */
+    private void markDirty(final AbstractPolygon polygon) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> markDirty(polygon));
+            return;
+        }
+
+        if (polygon != rootLocation && !zOrderMap.containsKey(polygon)) {
+            return;
+        }
+
+        final Bounds bounds = polygon.getLayoutBounds();
+        if (dirty) {
+            dirtyMinX = Math.min(dirtyMinX, bounds.getMinX() - DIRTY_MARGIN);
+            dirtyMinY = Math.min(dirtyMinY, bounds.getMinY() - DIRTY_MARGIN);
+            dirtyMaxX = Math.max(dirtyMaxX, bounds.getMaxX() + DIRTY_MARGIN);
+            dirtyMaxY = Math.max(dirtyMaxY, bounds.getMaxY() + DIRTY_MARGIN);
+        } else {
+            dirty = true;
+            dirtyMinX = bounds.getMinX() - DIRTY_MARGIN;
+            dirtyMinY = bounds.getMinY() - DIRTY_MARGIN;
+            dirtyMaxX = bounds.getMaxX() + DIRTY_MARGIN;
+            dirtyMaxY = bounds.getMaxY() + DIRTY_MARGIN;
+        }
+
+        if (!repaintScheduled) {
+            repaintScheduled = true;
+            Platform.runLater(() -> {
+                repaintScheduled = false;
+                if (dirty) {
+                    dirty = false;
+                    repaint(dirtyMinX, dirtyMinY, dirtyMaxX, dirtyMaxY);
+                }
+            });
+        }
+    }
+
+    /**
+     * Repaints all polygons intersecting the given area in the coordinates of the location pane.
+     * Only the part covered by the canvas is painted.
+     */
+    private void repaint(final double minX, final double minY, final double maxX, final double maxY) {
+        final GraphicsContext gc = getGraphicsContext2D();
+        final double x = Math.floor(Math.max(minX, originX));
+        final double y = Math.floor(Math.max(minY, originY));
+        final double width = Math.ceil(Math.min(maxX, coveredMaxX)) - x;
+        final double height = Math.ceil(Math.min(maxY, coveredMaxY)) - y;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        gc.save();
+        gc.setTransform(renderScale, 0, 0, renderScale, -originX * renderScale, -originY * renderScale);
+        gc.beginPath();
+        gc.rect(x, y, width, height);
+        gc.clip();
+        gc.clearRect(x, y, width, height);
+
+        final List<AbstractPolygon> polygons = polygonIndex.query(x, y, x + width, y + height);
+        polygons.sort(Comparator.comparingInt(zOrderMap::get));
+        for (final AbstractPolygon polygon : polygons) {
+            paintPolygon(gc, polygon);
+        }
+        if (rootLocation != null) {
+            paintPolygon(gc, rootLocation);
+        }
+        gc.restore();
+    }
+
+    private void paintPolygon(final GraphicsContext gc, final AbstractPolygon polygon) {
+        final List<Double> pointList = polygon.getPoints();
+        final int pointCount = pointList.size() / 2;
+        final double[] xPoints = new double[pointCount];
+        final double[] yPoints = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xPoints[i] = pointList.get(i * 2);
+            yPoints[i] = pointList.get(i * 2 + 1);
+        }
+
+        gc.save();
+
+        // the clip of a location is the path computed by the clip builder.
+        if (polygon.getClip() instanceof Path) {
+            final Path clip = (Path) polygon.getClip();
+            appendPath(gc, clip);
+            gc.setFillRule(clip.getFillRule());
+            gc.clip();
+        }
+
+        final Paint fill = polygon.getFill();
+        if (fill != null && !Color.TRANSPARENT.equals(fill)) {
+            gc.setFill(fill);
+            gc.fillPolygon(xPoints, yPoints, pointCount);
+        }
+
+        final Paint stroke = polygon.getStroke();
+        double strokeWidth = polygon.getStrokeWidth();
+        if (stroke != null && strokeWidth > 0) {
+            // a canvas stroke is always centered, an inside stroke is its inner half with twice the width.
+            if (polygon.getStrokeType() == StrokeType.INSIDE) {
+                gc.beginPath();
+                gc.moveTo(xPoints[0], yPoints[0]);
+                for (int i = 1; i < pointCount; i++) {
+                    gc.lineTo(xPoints[i], yPoints[i]);
+                }
+                gc.closePath();
+                gc.clip();
+                strokeWidth *= 2;
+            }
+            gc.setStroke(stroke);
+            gc.setLineWidth(strokeWidth);
+            if (polygon.getStrokeDashArray().isEmpty()) {
+                gc.strokePolygon(xPoints, yPoints, pointCount);
+            } else {
+                strokeDashedPolygon(gc, xPoints, yPoints, pointCount, polygon.getStrokeDashArray());
+            }
+        }
+        gc.restore();
+    }
+
+    private void appendPath(final GraphicsContext gc, final Path path) {
+        gc.beginPath();
+        for (final PathElement element : path.getElements()) {
+            if (element instanceof MoveTo) {
+                gc.moveTo(((MoveTo) element).getX(), ((MoveTo) element).getY());
+            } else if (element instanceof LineTo) {
+                gc.lineTo(((LineTo) element).getX(), ((LineTo) element).getY());
+            } else if (element instanceof QuadCurveTo) {
+                final QuadCurveTo curve = (QuadCurveTo) element;
+                gc.quadraticCurveTo(curve.getControlX(), curve.getControlY(), curve.getX(), curve.getY());
+            } else if (element instanceof CubicCurveTo) {
+                final CubicCurveTo curve = (CubicCurveTo) element;
+                gc.bezierCurveTo(curve.getControlX1(), curve.getControlY1(), curve.getControlX2(), curve.getControlY2(), curve.getX(), curve.getY());
+            } else if (element instanceof ClosePath) {
+                gc.closePath();
+            }
+        }
+    }
+
+    /**
+     * The graphics context of JavaFX 8 does not support line dashes, so the dashes are stroked as separated lines.
+     */
+    private void strokeDashedPolygon(final GraphicsContext gc, final double[] xPoints, final double[] yPoints, final int pointCount, final List<Double> dashArray) {
+        double dashLength = 0;
+        for (final Double dash : dashArray) {
+            dashLength += dash;
+        }
+        if (dashLength <= 0) {
+            gc.strokePolygon(xPoints, yPoints, pointCount);
+            return;
+        }
+
+        int dashIndex = 0;
+        double remaining = dashArray.get(0);
+        boolean draw = true;
+        for (int i = 0; i < pointCount; i++) {
+            final double startX = xPoints[i];
+            final double startY = yPoints[i];
+            final double deltaX = xPoints[(i + 1) % pointCount] - startX;
+            final double deltaY = yPoints[(i + 1) % pointCount] - startY;
+            final double length = Math.hypot(deltaX, deltaY);
+
+            double position = 0;
+            while (position < length) {
+                final double step = Math.min(remaining, length - position);
+                if (draw && step > 0) {
+                    gc.strokeLine(
+                            startX + deltaX * position / length, startY + deltaY * position / length,
+                            startX + deltaX * (position + step) / length, startY + deltaY * (position + step) / length);
+                }
+                position += step;
+                remaining -= step;
+                if (remaining <= 0) {
+                    dashIndex = (dashIndex + 1) % dashArray.size();
+                    remaining = dashArray.get(dashIndex);
+                    draw = !draw;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see
+ * <http://www.gnu.org/licenses/>.
+ * ==================================================================
+package org.openbase.bco.bcozy.view.location;
+
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import org.openbase.bco.bcozy.util.QuadTree;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the nodes of the floor plan attached to the children of a pane and indexes the polygons by their bounds.
+ * <p>
+ * The children are ordered by their layer and every node is attached and detached on its own, so an update of the
+ * floor plan only touches the changed nodes instead of detaching and styling the whole scene graph again. The spatial
+ * index is updated per polygon as well and is only rebuilt if a polygon exceeds the area covered by the index.
+ * All methods have to be called on the application thread as long as the pane is part of a scene.
+ *
+ * @param <T> the type of the indexed polygons.
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class FloorPlanNodeIndex<T extends Node> {
+
+    /**
+     * The layers of the floor plan from back to front.
+     */
+    public enum Layer {
+        TILE,
+        REGION,
+        CONNECTION,
+        ROOT,
+        DEBUG;
+    }
+
+    private final List<Node> childList;
+    private final Map<Layer, Integer> layerSizeMap;
+    private final Map<Node, Layer> attachedNodeMap;
+    private final Set<T> indexedSet;
+    private QuadTree<T> index;
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private int rebuildCount;
+
+    /**
+     * Creates an index which manages the given children. The children must not be modified by anyone else.
+     *
+     * @param childList the children of the pane showing the floor plan.
+     */
+    public FloorPlanNodeIndex(final List<Node> childList) {
+        this.childList = childList;
+        this.layerSizeMap = new EnumMap<>(Layer.class);
+        for (final Layer layer : Layer.values()) {
+            layerSizeMap.put(layer, 0);
+        }
+        this.attachedNodeMap = new HashMap<>();
+        this.indexedSet = new LinkedHashSet<>();
+        this.index = new QuadTree<>(0, 0, 0, 0);
+    }
+
+    /**
+     * Attaches the node at the end of the given layer. Nothing happens if the node is already attached.
+     *
+     * @param layer the layer of the node.
+     * @param node the node to attach.
+     */
+    public void attach(final Layer layer, final Node node) {
+        if (attachedNodeMap.containsKey(node)) {
+            return;
+        }
+        int position = 0;
+        for (final Layer currentLayer : Layer.values()) {
+            position += layerSizeMap.get(currentLayer);
+            if (currentLayer == layer) {
+                break;
+            }
+        }
+        childList.add(position, node);
+        layerSizeMap.put(layer, layerSizeMap.get(layer) + 1);
+        attachedNodeMap.put(node, layer);
+    }
+
+    /**
+     * Detaches the given node. Nothing happens if the node is not attached.
+     *
+     * @param node the node to detach.
+     */
+    public void detach(final Node node) {
+        final Layer layer = attachedNodeMap.remove(node);
+        if (layer == null) {
+            return;
+        }
+        childList.remove(node);
+        layerSizeMap.put(layer, layerSizeMap.get(layer) - 1);
+    }
+
+    /**
+     * @param node the node to check.
+     * @return true if the node is attached.
+     */
+    public boolean isAttached(final Node node) {
+        return attachedNodeMap.containsKey(node);
+    }
+
+    /**
+     * Adds the polygon to the spatial index. The index is rebuilt with an enlarged area if the polygon exceeds the
+     * area covered so far.
+     *
+     * @param polygon the polygon to index.
+     */
+    public void index(final T polygon) {
+        final Bounds bounds = polygon.getLayoutBounds();
+        indexedSet.add(polygon);
+        if (bounds.getMinX() < minX || bounds.getMinY() < minY || bounds.getMaxX() > maxX || bounds.getMaxY() > maxY) {
+            rebuildIndex(bounds);
+            return;
+        }
+        index.insert(polygon, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+    }
+
+    /**
+     * Removes the polygon from the spatial index.
+     *
+     * @param polygon the polygon to remove.
+     */
+    public void unindex(final T polygon) {
+        if (indexedSet.remove(polygon)) {
+            index.remove(polygon);
+        }
+    }
+
+    /**
+     * Detaches the polygon and removes it from the spatial index.
+     *
+     * @param polygon the polygon to remove.
+     */
+    public void remove(final T polygon) {
+        detach(polygon);
+        unindex(polygon);
+    }
+
+    /**
+     * Returns all indexed polygons whose bounds contain the given point.
+     *
+     * @param x the x coordinate of the point.
+     * @param y the y coordinate of the point.
+     * @return the polygons in no particular order.
+     */
+    public List<T> query(final double x, final double y) {
+        return index.query(x, y);
+    }
+
+    /**
+     * Returns all indexed polygons whose bounds intersect the given area.
+     *
+     * @param minX the minimal x coordinate of the area.
+     * @param minY the minimal y coordinate of the area.
+     * @param maxX the maximal x coordinate of the area.
+     * @param maxY the maximal y coordinate of the area.
+     * @return the polygons in no particular order.
+     */
+    public List<T> query(final double minX, final double minY, final double maxX, final double maxY) {
+        return index.query(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * @return the number of times the spatial index was rebuilt because the floor plan grew.
+     */
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Rebuilds the spatial index covering the current area and the given bounds. The area is enlarged by half of its
+     * size in each direction, so a growing floor plan only causes a logarithmic number of rebuilds.
+     */
+    private void rebuildIndex(final Bounds bounds) {
+        final double unionMinX = Math.min(minX, bounds.getMinX());
+        final double unionMinY = Math.min(minY, bounds.getMinY());
+        final double unionMaxX = Math.max(maxX, bounds.getMaxX());
+        final double unionMaxY = Math.max(maxY, bounds.getMaxY());
+        final double margin = Math.max(unionMaxX - unionMinX, unionMaxY - unionMinY) / 2;
+        minX = unionMinX - margin;
+        minY = unionMinY - margin;
+        maxX = unionMaxX + margin;
+        maxY = unionMaxY + margin;
+
+        index = new QuadTree<>(minX, minY, maxX, maxY);
+        for (final T polygon : indexedSet) {
+            final Bounds polygonBounds = polygon.getLayoutBounds();
+            index.insert(polygon, polygonBounds.getMinX(), polygonBounds.getMinY(), polygonBounds.getMaxX(), polygonBounds.getMaxY());
+        }
+        rebuildCount++;
+    }
+}
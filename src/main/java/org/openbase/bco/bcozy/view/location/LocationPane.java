@@ -31,22 +31,30 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import javafx.application.Platform;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
 import javafx.beans.value.ChangeListener;
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.effect.Lighting;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
+import javafx.scene.shape.Shape;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
+import org.openbase.bco.bcozy.jp.JPRenderMode;
+import org.openbase.bco.bcozy.jp.JPRenderMode.RenderMode;
 import org.openbase.bco.bcozy.view.InfoPane;
 import org.openbase.bco.registry.remote.Registries;
 import org.openbase.jps.core.JPService;
+import org.openbase.jps.exception.JPNotAvailableException;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.EnumNotSupportedException;
 import org.openbase.jul.exception.NotAvailableException;
@@ -80,6 +88,7 @@ public final class LocationPane extends Pane {
     private final Map<String, RegionPolygon> regionMap;
     private final Map<String, ZonePolygon> zoneMap;
     private final Map<String, ConnectionPolygon> connectionMap;
+    private final Map<String, List<String>> connectionTileIdMap;
     private final List<Node> debugNodes;
 
     public final SimpleStringProperty selectedLocationId;
@@ -88,6 +97,21 @@ public final class LocationPane extends Pane {
     private LocationPolygon lastSelectedTile;
     private final EventHandler<MouseEvent> onEmptyAreaClickHandler;
 
+    /**
+     * Attaches the nodes of the floor plan and indexes the bounds of all tiles, regions and connections used for
+     * picking and culling.
+     */
+    private final FloorPlanNodeIndex<AbstractPolygon> nodeIndex;
+    private final List<Node> attachedDebugNodes;
+    private Set<AbstractPolygon> visiblePolygons;
+    private LocationPolygon hoveredLocation;
+    private boolean cullingScheduled;
+
+    /**
+     * Paints all polygons if the canvas render mode is selected, otherwise null.
+     */
+    private final FloorPlanCanvas floorPlanCanvas;
+
     /**
      * Private constructor to deny manual instantiation.
      *
@@ -102,11 +126,27 @@ public final class LocationPane extends Pane {
         regionMap = new HashMap<>();
         zoneMap = new HashMap<>();
         connectionMap = new HashMap<>();
+        connectionTileIdMap = new HashMap<>();
         debugNodes = new ArrayList<>();
 
         selectedLocationId = new SimpleStringProperty(Constants.DUMMY_LABEL);
         rootLocation = null;
 
+        nodeIndex = new FloorPlanNodeIndex<>(getChildren());
+        attachedDebugNodes = new ArrayList<>();
+        visiblePolygons = new HashSet<>();
+        hoveredLocation = null;
+        cullingScheduled = false;
+
+        RenderMode renderMode;
+        try {
+            renderMode = JPService.getProperty(JPRenderMode.class).getValue();
+        } catch (JPNotAvailableException ex) {
+            ExceptionPrinter.printHistory("Could not detect render mode, scene graph is used instead.", ex, LOGGER);
+            renderMode = RenderMode.SCENE_GRAPH;
+        }
+        floorPlanCanvas = (renderMode == RenderMode.CANVAS) ? new FloorPlanCanvas() : null;
+
         onEmptyAreaClickHandler = event -> {
             if (event.isStillSincePress() && rootLocation != null) {
                 if (event.getClickCount() == 1) {
@@ -132,10 +172,19 @@ public final class LocationPane extends Pane {
         this.foregroundPane.getMainMenuWidthProperty().addListener((observable, oldValue, newValue)
                 -> this.setTranslateX(this.getTranslateX() - ((oldValue.doubleValue() - newValue.doubleValue()) / 2)));
         
-        onMouseMovedProperty().addListener((observable, oldValue, newValue) -> {
-            LOGGER.info("mouse moved:");
-            
-        });
+        // tiles and regions are mouse transparent, picking is done via the polygon index.
+        this.addEventHandler(MouseEvent.MOUSE_MOVED, event -> updateHoveredLocation(pickLocation(event.getX(), event.getY()), event));
+        this.addEventHandler(MouseEvent.MOUSE_EXITED, event -> updateHoveredLocation(null, event));
+        this.addEventHandler(MouseEvent.MOUSE_CLICKED, this::handleMouseClicked);
+
+        // hide all polygons outside of the visible area.
+        final ChangeListener<Number> viewportListener = (observable, oldValue, newValue) -> requestCulling();
+        this.scaleXProperty().addListener(viewportListener);
+        this.scaleYProperty().addListener(viewportListener);
+        this.translateXProperty().addListener(viewportListener);
+        this.translateYProperty().addListener(viewportListener);
+        this.widthProperty().addListener(viewportListener);
+        this.heightProperty().addListener(viewportListener);
     }
 
     private void selectRootLocation() {
@@ -212,7 +261,8 @@ public final class LocationPane extends Pane {
      * Adds a room to the location Pane and use the controls to add a mouse
      * event handler.
      *
-     * If a room with the same id already exists, it will be overwritten.
+     * If a room with the same id already exists, it will be replaced.
+     * Connections which are already known will be cut out of new tiles.
      *
      * @param locationUnitConfig the configuration of the location to add.
      * @param vertices A list of vertices which defines the shape of the room
@@ -220,30 +270,45 @@ public final class LocationPane extends Pane {
      * @throws java.lang.InterruptedException
      */
     public void addLocation(final UnitConfig locationUnitConfig, final List<Point2D> vertices) throws CouldNotPerformException, InterruptedException {
-        try {
-            // Fill the list of vertices into an array of points
-            double[] points = new double[vertices.size() * 2];
-            for (int i = 0; i < vertices.size(); i++) {
-                // TODO: X and Y are swapped in the world of the csra... make it more generic...
-                points[i * 2] = vertices.get(i).getY() * Constants.METER_TO_PIXEL;
-                points[i * 2 + 1] = vertices.get(i).getX() * Constants.METER_TO_PIXEL;
-            }
+        addLocation(locationUnitConfig, toPixelPoints(vertices));
+    }
 
+    /**
+     * Adds a room to the location Pane and use the controls to add a mouse
+     * event handler.
+     *
+     * If a room with the same id already exists, it will be replaced.
+     * Connections which are already known will be cut out of new tiles.
+     *
+     * @param locationUnitConfig the configuration of the location to add.
+     * @param points the already transformed pixel coordinates of the shape as x0, y0, x1, y1, ...
+     * @throws org.openbase.jul.exception.CouldNotPerformException
+     * @throws java.lang.InterruptedException
+     */
+    public void addLocation(final UnitConfig locationUnitConfig, final double[] points) throws CouldNotPerformException, InterruptedException {
+        try {
             final LocationPolygon locationPolygon;
 
+            removeLocation(locationUnitConfig.getId());
+
             switch (locationUnitConfig.getLocationConfig().getType()) {
                 case TILE:
                     locationPolygon = new TilePolygon(points);
                     locationPolygon.init(locationUnitConfig);
                     locationPolygon.activate();
                     addMouseEventHandlerToTile((TilePolygon) locationPolygon);
+                    locationPolygon.setMouseTransparent(true);
+                    addPolygon(FloorPlanNodeIndex.Layer.TILE, locationPolygon);
                     tileMap.put(locationUnitConfig.getId(), (TilePolygon) locationPolygon);
+                    applyConnectionCutting(locationUnitConfig.getId(), locationPolygon);
                     break;
                 case REGION:
                     locationPolygon = new RegionPolygon(points);
                     locationPolygon.init(locationUnitConfig);
                     locationPolygon.activate();
                     addMouseEventHandlerToRegion((RegionPolygon) locationPolygon);
+                    locationPolygon.setMouseTransparent(true);
+                    addPolygon(FloorPlanNodeIndex.Layer.REGION, locationPolygon);
                     regionMap.put(locationUnitConfig.getId(), (RegionPolygon) locationPolygon);
                     break;
                 case ZONE:
@@ -267,12 +332,12 @@ public final class LocationPane extends Pane {
                 Circle coordinate;
                 final StackPane globalBaseStack = new StackPane();
                 final StackPane locationBaseStack = new StackPane();
-                final StackPane[] locationStacks = new StackPane[vertices.size()];
+                final StackPane[] locationStacks = new StackPane[points.length / 2];
                 debugNodes.clear();
 
                 // Paint Location Coordinates
                 final double COORDINATE_BLOCK_SIZE = 0.30 * Constants.METER_TO_PIXEL;
-                for (int i = 0; i < vertices.size(); i++) {
+                for (int i = 0; i < locationStacks.length; i++) {
 
                     text = new Text(Integer.toString(i));
                     text.setStroke(Color.BLACK);
@@ -284,8 +349,8 @@ public final class LocationPane extends Pane {
                     locationStacks[i] = new StackPane();
                     locationStacks[i].getChildren().addAll(coordinate, text);
                     locationStacks[i].autosize();
-                    locationStacks[i].setLayoutX(vertices.get(i).getY() * Constants.METER_TO_PIXEL - (locationStacks[i].getWidth() / 2));
-                    locationStacks[i].setLayoutY(vertices.get(i).getX() * Constants.METER_TO_PIXEL - (locationStacks[i].getHeight() / 2));
+                    locationStacks[i].setLayoutX(points[i * 2] - (locationStacks[i].getWidth() / 2));
+                    locationStacks[i].setLayoutY(points[i * 2 + 1] - (locationStacks[i].getHeight() / 2));
                     final int pos = i;
                     locationStacks[i].hoverProperty().addListener((observable, oldValue, newValue) -> {
                         InfoPane.info("This is the " + pos + ". coordinate of the " + locationUnitConfig.getLabel());
@@ -335,7 +400,7 @@ public final class LocationPane extends Pane {
     /**
      * Adds a connection to the location Pane.
      *
-     * If a connection with the same id already exists, it will be overwritten.
+     * If a connection with the same id already exists, it will be replaced.
      *
      * @param connectionUnitConfig the unit config of this connection.
      * @param vertices A list of vertices which defines the shape of the
@@ -344,16 +409,22 @@ public final class LocationPane extends Pane {
      * @throws java.lang.InterruptedException
      */
     public void addConnection(final UnitConfig connectionUnitConfig, final List<Point2D> vertices) throws CouldNotPerformException, InterruptedException {
+        addConnection(connectionUnitConfig, toPixelPoints(vertices));
+    }
 
-        try {
-            // Fill the list of vertices into an array of points
-            double[] points = new double[vertices.size() * 2];
-            for (int i = 0; i < vertices.size(); i++) {
-                // TODO: X and Y are swapped in the world of the csra... make it more generic...
-                points[i * 2] = vertices.get(i).getY() * Constants.METER_TO_PIXEL;
-                points[i * 2 + 1] = vertices.get(i).getX() * Constants.METER_TO_PIXEL;
-            }
+    /**
+     * Adds a connection to the location Pane.
+     *
+     * If a connection with the same id already exists, it will be replaced.
+     *
+     * @param connectionUnitConfig the unit config of this connection.
+     * @param points the already transformed pixel coordinates of the shape as x0, y0, x1, y1, ...
+     * @throws org.openbase.jul.exception.CouldNotPerformException
+     * @throws java.lang.InterruptedException
+     */
+    public void addConnection(final UnitConfig connectionUnitConfig, final double[] points) throws CouldNotPerformException, InterruptedException {
 
+        try {
             ConnectionPolygon connectionPolygon;
 
             switch (connectionUnitConfig.getConnectionConfig().getType()) {
@@ -370,14 +441,19 @@ public final class LocationPane extends Pane {
                     throw new EnumNotSupportedException(connectionUnitConfig.getConnectionConfig().getType(), this);
             }
 
+            removeConnection(connectionUnitConfig.getId());
+
             connectionPolygon.init(connectionUnitConfig);
             connectionPolygon.activate();
+            connectionPolygon.setMouseTransparent(true);
+            addPolygon(FloorPlanNodeIndex.Layer.CONNECTION, connectionPolygon);
 
             connectionMap.put(connectionUnitConfig.getId(), connectionPolygon);
+            connectionTileIdMap.put(connectionUnitConfig.getId(), new ArrayList<>(connectionUnitConfig.getConnectionConfig().getTileIdList()));
 
             connectionUnitConfig.getConnectionConfig().getTileIdList().forEach(locationId -> {
                 if (tileMap.containsKey(locationId)) {
-                    tileMap.get(locationId).addCuttingShape(connectionPolygon);
+                    tileMap.get(locationId).addCuttingShape(connectionUnitConfig.getId(), connectionPolygon);
                 } else {
                     String unitLabel = locationId;
                     try {
@@ -417,24 +493,82 @@ public final class LocationPane extends Pane {
      * //unitSymbols.add(unitButton);
      * }
      */
+    /**
+     * Converts vertices given in meter into the pixel coordinates of this pane.
+     *
+     * @param vertices the vertices in the root coordinate system.
+     * @return the points as x0, y0, x1, y1, ...
+     */
+    public static double[] toPixelPoints(final List<Point2D> vertices) {
+        final double[] points = new double[vertices.size() * 2];
+        for (int i = 0; i < vertices.size(); i++) {
+            // TODO: X and Y are swapped in the world of the csra... make it more generic...
+            points[i * 2] = vertices.get(i).getY() * Constants.METER_TO_PIXEL;
+            points[i * 2 + 1] = vertices.get(i).getX() * Constants.METER_TO_PIXEL;
+        }
+        return points;
+    }
+
+    /**
+     * Removes the location with the given id from the locationPane.
+     * Nothing happens if no such location exists.
+     *
+     * @param locationId the id of the location to remove.
+     */
+    public void removeLocation(final String locationId) {
+        LocationPolygon locationPolygon = tileMap.remove(locationId);
+        if (locationPolygon == null) {
+            locationPolygon = regionMap.remove(locationId);
+        }
+        if (locationPolygon == null) {
+            locationPolygon = zoneMap.remove(locationId);
+        }
+        if (locationPolygon == null) {
+            return;
+        }
+        releaseLocation(locationPolygon);
+    }
+
+    /**
+     * Removes the connection with the given id from the locationPane.
+     * Nothing happens if no such connection exists.
+     *
+     * @param connectionId the id of the connection to remove.
+     */
+    public void removeConnection(final String connectionId) {
+        final ConnectionPolygon connectionPolygon = connectionMap.remove(connectionId);
+        final List<String> tileIds = connectionTileIdMap.remove(connectionId);
+        if (connectionPolygon == null) {
+            return;
+        }
+        connectionPolygon.shutdown();
+        nodeIndex.remove(connectionPolygon);
+        visiblePolygons.remove(connectionPolygon);
+
+        // the removed connection is not cut out of the connected tiles any longer.
+        if (tileIds != null) {
+            for (final String tileId : tileIds) {
+                final TilePolygon tile = tileMap.get(tileId);
+                if (tile != null) {
+                    tile.removeCuttingShape(connectionId);
+                }
+            }
+        }
+    }
+
     /**
      * Erases all locations from the locationPane.
      */
     public void clearLocations() {
-        tileMap.forEach((locationId, locationPolygon) -> {
-            locationPolygon.shutdown();
-            this.getChildren().remove(locationPolygon);
-        }
-        );
+        tileMap.values().forEach(this::releaseLocation);
         tileMap.clear();
 
-        regionMap.forEach((locationId, locationPolygon) -> {
-            locationPolygon.shutdown();
-            this.getChildren().remove(locationPolygon);
-        }
-        );
+        regionMap.values().forEach(this::releaseLocation);
         regionMap.clear();
 
+        zoneMap.values().forEach(this::releaseLocation);
+        zoneMap.clear();
+
         rootLocation = null;
     }
 
@@ -444,53 +578,223 @@ public final class LocationPane extends Pane {
     public void clearConnections() {
         connectionMap.forEach((connectionId, connectionPolygon) -> {
             connectionPolygon.shutdown();
-            this.getChildren().remove(connectionPolygon);
+            nodeIndex.remove(connectionPolygon);
+            visiblePolygons.remove(connectionPolygon);
         }
         );
         connectionMap.clear();
+        connectionTileIdMap.clear();
     }
 
-    /**
-     * Will clear everything on the location Pane and then add everything that
-     * is saved in the maps. Also adds a cutting shape for every Polygon to the
-     * root.
-     */
-    public void updateLocationPane() {
-        this.getChildren().clear();
+    private void releaseLocation(final LocationPolygon locationPolygon) {
+        locationPolygon.shutdown();
+        nodeIndex.remove(locationPolygon);
+        visiblePolygons.remove(locationPolygon);
 
-        tileMap.forEach((locationId, locationPolygon) -> {
-            if (rootLocation != null) {
-                rootLocation.addCuttingShape(locationPolygon);
-            }
-            this.getChildren().add(locationPolygon);
-        });
+        if (locationPolygon.equals(hoveredLocation)) {
+            hoveredLocation = null;
+        }
 
-        regionMap.forEach((locationId, locationPolygon) -> {
-            if (rootLocation != null) {
-                rootLocation.addCuttingShape(locationPolygon);
-            }
-            this.getChildren().add(locationPolygon);
-        });
+        if (locationPolygon.equals(rootLocation)) {
+            rootLocation = null;
+        }
 
-        connectionMap.forEach((connectionId, connectionPolygon) -> {
-            if (rootLocation != null) {
-                rootLocation.addCuttingShape(connectionPolygon);
+        // the selection is restored by id during the next pane update.
+        if (locationPolygon.equals(selectedLocation)) {
+            selectedLocation = null;
+        }
+        if (locationPolygon.equals(lastSelectedTile)) {
+            lastSelectedTile = null;
+        }
+        if (locationPolygon.equals(lastFirstClickTarget)) {
+            lastFirstClickTarget = null;
+        }
+    }
+
+    private void applyConnectionCutting(final String tileId, final LocationPolygon tile) {
+        final Map<String, Shape> cuttingShapeMap = new HashMap<>();
+        connectionTileIdMap.forEach((connectionId, tileIds) -> {
+            if (tileIds.contains(tileId)) {
+                cuttingShapeMap.put(connectionId, connectionMap.get(connectionId));
             }
-            this.getChildren().add(connectionPolygon);
         });
+        tile.setCuttingShapes(cuttingShapeMap);
+    }
+
+    /**
+     * Indexes the polygon and attaches it to the scene graph unless it is painted by the floor plan canvas.
+     * The polygon is visible until the next culling hides it.
+     */
+    private void addPolygon(final FloorPlanNodeIndex.Layer layer, final AbstractPolygon polygon) {
+        nodeIndex.index(polygon);
+        if (floorPlanCanvas == null) {
+            nodeIndex.attach(layer, polygon);
+        }
+        visiblePolygons.add(polygon);
+    }
+
+    /**
+     * Completes an update of the location pane after locations or connections were added or removed. Tiles, regions
+     * and connections are already attached and indexed when they are added, so only the root location, the debug
+     * nodes and the clip of the root are updated here. The clip of the root is only rebuilt if the set of polygons
+     * has changed. In canvas render mode all polygons are painted into the floor plan canvas instead.
+     */
+    public void updateLocationPane() {
+        final Map<String, Shape> rootCuttingShapeMap = new HashMap<>();
+        rootCuttingShapeMap.putAll(tileMap);
+        rootCuttingShapeMap.putAll(regionMap);
+        rootCuttingShapeMap.putAll(connectionMap);
 
         if (rootLocation != null) {
-            this.getChildren().add(rootLocation);
+            rootLocation.setCuttingShapes(rootCuttingShapeMap);
+        }
+
+        if (floorPlanCanvas != null) {
+            final List<AbstractPolygon> polygonList = new ArrayList<>();
+            polygonList.addAll(tileMap.values());
+            polygonList.addAll(regionMap.values());
+            polygonList.addAll(connectionMap.values());
+            floorPlanCanvas.setPolygons(rootLocation, polygonList);
+            nodeIndex.attach(FloorPlanNodeIndex.Layer.ROOT, floorPlanCanvas);
+        } else if (rootLocation != null) {
+            nodeIndex.attach(FloorPlanNodeIndex.Layer.ROOT, rootLocation);
         }
 
+        // the debug nodes are recreated with every added location
+        attachedDebugNodes.forEach(nodeIndex::detach);
+        attachedDebugNodes.clear();
         if (JPService.debugMode()) {
             // debug print
             for (final Node debugNode : debugNodes) {
-                this.getChildren().add(debugNode);
+                nodeIndex.attach(FloorPlanNodeIndex.Layer.DEBUG, debugNode);
+                attachedDebugNodes.add(debugNode);
             }
         }
 
         if (!isLocationSelected()) {
+            restoreSelectedLocation();
+        }
+
+        updateCulling();
+    }
+
+    private void requestCulling() {
+        if (cullingScheduled) {
+            return;
+        }
+        cullingScheduled = true;
+
+        // scale and translation are changed pairwise, so the culling is applied once per pulse.
+        Platform.runLater(() -> {
+            cullingScheduled = false;
+            updateCulling();
+        });
+    }
+
+    /**
+     * Hides all tiles, regions and connections outside of the area which is visible in the parent.
+     * Polygons are only made invisible and stay managed, so the bounds of this pane are not affected.
+     * In canvas mode the polygons are not part of the scene graph, instead the canvas is moved to the visible area.
+     */
+    private void updateCulling() {
+        if (getParent() == null) {
+            return;
+        }
+
+        final Bounds viewport = parentToLocal(getParent().getLayoutBounds());
+        if (floorPlanCanvas != null) {
+            floorPlanCanvas.setViewport(viewport.getMinX(), viewport.getMinY(), viewport.getMaxX(), viewport.getMaxY(), getScaleX());
+            return;
+        }
+
+        final double margin = Constants.METER_TO_PIXEL;
+        final Set<AbstractPolygon> newVisiblePolygons = new HashSet<>(nodeIndex.query(
+                viewport.getMinX() - margin, viewport.getMinY() - margin,
+                viewport.getMaxX() + margin, viewport.getMaxY() + margin));
+
+        for (final AbstractPolygon polygon : visiblePolygons) {
+            if (!newVisiblePolygons.contains(polygon)) {
+                polygon.setVisible(false);
+            }
+        }
+        for (final AbstractPolygon polygon : newVisiblePolygons) {
+            polygon.setVisible(true);
+        }
+        visiblePolygons = newVisiblePolygons;
+    }
+
+    /**
+     * Returns the location which would receive a mouse event at the given position.
+     * Selectable regions are placed above the tiles and win over them.
+     *
+     * @param x the x coordinate in the coordinate system of this pane.
+     * @param y the y coordinate in the coordinate system of this pane.
+     * @return the picked location or null if no tile or selectable region is placed at the position.
+     */
+    private LocationPolygon pickLocation(final double x, final double y) {
+        LocationPolygon pickedTile = null;
+        for (final AbstractPolygon polygon : nodeIndex.query(x, y)) {
+            if (!polygon.contains(x, y)) {
+                continue;
+            }
+            if (polygon instanceof RegionPolygon && ((RegionPolygon) polygon).isSelectable()) {
+                return (RegionPolygon) polygon;
+            }
+            if (polygon instanceof TilePolygon) {
+                pickedTile = (TilePolygon) polygon;
+            }
+        }
+        return pickedTile;
+    }
+
+    private void handleMouseClicked(final MouseEvent event) {
+        // events fired directly on a polygon are handled by the polygon itself.
+        if (event.getTarget() != this) {
+            return;
+        }
+
+        final LocationPolygon pickedLocation = pickLocation(event.getX(), event.getY());
+
+        // clicks on the empty area are handled by the background
+        if (pickedLocation == null || pickedLocation.getOnMouseClicked() == null) {
+            return;
+        }
+        pickedLocation.getOnMouseClicked().handle(event.copyFor(pickedLocation, pickedLocation));
+        event.consume();
+    }
+
+    private void updateHoveredLocation(final LocationPolygon newHoveredLocation, final MouseEvent event) {
+        if (hoveredLocation == newHoveredLocation) {
+            return;
+        }
+
+        if (hoveredLocation != null && hoveredLocation.getOnMouseExited() != null) {
+            hoveredLocation.getOnMouseExited().handle(event.copyFor(hoveredLocation, hoveredLocation, MouseEvent.MOUSE_EXITED));
+        }
+
+        hoveredLocation = newHoveredLocation;
+
+        if (hoveredLocation != null && hoveredLocation.getOnMouseEntered() != null) {
+            hoveredLocation.getOnMouseEntered().handle(event.copyFor(hoveredLocation, hoveredLocation, MouseEvent.MOUSE_ENTERED));
+        }
+    }
+
+    private void restoreSelectedLocation() {
+        final String locationId = selectedLocationId.get();
+        LocationPolygon locationPolygon = tileMap.get(locationId);
+        if (locationPolygon == null) {
+            locationPolygon = regionMap.get(locationId);
+        }
+
+        if (locationPolygon == null) {
+            selectRootLocation();
+            return;
+        }
+
+        try {
+            setSelectedLocation(locationPolygon);
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not restore location selection!", ex, LOGGER);
             selectRootLocation();
         }
     }
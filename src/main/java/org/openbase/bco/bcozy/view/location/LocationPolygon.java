@@ -18,10 +18,12 @@
  */
 package org.openbase.bco.bcozy.view.location;
 
-import javafx.scene.shape.Path;
 import javafx.scene.shape.Shape;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.openbase.bco.dal.remote.unit.location.LocationRemote;
 import org.openbase.jul.exception.InstantiationException;
 import org.openbase.jul.exception.NotAvailableException;
@@ -33,7 +35,12 @@ import rst.domotic.unit.location.LocationDataType.LocationData;
 public abstract class LocationPolygon extends AbstractUnitPolygon<LocationData, LocationRemote> {
 
     private boolean selected;
-    private Shape cuttingShape;
+
+    /**
+     * The shapes to cut out of this polygon by id and the shapes the current clip was built from.
+     */
+    private final Map<String, Shape> cuttingShapeMap;
+    private Map<String, Shape> appliedCuttingShapeMap;
 
     /**
      * Constructor for the LocationPolygon.
@@ -44,7 +51,8 @@ public abstract class LocationPolygon extends AbstractUnitPolygon<LocationData,
     public LocationPolygon(final double... points) throws InstantiationException {
         super(points);
         this.selected = false;
-        this.cuttingShape = this;
+        this.cuttingShapeMap = new LinkedHashMap<>();
+        this.appliedCuttingShapeMap = new HashMap<>();
         this.setLocationStyle();							
     }
 
@@ -87,8 +95,72 @@ public abstract class LocationPolygon extends AbstractUnitPolygon<LocationData,
      * @param additionalCuttingShape The shape to be cut out
      */
     public void addCuttingShape(final Shape additionalCuttingShape) {
-        this.cuttingShape = Path.subtract(this.cuttingShape, additionalCuttingShape);
-        this.setClip(this.cuttingShape);
+        addCuttingShape("shape@" + System.identityHashCode(additionalCuttingShape), additionalCuttingShape);
+    }
+
+    /**
+     * Will cut an additional Shape out of the polygon.
+     * A cutting shape with the same id is replaced.
+     *
+     * @param id the id of the cutting shape.
+     * @param additionalCuttingShape The shape to be cut out
+     */
+    public void addCuttingShape(final String id, final Shape additionalCuttingShape) {
+        cuttingShapeMap.put(id, additionalCuttingShape);
+        updateClip();
+    }
+
+    /**
+     * Replaces all cutting shapes at once. The clip is only rebuilt if the shapes differ from the current ones.
+     *
+     * @param cuttingShapes the shapes to cut out by id.
+     */
+    public void setCuttingShapes(final Map<String, ? extends Shape> cuttingShapes) {
+        cuttingShapeMap.clear();
+        cuttingShapeMap.putAll(cuttingShapes);
+        updateClip();
+    }
+
+    /**
+     * Removes the cutting shape with the given id.
+     *
+     * @param id the id of the cutting shape.
+     */
+    public void removeCuttingShape(final String id) {
+        if (cuttingShapeMap.remove(id) != null) {
+            updateClip();
+        }
+    }
+
+    /**
+     * Removes all previously added cutting shapes.
+     */
+    public void resetCuttingShape() {
+        cuttingShapeMap.clear();
+        updateClip();
+    }
+
+    private void updateClip() {
+        if (isClipApplied()) {
+            return;
+        }
+        appliedCuttingShapeMap = new HashMap<>(cuttingShapeMap);
+        this.setClip(ClipBuilder.build(this, cuttingShapeMap.values()));
+    }
+
+    /**
+     * The clip is still valid if it was built from exactly the same shape instances.
+     */
+    private boolean isClipApplied() {
+        if (appliedCuttingShapeMap.size() != cuttingShapeMap.size()) {
+            return false;
+        }
+        for (final Map.Entry<String, Shape> entry : cuttingShapeMap.entrySet()) {
+            if (appliedCuttingShapeMap.get(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
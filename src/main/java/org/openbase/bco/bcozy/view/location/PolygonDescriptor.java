@@ -0,0 +1,70 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see
+ * <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view.location;
+
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+
+/**
+ * Immutable description of a location or connection polygon which is ready to be placed on the location pane.
+ * Descriptors are computed in the background so the application thread only has to create the polygon.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class PolygonDescriptor {
+
+    private final UnitConfig unitConfig;
+    private final double[] points;
+    private final long fingerprint;
+
+    /**
+     * Creates a new descriptor.
+     *
+     * @param unitConfig the config of the location or connection.
+     * @param points the transformed pixel coordinates as x0, y0, x1, y1, ...
+     * @param fingerprint the fingerprint of everything the polygon is built from.
+     */
+    public PolygonDescriptor(final UnitConfig unitConfig, final double[] points, final long fingerprint) {
+        this.unitConfig = unitConfig;
+        this.points = points.clone();
+        this.fingerprint = fingerprint;
+    }
+
+    public UnitConfig getUnitConfig() {
+        return unitConfig;
+    }
+
+    public String getUnitId() {
+        return unitConfig.getId();
+    }
+
+    /**
+     * @return the fingerprint to record as soon as the polygon is applied.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return a copy of the pixel coordinates as x0, y0, x1, y1, ...
+     */
+    public double[] getPoints() {
+        return points.clone();
+    }
+}
@@ -65,6 +65,7 @@ public class RegionPolygon extends LocationPolygon {
 
     /**
      * This method should be called to change the selectable status.
+     * Only selectable regions are picked by the location pane.
      *
      * @param selectable Whether the Region should be selectable or not.
      */
@@ -73,12 +74,10 @@ public class RegionPolygon extends LocationPolygon {
             this.selectable = true;
             this.getStrokeDashArray().addAll(Constants.REGION_DASH_WIDTH, Constants.REGION_DASH_WIDTH);
             this.setStrokeWidth(Constants.REGION_STROKE_WIDTH);
-            this.setMouseTransparent(false);
         } else {
             this.selectable = false;
             this.getStrokeDashArray().clear();
             this.setStrokeWidth(0.0);
-            this.setMouseTransparent(true);
         }
     }
 
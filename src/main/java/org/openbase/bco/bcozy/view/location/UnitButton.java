@@ -22,7 +22,7 @@ import com.google.protobuf.GeneratedMessage;
 import javafx.scene.layout.Pane;
 import org.openbase.bco.bcozy.view.generic.WidgetPane.DisplayMode;
 import org.openbase.bco.bcozy.view.pane.unit.AbstractUnitPane;
-import org.openbase.bco.bcozy.view.pane.unit.UnitPaneFactoryImpl;
+import org.openbase.bco.bcozy.view.pane.unit.UnitPanePool;
 import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.NotAvailableException;
@@ -39,6 +39,7 @@ public class UnitButton extends Pane {
     protected final Logger LOGGER = LoggerFactory.getLogger(UnitButton.class);
 
     private UnitRemote<? extends GeneratedMessage> unitRemote;
+    private AbstractUnitPane content;
 
     /**
      * Constructor for UnitButton. Creates the content with the help of the UnitPaneFactory dynamically,
@@ -49,9 +50,8 @@ public class UnitButton extends Pane {
      * @throws org.openbase.jul.exception.CouldNotPerformException
      */
     public UnitButton(final UnitRemote<? extends GeneratedMessage> unitRemote) throws InterruptedException, CouldNotPerformException {
-            AbstractUnitPane content;
-            content = UnitPaneFactoryImpl.getInstance().newInitializedInstance(unitRemote.getConfig());
-            
+            content = UnitPanePool.getInstance().acquire(unitRemote.getConfig());
+
             content.setDisplayMode(DisplayMode.ICON_ONLY);
             this.unitRemote = content.getUnitRemote();
 
@@ -60,6 +60,15 @@ public class UnitButton extends Pane {
             this.getStyleClass().addAll("units-button");
     }
 
+    /**
+     * Removes the unit pane of this button and returns it to the pool. The button can not be used afterwards.
+     */
+    public void release() {
+        this.getChildren().remove(content);
+        UnitPanePool.getInstance().release(content);
+        content = null;
+    }
+
     /**
      * Returns the UnitRemote for the unit controlled with this button.
      *
@@ -23,6 +23,7 @@ import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -39,12 +40,16 @@ import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.SVGIcon;
 import org.openbase.bco.bcozy.view.generic.WidgetPane.DisplayMode;
 import org.openbase.bco.bcozy.view.pane.unit.AbstractUnitPane;
-import org.openbase.bco.bcozy.view.pane.unit.UnitPaneFactoryImpl;
+import org.openbase.bco.bcozy.view.pane.unit.UnitPanePool;
 import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
 import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Button that groups several UnitButtons that have the same position.
  * It displays the correct symbol and a small number that indicates how many buttons have been grouped.
@@ -125,7 +130,7 @@ public class UnitButtonGrouped extends Pane {
 
         try {
             AbstractUnitPane content;
-            content = UnitPaneFactoryImpl.getInstance().newInitializedInstance(unit.getConfig());
+            content = UnitPanePool.getInstance().acquire(unit.getConfig());
             content.setDisplayMode(DisplayMode.ICON_ONLY);
 
             if (groupingPane.getChildren().isEmpty()) {
@@ -142,6 +147,33 @@ public class UnitButtonGrouped extends Pane {
         }
     }
 
+    /**
+     * @return the remotes of all units of this button.
+     */
+    public List<UnitRemote<? extends GeneratedMessage>> getUnitRemoteList() {
+        final List<UnitRemote<? extends GeneratedMessage>> unitRemoteList = new ArrayList<>();
+        for (final Node content : groupingPane.getChildren()) {
+            try {
+                unitRemoteList.add(((AbstractUnitPane<?, ?>) content).getUnitRemote());
+            } catch (NotAvailableException ex) {
+                // pane without unit is skipped
+            }
+        }
+        return unitRemoteList;
+    }
+
+    /**
+     * Removes all unit panes of this button and returns them to the pool. The button can not be used afterwards.
+     */
+    public void release() {
+        final List<Node> contentList = new ArrayList<>(groupingPane.getChildren());
+        groupingPane.getChildren().clear();
+        for (final Node content : contentList) {
+            content.getStyleClass().remove("units-button");
+            UnitPanePool.getInstance().release((AbstractUnitPane) content);
+        }
+    }
+
     private void expand() {
         iconPane.setVisible(false);
         this.groupingPane.getChildren().forEach((node)
@@ -0,0 +1,142 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view.location;
+
+import com.google.protobuf.GeneratedMessage;
+import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.NotAvailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the unit buttons shared by all unit layers of the location plan.
+ * <p>
+ * A unit displayed in several layers is represented by a single button, so there is only one unit pane observing the
+ * unit. Each layer acquires the buttons it displays and releases them on its next rebuild. A button is returned to
+ * the unit pane pool as soon as no layer references it anymore. Because a node can only have one parent, only the
+ * displayed layer adds the buttons to the scene graph and a layer has to add its buttons again when it becomes visible.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitButtonRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitButtonRegistry.class);
+
+    /**
+     * Singleton instance.
+     */
+    private static UnitButtonRegistry instance;
+
+    private final Map<String, Entry> entryMap;
+
+    private UnitButtonRegistry() {
+        this.entryMap = new HashMap<>();
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the registry shared by all layers.
+     */
+    public static UnitButtonRegistry getInstance() {
+        synchronized (UnitButtonRegistry.class) {
+            if (UnitButtonRegistry.instance == null) {
+                UnitButtonRegistry.instance = new UnitButtonRegistry();
+            }
+        }
+        return UnitButtonRegistry.instance;
+    }
+
+    /**
+     * Returns the button of the given unit and creates it if no layer displays the unit yet. Each call has to be
+     * balanced by a call of {@link #release(UnitButton)}.
+     *
+     * @param unitRemote the remote of the unit.
+     * @return the shared button of the unit.
+     * @throws CouldNotPerformException is thrown if the button could not be created.
+     * @throws InterruptedException is thrown if the current thread was externally interrupted.
+     */
+    public synchronized UnitButton acquire(final UnitRemote<? extends GeneratedMessage> unitRemote) throws CouldNotPerformException, InterruptedException {
+        final String unitId = unitRemote.getConfig().getId();
+        Entry entry = entryMap.get(unitId);
+        if (entry == null) {
+            entry = new Entry(new UnitButton(unitRemote));
+            entryMap.put(unitId, entry);
+        }
+        entry.referenceCount++;
+        return entry.button;
+    }
+
+    /**
+     * Releases a button acquired before. The unit pane of the button is returned to the pool if no other layer
+     * references the button anymore.
+     *
+     * @param button the button to release.
+     */
+    public synchronized void release(final UnitButton button) {
+        final String unitId;
+        try {
+            unitId = button.getUnitRemote().getConfig().getId();
+        } catch (NotAvailableException ex) {
+            LOGGER.warn("Could not release " + button + " because its unit is not available!");
+            button.release();
+            return;
+        }
+
+        final Entry entry = entryMap.get(unitId);
+        if (entry == null || entry.button != button) {
+            // not shared
+            button.release();
+            return;
+        }
+
+        entry.referenceCount--;
+        if (entry.referenceCount <= 0) {
+            entryMap.remove(unitId);
+            button.release();
+        }
+    }
+
+    /**
+     * @return the number of buttons currently displayed by any layer.
+     */
+    public synchronized int size() {
+        return entryMap.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName() + "[buttons:" + entryMap.size() + "]";
+    }
+
+    private static final class Entry {
+
+        private final UnitButton button;
+        private int referenceCount;
+
+        private Entry(final UnitButton button) {
+            this.button = button;
+            this.referenceCount = 0;
+        }
+    }
+}
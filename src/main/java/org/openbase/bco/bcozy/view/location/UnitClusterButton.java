@@ -0,0 +1,128 @@
+/**
+ * ==================================================================
+ *
+ * This file is part of org.openbase.bco.bcozy.
+ *
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ *
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view.location;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.GeneratedMessage;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import org.openbase.bco.bcozy.model.LanguageSelection;
+import org.openbase.bco.bcozy.model.UnitCluster;
+import org.openbase.bco.bcozy.util.CoalescingUpdateScheduler;
+import org.openbase.bco.bcozy.view.Constants;
+import org.openbase.bco.dal.lib.layer.unit.UnitRemote;
+import org.openbase.jul.exception.NotAvailableException;
+import org.openbase.jul.pattern.Observer;
+import rst.domotic.state.PowerStateType.PowerState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary node of all units of a {@link UnitCluster} displayed instead of the single unit buttons if the room plan is
+ * zoomed out. The summary shows the number of units and how many of them are switched on. The unit data is only
+ * observed while the node is part of a scene.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class UnitClusterButton extends StackPane {
+
+    private final UnitCluster cluster;
+    private final List<UnitRemote<? extends GeneratedMessage>> unitRemoteList;
+    private final Label summaryLabel;
+    private final Observer dataObserver;
+
+    /**
+     * Creates the summary of the given units.
+     *
+     * @param cluster the cluster of the units.
+     * @param unitRemoteList the remotes of the units to summarize.
+     */
+    public UnitClusterButton(final UnitCluster cluster, final List<UnitRemote<? extends GeneratedMessage>> unitRemoteList) {
+        this.cluster = cluster;
+        this.unitRemoteList = new ArrayList<>(unitRemoteList);
+        this.summaryLabel = new Label();
+        this.dataObserver = (source, data) -> CoalescingUpdateScheduler.getInstance().schedule(this, this::updateSummary);
+
+        final double halfButtonSize = (Constants.SMALL_ICON + (2 * Constants.INSETS)) / 2;
+        // Attention: X and Y swapped according to the location pane
+        setTranslateX(cluster.getPosition().getY() - halfButtonSize);
+        setTranslateY(cluster.getPosition().getX() - halfButtonSize);
+
+        getChildren().add(summaryLabel);
+        getStyleClass().addAll("units-button", "unit-cluster-button");
+
+        sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene == null && newScene != null) {
+                this.unitRemoteList.forEach(unitRemote -> unitRemote.addDataObserver(dataObserver));
+                updateSummary();
+            } else if (oldScene != null && newScene == null) {
+                this.unitRemoteList.forEach(unitRemote -> unitRemote.removeDataObserver(dataObserver));
+                CoalescingUpdateScheduler.getInstance().cancel(this);
+            }
+        });
+        updateSummary();
+    }
+
+    /**
+     * @return the summarized cluster.
+     */
+    public UnitCluster getCluster() {
+        return cluster;
+    }
+
+    private void updateSummary() {
+        int powerStateCount = 0;
+        int onCount = 0;
+        for (final UnitRemote<? extends GeneratedMessage> unitRemote : unitRemoteList) {
+            final PowerState powerState = getPowerState(unitRemote);
+            if (powerState != null) {
+                powerStateCount++;
+                if (powerState.getValue() == PowerState.State.ON) {
+                    onCount++;
+                }
+            }
+        }
+
+        if (powerStateCount > 0) {
+            summaryLabel.setText(LanguageSelection.getLocalized("unitClusterSummaryOn", unitRemoteList.size(), onCount));
+        } else {
+            summaryLabel.setText(LanguageSelection.getLocalized("unitClusterSummary", unitRemoteList.size()));
+        }
+    }
+
+    private static PowerState getPowerState(final UnitRemote<? extends GeneratedMessage> unitRemote) {
+        final GeneratedMessage data;
+        try {
+            data = unitRemote.getData();
+        } catch (NotAvailableException ex) {
+            return null;
+        }
+        final FieldDescriptor powerStateField = data.getDescriptorForType().findFieldByName("power_state");
+        if (powerStateField == null || !data.hasField(powerStateField)) {
+            return null;
+        }
+        return (PowerState) data.getField(powerStateField);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + cluster + "]";
+    }
+}
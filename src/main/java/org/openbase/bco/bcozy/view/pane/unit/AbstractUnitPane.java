@@ -20,10 +20,11 @@ package org.openbase.bco.bcozy.view.pane.unit;
 
 import com.google.protobuf.GeneratedMessage;
 import de.jensd.fx.glyphs.materialdesignicons.MaterialDesignIcon;
-import javafx.application.Platform;
 import org.openbase.bco.authentication.lib.AuthorizationHelper;
 import org.openbase.bco.authentication.lib.SessionManager;
 import org.openbase.bco.authentication.lib.jp.JPAuthentication;
+import org.openbase.bco.bcozy.model.ActuationBatchDispatcher;
+import org.openbase.bco.bcozy.util.CoalescingUpdateScheduler;
 import org.openbase.bco.bcozy.view.Constants;
 import org.openbase.bco.bcozy.view.InfoPane;
 import org.openbase.bco.bcozy.view.SVGIcon;
@@ -43,9 +44,15 @@ import org.openbase.jul.iface.Shutdownable;
 import org.openbase.jul.pattern.Observable;
 import org.openbase.jul.pattern.Observer;
 import org.openbase.jul.pattern.Remote.ConnectionState;
+import org.openbase.jul.schedule.SyncObject;
 import rst.domotic.unit.UnitConfigType.UnitConfig;
 
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created by divine on 25.04.17
@@ -55,9 +62,25 @@ import java.util.Map;
  */
 public abstract class AbstractUnitPane<UR extends UnitRemote<D>, D extends GeneratedMessage> extends ExpandableWidgedPane implements Initializable<UR>, Shutdownable {
 
+    /**
+     * Applies the latest received values of all unit panes at most once per frame.
+     */
+    private static final CoalescingUpdateScheduler UPDATE_SCHEDULER = new CoalescingUpdateScheduler(Constants.UNIT_PANE_UPDATE_WINDOW);
+    private static final AtomicLong DROPPED_UPDATE_COUNTER = new AtomicLong();
+    private static final AtomicInteger OBSERVED_PANE_COUNTER = new AtomicInteger();
+
     private final Class<UR> unitRemoteClass;
     private UR unitRemote;
 
+    private final AtomicReference<UnitConfig> pendingConfig;
+    private final AtomicReference<D> pendingData;
+    private final AtomicReference<ConnectionState> pendingConnectionState;
+    private final AtomicBoolean pendingLoginUpdate;
+
+    private final SyncObject observationLock = new SyncObject("ObservationLock");
+    private boolean observed;
+    private boolean contentInitialized;
+
     private final Observer<UnitConfig> unitConfigObserver;
     private final Observer<D> unitDataObserver;
     private final Observer<ConnectionState> unitConnectionObserver;
@@ -73,56 +96,102 @@ public abstract class AbstractUnitPane<UR extends UnitRemote<D>, D extends Gener
         super(false, activateable);
         this.unitRemoteClass = unitRemoteClass;
         //TODO: Set css styling for unitlabel
+        this.pendingConfig = new AtomicReference<>();
+        this.pendingData = new AtomicReference<>();
+        this.pendingConnectionState = new AtomicReference<>();
+        this.pendingLoginUpdate = new AtomicBoolean();
+        this.observed = true;
+        OBSERVED_PANE_COUNTER.incrementAndGet();
         this.unitConfigObserver = new Observer<UnitConfig>() {
             @Override
             public void update(Observable<UnitConfig> source, UnitConfig config) throws Exception {
-                Platform.runLater(() -> {
-                    try {
-                        applyConfigUpdate(config);
-                    } catch (CouldNotPerformException ex) {
-                        ExceptionPrinter.printHistory("Could not apply config update on " + this, ex, LOGGER);
-                    }
-                });
+                post(pendingConfig, config);
             }
         };
         this.unitDataObserver = new Observer<D>() {
             @Override
             public void update(Observable<D> source, D data) throws Exception {
-                Platform.runLater(() -> {
-                    try {
-                        applyDataUpdate(data);
-                    } catch (CouldNotPerformException ex) {
-                        ExceptionPrinter.printHistory("Could not apply data update on " + this, ex, LOGGER);
-                    }
-                });
+                post(pendingData, data);
             }
         };
         this.unitConnectionObserver = new Observer<ConnectionState>() {
             @Override
             public void update(Observable<ConnectionState> source, ConnectionState connectionState) throws Exception {
-                Platform.runLater(() -> {
-                    try {
-                        applyConnectionStateUpdate(connectionState);
-                    } catch (CouldNotPerformException ex) {
-                        ExceptionPrinter.printHistory("Could not apply data update on " + this, ex, LOGGER);
-                    }
-                });
+                post(pendingConnectionState, connectionState);
             }
         };
         this.loginObserver = new Observer<String>() {
             @Override
             public void update(Observable<String> source, String authority) throws Exception {
-                Platform.runLater(() -> {
-                    try {
-                        applyLoginUpdate();
-                    } catch (CouldNotPerformException ex) {
-                        ExceptionPrinter.printHistory("Could not apply data update on " + this, ex, LOGGER);
-                    }
-                });
+                if (pendingLoginUpdate.getAndSet(true)) {
+                    DROPPED_UPDATE_COUNTER.incrementAndGet();
+                }
+                UPDATE_SCHEDULER.schedule(AbstractUnitPane.this, AbstractUnitPane.this::applyPendingUpdates);
             }
         };
     }
 
+    private <V> void post(final AtomicReference<V> mailbox, final V value) {
+        if (mailbox.getAndSet(value) != null) {
+            DROPPED_UPDATE_COUNTER.incrementAndGet();
+        }
+        UPDATE_SCHEDULER.schedule(this, this::applyPendingUpdates);
+    }
+
+    /**
+     * Applies the latest values received since the last frame. Must be called on the application thread.
+     */
+    private void applyPendingUpdates() {
+        final ConnectionState connectionState = pendingConnectionState.getAndSet(null);
+        if (connectionState != null) {
+            try {
+                applyConnectionStateUpdate(connectionState);
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not apply connection state update on " + this, ex, LOGGER);
+            }
+        }
+
+        final UnitConfig config = pendingConfig.getAndSet(null);
+        if (config != null) {
+            try {
+                applyConfigUpdate(config);
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not apply config update on " + this, ex, LOGGER);
+            }
+        }
+
+        final D data = pendingData.getAndSet(null);
+        if (data != null) {
+            try {
+                applyDataUpdate(data);
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not apply data update on " + this, ex, LOGGER);
+            }
+        }
+
+        if (pendingLoginUpdate.getAndSet(false)) {
+            try {
+                applyLoginUpdate();
+            } catch (CouldNotPerformException ex) {
+                ExceptionPrinter.printHistory("Could not apply login update on " + this, ex, LOGGER);
+            }
+        }
+    }
+
+    /**
+     * @return the number of unit panes with updates waiting for the next frame.
+     */
+    public static int getPendingUpdateCount() {
+        return UPDATE_SCHEDULER.getPendingCount();
+    }
+
+    /**
+     * @return the number of received values which were replaced by a newer one before they were applied.
+     */
+    public static long getDroppedUpdateCount() {
+        return DROPPED_UPDATE_COUNTER.get();
+    }
+
     /**
      * Method initializes this pane with a unit referred by the given id.
      *
@@ -162,14 +231,22 @@ public abstract class AbstractUnitPane<UR extends UnitRemote<D>, D extends Gener
      */
     @Override
     public void init(final UR unitRemote) throws InterruptedException, InitializationException {
-        init();
+        // the content is only created once, a reinitialization with another remote only updates it.
+        if (!contentInitialized) {
+            init();
+            contentInitialized = true;
+        }
         clearRemoteObservers();
 
         this.unitRemote = unitRemote;
 
         unitRemote.addConfigObserver(unitConfigObserver);
-        unitRemote.addDataObserver(unitDataObserver);
-        unitRemote.addConnectionStateObserver(unitConnectionObserver);
+        synchronized (observationLock) {
+            if (observed) {
+                unitRemote.addDataObserver(unitDataObserver);
+                unitRemote.addConnectionStateObserver(unitConnectionObserver);
+            }
+        }
         SessionManager.getInstance().addLoginObserver(loginObserver);
 
         if (!unitRemote.isConnected()) {
@@ -226,6 +303,101 @@ public abstract class AbstractUnitPane<UR extends UnitRemote<D>, D extends Gener
             this.unitRemote.removeDataObserver(unitDataObserver);
             this.unitRemote.removeConnectionStateObserver(unitConnectionObserver);
         }
+        SessionManager.getInstance().removeLoginObserver(loginObserver);
+    }
+
+    /**
+     * Suspends or resumes the observation of the unit data and connection state. Panes which are not visible should
+     * not be observed to avoid processing updates nobody can see. When resumed, the current state of the unit is
+     * applied to catch up on all changes missed in the meantime. The unit config is observed in both cases.
+     *
+     * @param observed true if the pane is visible and should be observed.
+     */
+    public void setObserved(final boolean observed) {
+        synchronized (observationLock) {
+            if (this.observed == observed) {
+                return;
+            }
+            this.observed = observed;
+            if (observed) {
+                OBSERVED_PANE_COUNTER.incrementAndGet();
+            } else {
+                OBSERVED_PANE_COUNTER.decrementAndGet();
+            }
+
+            if (unitRemote == null) {
+                return;
+            }
+
+            if (!observed) {
+                unitRemote.removeDataObserver(unitDataObserver);
+                unitRemote.removeConnectionStateObserver(unitConnectionObserver);
+                pendingData.set(null);
+                pendingConnectionState.set(null);
+                return;
+            }
+
+            unitRemote.addDataObserver(unitDataObserver);
+            unitRemote.addConnectionStateObserver(unitConnectionObserver);
+            post(pendingConnectionState, unitRemote.getConnectionState());
+            try {
+                post(pendingData, unitRemote.getData());
+            } catch (CouldNotPerformException ex) {
+                // skip update, data observer will handle the update later on.
+            }
+        }
+    }
+
+    /**
+     * @return true if the unit data and connection state are observed.
+     */
+    public boolean isObserved() {
+        synchronized (observationLock) {
+            return observed;
+        }
+    }
+
+    /**
+     * @return the number of unit panes currently observing their unit.
+     */
+    public static int getObservedPaneCount() {
+        return OBSERVED_PANE_COUNTER.get();
+    }
+
+    /**
+     * Resets the state modified by the users of this pane so it can be reinitialized with another unit. The pane has
+     * to be shut down before.
+     */
+    void resetForReuse() {
+        expansionProperty.set(false);
+        setVisible(true);
+        setStyle(null);
+        resetActivationState();
+        setPrimaryActivationWithoutNotification(false);
+    }
+
+    /**
+     * Captures the current unit remote, because the pane can be reused for another unit before the action is
+     * dispatched.
+     */
+    @Override
+    protected ActuationBatchDispatcher.Action createPrimaryActivationAction(final boolean activation) throws CouldNotPerformException {
+        final UR remote = getUnitRemote();
+        return () -> applyPrimaryActivationUpdate(remote, activation);
+    }
+
+    /**
+     * Overwrite this method to apply main function updates to the unit.
+     * The method is called by the actuation dispatcher outside of the application thread, so it must only use the
+     * given unit remote and activation and must not read any ui values.
+     *
+     * @param unitRemote the remote of the unit the pane was showing when the activation was triggered.
+     * @param activation a boolean value which refers to the current function activation.
+     * @return should return a future object of the triggered tasks or null if no task was triggered.
+     * @throws CouldNotPerformException can be thrown if the update fails.
+     */
+    protected Future applyPrimaryActivationUpdate(final UR unitRemote, final boolean activation) throws CouldNotPerformException {
+        return null;
     }
 
     /**
@@ -260,7 +432,13 @@ public abstract class AbstractUnitPane<UR extends UnitRemote<D>, D extends Gener
      */
     @Override
     public void shutdown() {
+        setObserved(false);
         clearRemoteObservers();
+        UPDATE_SCHEDULER.cancel(this);
+        pendingConfig.set(null);
+        pendingData.set(null);
+        pendingConnectionState.set(null);
+        pendingLoginUpdate.set(false);
     }
 
     /**
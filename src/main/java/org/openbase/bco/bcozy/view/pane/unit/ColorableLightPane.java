@@ -131,8 +131,8 @@ public class ColorableLightPane extends AbstractUnitPane<ColorableLightRemote, C
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setPowerState(PowerState.State.ON) : getUnitRemote().setPowerState(PowerState.State.OFF);
+    protected Future applyPrimaryActivationUpdate(final ColorableLightRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setPowerState(PowerState.State.ON) : unitRemote.setPowerState(PowerState.State.OFF);
     }
 
     @Override
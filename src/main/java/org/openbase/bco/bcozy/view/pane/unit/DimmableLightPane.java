@@ -118,7 +118,7 @@ public class DimmableLightPane extends AbstractUnitPane<DimmableLightRemote, Dim
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setPowerState(PowerState.State.ON) : getUnitRemote().setPowerState(PowerState.State.OFF);
+    protected Future applyPrimaryActivationUpdate(final DimmableLightRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setPowerState(PowerState.State.ON) : unitRemote.setPowerState(PowerState.State.OFF);
     }
 }
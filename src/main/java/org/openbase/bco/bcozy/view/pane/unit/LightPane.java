@@ -77,7 +77,7 @@ public class LightPane extends AbstractUnitPane<LightRemote, LightData> {
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setPowerState(PowerState.State.ON) : getUnitRemote().setPowerState(PowerState.State.OFF);
+    protected Future applyPrimaryActivationUpdate(final LightRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setPowerState(PowerState.State.ON) : unitRemote.setPowerState(PowerState.State.OFF);
     }
 }
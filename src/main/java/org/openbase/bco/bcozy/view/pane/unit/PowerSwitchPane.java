@@ -68,7 +68,7 @@ public class PowerSwitchPane extends AbstractUnitPane<PowerSwitchRemote, PowerSw
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setPowerState(PowerState.State.ON) : getUnitRemote().setPowerState(PowerState.State.OFF);
+    protected Future applyPrimaryActivationUpdate(final PowerSwitchRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setPowerState(PowerState.State.ON) : unitRemote.setPowerState(PowerState.State.OFF);
     }
 }
@@ -59,7 +59,10 @@ public class TitledUnitPaneContainer extends VBox {
      */
     public void clearTitledPane() {
         for (final Node node : this.getChildren()) {
-            ((UnitPaneContainer) node).clearUnitPaneContainer();
+            // skip the dummy pane
+            if (node instanceof UnitPaneContainer) {
+                ((UnitPaneContainer) node).clearUnitPaneContainer();
+            }
         }
         this.getChildren().clear();
     }
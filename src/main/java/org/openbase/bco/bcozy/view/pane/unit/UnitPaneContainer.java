@@ -18,6 +18,7 @@
  */
 package org.openbase.bco.bcozy.view.pane.unit;
 
+import javafx.beans.InvalidationListener;
 import javafx.scene.Node;
 import javafx.scene.layout.VBox;
 import org.openbase.bco.bcozy.view.mainmenupanes.ObserverTitledPane;
@@ -53,6 +54,21 @@ public class UnitPaneContainer extends ObserverTitledPane {
         this.vBox.getStyleClass().add("observer-titled-pane");
         this.getStyleClass().add("observer-titled-pane");
         this.setContent(vBox);
+
+        // only observe the units while the container is expanded and shown.
+        final InvalidationListener visibilityListener = observable -> updateUnitPaneObservation();
+        this.expandedProperty().addListener(visibilityListener);
+        this.sceneProperty().addListener(visibilityListener);
+    }
+
+    /**
+     * Suspends the observation of all unit panes if this container is collapsed or not shown and resumes it otherwise.
+     */
+    private void updateUnitPaneObservation() {
+        final boolean visible = isExpanded() && getScene() != null;
+        for (final Node node : vBox.getChildren()) {
+            ((AbstractUnitPane) node).setObserved(visible);
+        }
     }
 
     /**
@@ -65,14 +81,21 @@ public class UnitPaneContainer extends ObserverTitledPane {
     public void createAndAddNewUnitPanes(final UnitType unitType, final List<UnitRemote> dalRemoteServiceList) throws InterruptedException {
         this.setExpanded(false);
 
+        if (!UnitPaneFactoryImpl.getInstance().isSupported(unitType)) {
+            LOGGER.debug("UnitType[" + unitType + "] is not supported yet!");
+            return;
+        }
+
         for (final UnitRemote<?> remote : dalRemoteServiceList) {
             try {
-                vBox.getChildren().add(UnitPaneFactoryImpl.getInstance().newInitializedInstance(remote.getConfig()));
+                final AbstractUnitPane unitPane = UnitPaneFactoryImpl.getInstance().newInitializedInstance(remote.getConfig());
+                unitPane.setObserved(isExpanded() && getScene() != null);
+                vBox.getChildren().add(unitPane);
             } catch (CouldNotPerformException ex) {
                 if (JPService.verboseMode()) {
-                    ExceptionPrinter.printHistory("UnitType[" + unitType + "] is not supported yet!", ex, LOGGER, LogLevel.WARN);
+                    ExceptionPrinter.printHistory("Could not create unit pane of UnitType[" + unitType + "]!", ex, LOGGER, LogLevel.WARN);
                 } else {
-                    ExceptionPrinter.printHistory("UnitType[" + unitType + "] is not supported yet!", ex, LOGGER, LogLevel.DEBUG);
+                    ExceptionPrinter.printHistory("Could not create unit pane of UnitType[" + unitType + "]!", ex, LOGGER, LogLevel.DEBUG);
                 }
             }
         }
@@ -86,7 +109,7 @@ public class UnitPaneContainer extends ObserverTitledPane {
             ((AbstractUnitPane) node).shutdown();
         }
 
-        this.getChildren().clear();
+        vBox.getChildren().clear();
     }
 
     /**
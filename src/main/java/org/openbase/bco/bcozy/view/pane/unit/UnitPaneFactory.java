@@ -150,4 +150,12 @@ public interface UnitPaneFactory extends Factory<AbstractUnitPane, UnitConfigTyp
      */
     public AbstractUnitPane newInstance(final UnitTemplateType.UnitTemplate.UnitType type) throws InstantiationException;
 
+    /**
+     * Method checks if a unit pane is available for the given unit type.
+     *
+     * @param type the unit type to check.
+     * @return true if panes of the given unit type can be created.
+     */
+    public boolean isSupported(final UnitTemplateType.UnitTemplate.UnitType type);
+
 }
@@ -18,16 +18,26 @@
  */
 package org.openbase.bco.bcozy.view.pane.unit;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openbase.bco.bcozy.view.pane.unit.agent.AgentPane;
+import org.openbase.bco.bcozy.view.pane.unit.app.AppPane;
+import org.openbase.bco.bcozy.view.pane.unit.location.LocationPane;
+import org.openbase.bco.bcozy.view.pane.unit.scene.ScenePane;
+import org.openbase.bco.bcozy.view.pane.unit.unitgroup.UnitGroupPane;
 import org.openbase.bco.registry.lib.util.UnitConfigProcessor;
 import org.openbase.bco.registry.unit.remote.CachedUnitRegistryRemote;
 import org.openbase.jul.exception.CouldNotPerformException;
 import org.openbase.jul.exception.EnumNotSupportedException;
 import org.openbase.jul.exception.InitializationException;
 import org.openbase.jul.exception.InstantiationException;
+import org.openbase.jul.exception.NotAvailableException;
 import org.openbase.jul.processing.StringProcessor;
 import rst.domotic.unit.UnitConfigType.UnitConfig;
 import rst.domotic.unit.UnitTemplateType;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
 import rst.rsb.ScopeType;
 
 /**
@@ -37,7 +47,27 @@ public class UnitPaneFactoryImpl implements UnitPaneFactory {
 
     private static UnitPaneFactory instance;
 
+    /**
+     * The unit pane suppliers of all supported unit types. New unit panes have to be registered here.
+     */
+    private final Map<UnitType, Supplier<AbstractUnitPane>> unitPaneSupplierMap;
+
     private UnitPaneFactoryImpl() {
+        this.unitPaneSupplierMap = new EnumMap<>(UnitType.class);
+        this.unitPaneSupplierMap.put(UnitType.BATTERY, BatteryPane::new);
+        this.unitPaneSupplierMap.put(UnitType.COLORABLE_LIGHT, ColorableLightPane::new);
+        this.unitPaneSupplierMap.put(UnitType.DIMMABLE_LIGHT, DimmableLightPane::new);
+        this.unitPaneSupplierMap.put(UnitType.LIGHT, LightPane::new);
+        this.unitPaneSupplierMap.put(UnitType.MOTION_DETECTOR, MotionDetectorPane::new);
+        this.unitPaneSupplierMap.put(UnitType.POWER_SWITCH, PowerSwitchPane::new);
+        this.unitPaneSupplierMap.put(UnitType.REED_CONTACT, ReedContactPane::new);
+        this.unitPaneSupplierMap.put(UnitType.TAMPER_DETECTOR, TamperDetectorPane::new);
+        this.unitPaneSupplierMap.put(UnitType.TEMPERATURE_SENSOR, TemperatureSensorPane::new);
+        this.unitPaneSupplierMap.put(UnitType.AGENT, AgentPane::new);
+        this.unitPaneSupplierMap.put(UnitType.APP, AppPane::new);
+        this.unitPaneSupplierMap.put(UnitType.LOCATION, LocationPane::new);
+        this.unitPaneSupplierMap.put(UnitType.SCENE, ScenePane::new);
+        this.unitPaneSupplierMap.put(UnitType.UNIT_GROUP, UnitGroupPane::new);
     }
 
     /**
@@ -52,6 +82,32 @@ public class UnitPaneFactoryImpl implements UnitPaneFactory {
         return instance;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @param unitType {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isSupported(final UnitType unitType) {
+        return unitPaneSupplierMap.containsKey(unitType);
+    }
+
+    /**
+     * Method returns the supplier creating the unit pane of the given unit type.
+     *
+     * @param unitType the unit type of the pane.
+     * @return the supplier of the unit pane.
+     * @throws NotAvailableException is thrown if the unit type is not supported.
+     */
+    Supplier<AbstractUnitPane> getUnitPaneSupplier(final UnitType unitType) throws NotAvailableException {
+        final Supplier<AbstractUnitPane> unitPaneSupplier = unitPaneSupplierMap.get(unitType);
+        if (unitPaneSupplier == null) {
+            throw new NotAvailableException("UnitPane of UnitType[" + unitType.name() + "]");
+        }
+        return unitPaneSupplier;
+    }
+
     /**
      * Method resolves the unit pane class of the given unit config.
      *
@@ -96,11 +152,7 @@ public class UnitPaneFactoryImpl implements UnitPaneFactory {
      */
     @Override
     public AbstractUnitPane newInstance(final UnitConfig config) throws InstantiationException {
-        try {
-            return newInstance(loadUnitPaneClass(config));
-        } catch (CouldNotPerformException ex) {
-            throw new InstantiationException("Could not create unit pane!", ex);
-        }
+        return newInstance(config.getType());
     }
 
     /**
@@ -129,11 +181,10 @@ public class UnitPaneFactoryImpl implements UnitPaneFactory {
     @Override
     public AbstractUnitPane newInstance(final UnitTemplateType.UnitTemplate.UnitType type) throws InstantiationException {
         try {
-            return newInstance(loadUnitPaneClass(type));
+            return getUnitPaneSupplier(type).get();
         } catch (CouldNotPerformException ex) {
             throw new InstantiationException("Could not create unit pane!", ex);
         }
-
     }
 
     /**
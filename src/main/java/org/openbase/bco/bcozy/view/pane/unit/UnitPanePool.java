@@ -0,0 +1,176 @@
+/**
+ * ==================================================================
+ * <p>
+ * This file is part of org.openbase.bco.bcozy.
+ * <p>
+ * org.openbase.bco.bcozy is free software: you can redistribute it and modify
+ * it under the terms of the GNU General Public License (Version 3)
+ * as published by the Free Software Foundation.
+ * <p>
+ * org.openbase.bco.bcozy is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with org.openbase.bco.bcozy. If not, see <http://www.gnu.org/licenses/>.
+ * ==================================================================
+ */
+package org.openbase.bco.bcozy.view.pane.unit;
+
+import org.openbase.bco.bcozy.view.Constants;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openbase.jul.exception.InitializationException;
+import org.openbase.jul.exception.printer.ExceptionPrinter;
+import org.openbase.jul.exception.printer.LogLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of unit panes which are reused per unit type instead of being recreated on every rebuild of the unit layers.
+ * <p>
+ * Released panes are shut down, so they do not observe their former unit anymore, and are reinitialized with the
+ * remote of the next unit of the same type when acquired again. This avoids the recreation of the whole node tree of
+ * the panes and the related css processing.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public final class UnitPanePool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitPanePool.class);
+
+    /**
+     * Singleton instance.
+     */
+    private static UnitPanePool instance;
+
+    private final Map<UnitType, Deque<AbstractUnitPane>> poolMap;
+    private final int maxPoolSize;
+
+    private final AtomicLong createdCounter;
+    private final AtomicLong reusedCounter;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maxPoolSize the maximal number of released panes kept per unit type.
+     */
+    public UnitPanePool(final int maxPoolSize) {
+        this.poolMap = new EnumMap<>(UnitType.class);
+        this.maxPoolSize = maxPoolSize;
+        this.createdCounter = new AtomicLong();
+        this.reusedCounter = new AtomicLong();
+    }
+
+    /**
+     * Singleton Pattern.
+     *
+     * @return the shared pool using the {@link Constants#UNIT_PANE_POOL_SIZE}.
+     */
+    public static UnitPanePool getInstance() {
+        synchronized (UnitPanePool.class) {
+            if (UnitPanePool.instance == null) {
+                UnitPanePool.instance = new UnitPanePool(Constants.UNIT_PANE_POOL_SIZE);
+            }
+        }
+        return UnitPanePool.instance;
+    }
+
+    /**
+     * Returns a pane initialized with the given unit. A released pane of the same unit type is reused if available,
+     * otherwise a new one is created.
+     *
+     * @param config the config of the unit to display.
+     * @return the initialized unit pane.
+     * @throws CouldNotPerformException is thrown if the pane could not be created or initialized.
+     * @throws InterruptedException is thrown if the current thread was externally interrupted.
+     */
+    public AbstractUnitPane acquire(final UnitConfig config) throws CouldNotPerformException, InterruptedException {
+        final AbstractUnitPane unitPane;
+        synchronized (poolMap) {
+            final Deque<AbstractUnitPane> pool = poolMap.get(config.getType());
+            unitPane = pool == null ? null : pool.poll();
+        }
+
+        if (unitPane == null) {
+            createdCounter.incrementAndGet();
+            return UnitPaneFactoryImpl.getInstance().newInitializedInstance(config);
+        }
+
+        try {
+            unitPane.init(config);
+        } catch (InitializationException ex) {
+            // the pane is dropped, it is in an undefined state.
+            throw new CouldNotPerformException("Could not reinitialize " + unitPane + " with unit " + config.getId() + "!", ex);
+        }
+        unitPane.setObserved(true);
+        reusedCounter.incrementAndGet();
+        return unitPane;
+    }
+
+    /**
+     * Shuts down the given pane and keeps it for reuse. The pane has to be removed from the scene graph by the caller.
+     *
+     * @param unitPane the pane to release, null is ignored.
+     */
+    public void release(final AbstractUnitPane unitPane) {
+        if (unitPane == null) {
+            return;
+        }
+
+        final UnitType unitType;
+        try {
+            unitType = unitPane.getUnitRemote().getConfig().getType();
+        } catch (CouldNotPerformException ex) {
+            ExceptionPrinter.printHistory("Could not release " + unitPane + "!", ex, LOGGER, LogLevel.DEBUG);
+            unitPane.shutdown();
+            return;
+        }
+
+        unitPane.shutdown();
+        unitPane.resetForReuse();
+
+        synchronized (poolMap) {
+            final Deque<AbstractUnitPane> pool = poolMap.computeIfAbsent(unitType, type -> new ArrayDeque<>());
+            if (pool.size() < maxPoolSize) {
+                pool.push(unitPane);
+            }
+        }
+    }
+
+    /**
+     * @return the number of panes kept for reuse.
+     */
+    public int size() {
+        synchronized (poolMap) {
+            return poolMap.values().stream().mapToInt(Deque::size).sum();
+        }
+    }
+
+    /**
+     * @return the number of newly created panes.
+     */
+    public long getCreatedCount() {
+        return createdCounter.get();
+    }
+
+    /**
+     * @return the number of reused panes.
+     */
+    public long getReusedCount() {
+        return reusedCounter.get();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[pooled:" + size() + ", created:" + getCreatedCount() + ", reused:" + getReusedCount() + "]";
+    }
+}
@@ -118,7 +118,7 @@ public class AgentPane extends AbstractUnitPane<AgentRemote, AgentData> {
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setActivationState(State.ACTIVE) : getUnitRemote().setActivationState(State.DEACTIVE);
+    protected Future applyPrimaryActivationUpdate(final AgentRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setActivationState(State.ACTIVE) : unitRemote.setActivationState(State.DEACTIVE);
     }
 }
@@ -69,7 +69,7 @@ public class AppPane extends AbstractUnitPane<AppRemote, AppData> {
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setActivationState(State.ACTIVE) : getUnitRemote().setActivationState(State.DEACTIVE);
+    protected Future applyPrimaryActivationUpdate(final AppRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setActivationState(State.ACTIVE) : unitRemote.setActivationState(State.DEACTIVE);
     }
 }
@@ -126,9 +126,9 @@ public class LocationPane extends AbstractUnitPane<LocationRemote, LocationData>
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
+    protected Future applyPrimaryActivationUpdate(final LocationRemote unitRemote, final boolean activation) throws CouldNotPerformException {
 
-        return (activation) ? getUnitRemote().setPowerState(PowerState.State.ON, UnitType.LIGHT)
-            : getUnitRemote().setPowerState(PowerState.State.OFF, UnitType.LIGHT);
+        return (activation) ? unitRemote.setPowerState(PowerState.State.ON, UnitType.LIGHT)
+            : unitRemote.setPowerState(PowerState.State.OFF, UnitType.LIGHT);
     }
 }
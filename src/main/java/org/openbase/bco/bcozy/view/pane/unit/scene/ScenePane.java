@@ -68,7 +68,7 @@ public class ScenePane extends AbstractUnitPane<SceneRemote, SceneData> {
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setActivationState(State.ACTIVE) : getUnitRemote().setActivationState(State.DEACTIVE);
+    protected Future applyPrimaryActivationUpdate(final SceneRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setActivationState(State.ACTIVE) : unitRemote.setActivationState(State.DEACTIVE);
     }
 }
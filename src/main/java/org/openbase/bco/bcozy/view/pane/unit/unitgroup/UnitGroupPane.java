@@ -69,7 +69,7 @@ public class UnitGroupPane extends AbstractUnitPane<UnitGroupRemote, UnitGroupDa
     }
 
     @Override
-    protected Future applyPrimaryActivationUpdate(final boolean activation) throws CouldNotPerformException {
-        return (activation) ? getUnitRemote().setPowerState(PowerState.State.ON) : getUnitRemote().setPowerState(PowerState.State.OFF);
+    protected Future applyPrimaryActivationUpdate(final UnitGroupRemote unitRemote, final boolean activation) throws CouldNotPerformException {
+        return (activation) ? unitRemote.setPowerState(PowerState.State.ON) : unitRemote.setPowerState(PowerState.State.OFF);
     }
 }
@@ -0,0 +1,210 @@
+package org.openbase.bco.bcozy.controller;
+
+import javafx.geometry.Bounds;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Polygon;
+import org.openbase.bco.bcozy.util.FingerprintDiff;
+import org.openbase.bco.bcozy.util.QuadTree;
+import org.openbase.bco.bcozy.view.location.FloorPlanNodeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+
+import javax.media.j3d.Transform3D;
+import javax.vecmath.Vector3d;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full floor plan rebuild with the fingerprint based reconciliation of the {@link LocationPaneController}
+ * on generated placements. Both run the real code path of the controller: the full rebuild converts the shape of every
+ * location into pixel points, the reconciliation computes the fingerprints of all locations, diffs them against the
+ * applied ones and converts only the shapes of the changed locations. The root relative transformations are given,
+ * the registry lookup and the creation of the polygon nodes on the application thread are not part of the benchmark.
+ * <p>
+ * The update of the location pane is compared as well: the full update replaces the changed polygons, reattaches all
+ * polygons to the pane and rebuilds the spatial index, the incremental update of the {@link FloorPlanNodeIndex} used by
+ * the location pane only detaches, attaches and reindexes the changed polygons. The panes are not part of a scene, so
+ * the css processing of reattached nodes is not included and the full update is measured at its lower bound.
+ * <p>
+ * Run via the main method from the test classpath.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LocationReconcileBenchmark {
+
+    /**
+     * Number of floor vertices of each generated location.
+     */
+    private static final int VERTEX_COUNT = 12;
+
+    @Param({"100", "500", "1000"})
+    public int locationCount;
+
+    @Param({"1", "10"})
+    public int changedCount;
+
+    private Map<String, UnitConfig> locationMap;
+    private Map<String, Long> appliedFingerprintMap;
+    private Map<String, Transform3D> transformMap;
+    private List<UnitConfig> updatedLocationList;
+    private Pane fullPane;
+    private List<Polygon> fullPolygonList;
+    private Pane incrementalPane;
+    private List<Polygon> incrementalPolygonList;
+    private FloorPlanNodeIndex<Polygon> nodeIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final List<UnitConfig> locationList = new ArrayList<>();
+        locationList.add(createLocation("root", "root", 0, true));
+        for (int i = 0; i < locationCount; i++) {
+            locationList.add(createLocation("tile-" + i, "root", i, false));
+        }
+        locationMap = toMap(locationList);
+
+        appliedFingerprintMap = LocationPaneController.computeFingerprints(locationList, config -> LocationPaneController.computeLocationFingerprint(config, locationMap));
+        transformMap = new HashMap<>();
+        for (final UnitConfig location : locationList) {
+            final Transform3D transform = new Transform3D();
+            transform.setTranslation(new Vector3d(location.getPlacementConfig().getPosition().getTranslation().getX(), 0, 0));
+            transformMap.put(location.getId(), transform);
+        }
+
+        // move some tiles and relabel all others, only the moved ones need a rebuild.
+        updatedLocationList = new ArrayList<>();
+        for (final UnitConfig location : locationList) {
+            updatedLocationList.add(location.toBuilder().setLabel(location.getLabel() + "'").build());
+        }
+        for (int i = 1; i <= changedCount; i++) {
+            updatedLocationList.set(i, createLocation("tile-" + (i - 1), "root", -i, false));
+        }
+
+        fullPane = new Pane();
+        fullPolygonList = new ArrayList<>();
+        incrementalPane = new Pane();
+        incrementalPolygonList = new ArrayList<>();
+        nodeIndex = new FloorPlanNodeIndex<>(incrementalPane.getChildren());
+        for (int i = 0; i < locationCount; i++) {
+            fullPolygonList.add(createPolygon(i));
+            final Polygon polygon = createPolygon(i);
+            incrementalPolygonList.add(polygon);
+            nodeIndex.index(polygon);
+            nodeIndex.attach(FloorPlanNodeIndex.Layer.TILE, polygon);
+        }
+        fullPane.getChildren().addAll(fullPolygonList);
+    }
+
+    @Benchmark
+    public void fullRebuild(final Blackhole blackhole) {
+        for (final UnitConfig location : updatedLocationList) {
+            blackhole.consume(LocationPaneController.toPixelPoints(location, transformMap.get(location.getId())));
+        }
+    }
+
+    @Benchmark
+    public void reconcile(final Blackhole blackhole) {
+        final Map<String, UnitConfig> updatedLocationMap = toMap(updatedLocationList);
+        final Map<String, Long> targetFingerprintMap = LocationPaneController.computeFingerprints(updatedLocationList, config -> LocationPaneController.computeLocationFingerprint(config, updatedLocationMap));
+        final FingerprintDiff<String> diff = FingerprintDiff.compute(appliedFingerprintMap, targetFingerprintMap);
+        for (final String locationId : diff.getChanged()) {
+            blackhole.consume(LocationPaneController.toPixelPoints(updatedLocationMap.get(locationId), transformMap.get(locationId)));
+        }
+        blackhole.consume(diff);
+    }
+
+    @Benchmark
+    public void fullPaneUpdate(final Blackhole blackhole) {
+        for (int i = 0; i < changedCount; i++) {
+            fullPolygonList.set(i, createPolygon(i));
+        }
+        fullPane.getChildren().clear();
+        fullPane.getChildren().addAll(fullPolygonList);
+
+        double minX = 0;
+        double minY = 0;
+        double maxX = 0;
+        double maxY = 0;
+        for (final Polygon polygon : fullPolygonList) {
+            final Bounds bounds = polygon.getLayoutBounds();
+            minX = Math.min(minX, bounds.getMinX());
+            minY = Math.min(minY, bounds.getMinY());
+            maxX = Math.max(maxX, bounds.getMaxX());
+            maxY = Math.max(maxY, bounds.getMaxY());
+        }
+        final QuadTree<Polygon> polygonIndex = new QuadTree<>(minX, minY, maxX, maxY);
+        for (final Polygon polygon : fullPolygonList) {
+            final Bounds bounds = polygon.getLayoutBounds();
+            polygonIndex.insert(polygon, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        }
+        blackhole.consume(polygonIndex);
+    }
+
+    @Benchmark
+    public void incrementalPaneUpdate(final Blackhole blackhole) {
+        for (int i = 0; i < changedCount; i++) {
+            nodeIndex.remove(incrementalPolygonList.get(i));
+            final Polygon polygon = createPolygon(i);
+            nodeIndex.index(polygon);
+            nodeIndex.attach(FloorPlanNodeIndex.Layer.TILE, polygon);
+            incrementalPolygonList.set(i, polygon);
+        }
+        blackhole.consume(nodeIndex);
+    }
+
+    /**
+     * Creates the square of the tile with the given index, the tiles are arranged in a grid.
+     */
+    private static Polygon createPolygon(final int index) {
+        final double x = (index % 32) * 100;
+        final double y = (index / 32) * 100;
+        return new Polygon(x, y, x + 90, y, x + 90, y + 90, x, y + 90);
+    }
+
+    private static Map<String, UnitConfig> toMap(final List<UnitConfig> locationList) {
+        final Map<String, UnitConfig> map = new HashMap<>();
+        for (final UnitConfig location : locationList) {
+            map.put(location.getId(), location);
+        }
+        return map;
+    }
+
+    private static UnitConfig createLocation(final String id, final String parentId, final double x, final boolean root) {
+        final UnitConfig.Builder builder = UnitConfig.newBuilder().setId(id).setLabel(id);
+        builder.getPlacementConfigBuilder().setLocationId(parentId);
+        builder.getPlacementConfigBuilder().getPositionBuilder().getTranslationBuilder().setX(x).setY(0).setZ(0);
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            final double angle = 2 * Math.PI * i / VERTEX_COUNT;
+            builder.getPlacementConfigBuilder().getShapeBuilder().addFloorBuilder().setX(Math.cos(angle)).setY(Math.sin(angle)).setZ(0);
+        }
+        builder.getLocationConfigBuilder().setRoot(root);
+        return builder.build();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocationReconcileBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package org.openbase.bco.bcozy.model;
+
+import org.openbase.bco.bcozy.view.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the label updates per second, comparing the former lookup of the resource bundle with a placeholder
+ * replacement chain on every call against the preloaded {@link MessageTable} used by
+ * {@link LanguageSelection#getLocalized(String, Object...)}. Run via the main method from the test classpath.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LocalizationBenchmark {
+
+    private static final String PLAIN_IDENTIFIER = "startLogin";
+    private static final String FORMATTED_IDENTIFIER = "deleteErrorWithMessage";
+    private static final String MISSING_IDENTIFIER = "unknownIdentifier";
+
+    private Object[] args;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Locale.setDefault(Locale.GERMANY);
+        args = new Object[]{"Timeout"};
+    }
+
+    @Benchmark
+    public String plainLabelByBundle() {
+        return getLocalizedByBundle(PLAIN_IDENTIFIER);
+    }
+
+    @Benchmark
+    public String plainLabelByMessageTable() {
+        return LanguageSelection.getLocalized(PLAIN_IDENTIFIER);
+    }
+
+    @Benchmark
+    public String formattedLabelByBundle() {
+        return getLocalizedByBundle(FORMATTED_IDENTIFIER, args);
+    }
+
+    @Benchmark
+    public String formattedLabelByMessageTable() {
+        return LanguageSelection.getLocalized(FORMATTED_IDENTIFIER, args);
+    }
+
+    @Benchmark
+    public String missingLabelByBundle() {
+        return getLocalizedByBundle(MISSING_IDENTIFIER);
+    }
+
+    @Benchmark
+    public String missingLabelByMessageTable() {
+        return LanguageSelection.getLocalized(MISSING_IDENTIFIER);
+    }
+
+    /**
+     * The former implementation without logging of misses.
+     */
+    private static String getLocalizedByBundle(final String identifier, final Object... args) {
+        String text;
+        try {
+            text = ResourceBundle.getBundle(Constants.LANGUAGE_RESOURCE_BUNDLE, Locale.getDefault()).getString(identifier);
+            for (int i = 0; i < args.length; i++) {
+                text = text.replace("{" + i + "}", Objects.toString(args[i]));
+            }
+        } catch (MissingResourceException ex) {
+            text = identifier;
+        }
+        return text;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocalizationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,48 @@
+package org.openbase.bco.bcozy.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Locale;
+
+/**
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class MessageTableTest {
+
+    @Test
+    public void formatWithoutPlaceholders() {
+        final String text = "ANMELDEN";
+        Assert.assertSame(text, MessageTable.Template.parse(text).format());
+    }
+
+    @Test
+    public void formatReplacesPlaceholders() {
+        final MessageTable.Template template = MessageTable.Template.parse("{1} of {0}, again {1}");
+        Assert.assertEquals("b of a, again b", template.format("a", "b"));
+        Assert.assertEquals("null of 3, again null", template.format(3, null));
+    }
+
+    @Test
+    public void formatKeepsPlaceholdersWithoutArgument() {
+        final MessageTable.Template template = MessageTable.Template.parse("{0} and {1}");
+        Assert.assertEquals("a and {1}", template.format("a"));
+        Assert.assertEquals("{0} and {1}", template.format());
+    }
+
+    @Test
+    public void formatKeepsNonPlaceholderBraces() {
+        final MessageTable.Template template = MessageTable.Template.parse("{a} {} {01} {0");
+        Assert.assertEquals("{a} {} {01} {0", template.format("x", "y"));
+    }
+
+    @Test
+    public void loadGermanMessages() {
+        final MessageTable messageTable = MessageTable.load(Locale.GERMANY);
+        Assert.assertEquals("ANMELDUNG ÖFFNEN", messageTable.format("startLogin"));
+        Assert.assertEquals("Es ist leider ein Fehler aufgetreten: x", messageTable.format("deleteErrorWithMessage", "x"));
+        Assert.assertNull(messageTable.format("unknownIdentifier"));
+        Assert.assertTrue(messageTable.reportMissing("unknownIdentifier"));
+        Assert.assertFalse(messageTable.reportMissing("unknownIdentifier"));
+    }
+}
@@ -0,0 +1,72 @@
+package org.openbase.bco.bcozy.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import rst.domotic.unit.UnitConfigType.UnitConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class FingerprintDiffTest {
+
+    @Test
+    public void computeDiff() throws Exception {
+        final Map<String, Long> current = new HashMap<>();
+        current.put("kept", 1L);
+        current.put("changed", 2L);
+        current.put("removed", 3L);
+
+        final Map<String, Long> target = new HashMap<>();
+        target.put("kept", 1L);
+        target.put("changed", 20L);
+        target.put("added", 4L);
+
+        final FingerprintDiff<String> diff = FingerprintDiff.compute(current, target);
+
+        Assert.assertEquals(1, diff.getAdded().size());
+        Assert.assertTrue(diff.getAdded().contains("added"));
+        Assert.assertEquals(1, diff.getRemoved().size());
+        Assert.assertTrue(diff.getRemoved().contains("removed"));
+        Assert.assertEquals(1, diff.getChanged().size());
+        Assert.assertTrue(diff.getChanged().contains("changed"));
+        Assert.assertEquals(3, diff.size());
+        Assert.assertTrue(FingerprintDiff.compute(target, target).isEmpty());
+    }
+
+    @Test
+    public void placementFingerprint() throws Exception {
+        final Map<String, UnitConfig> locationMap = new HashMap<>();
+        final UnitConfig root = createLocation("root", "root", 0, true);
+        final UnitConfig tile = createLocation("tile", "root", 1, false);
+        locationMap.put(root.getId(), root);
+        locationMap.put(tile.getId(), tile);
+
+        final long fingerprint = PlacementFingerprint.compute(tile, locationMap::get);
+
+        // label changes do not affect the placement
+        final UnitConfig relabeledTile = tile.toBuilder().setLabel("Kitchen").build();
+        Assert.assertEquals(fingerprint, PlacementFingerprint.compute(relabeledTile, locationMap::get));
+
+        // moving the unit itself changes the placement
+        final UnitConfig movedTile = createLocation("tile", "root", 2, false);
+        Assert.assertNotEquals(fingerprint, PlacementFingerprint.compute(movedTile, locationMap::get));
+
+        // moving a parent changes the placement as well
+        locationMap.put("root", createLocation("root", "root", 5, true));
+        Assert.assertNotEquals(fingerprint, PlacementFingerprint.compute(tile, locationMap::get));
+    }
+
+    static UnitConfig createLocation(final String id, final String parentId, final double x, final boolean root) {
+        final UnitConfig.Builder builder = UnitConfig.newBuilder().setId(id).setLabel(id);
+        builder.getPlacementConfigBuilder().setLocationId(parentId);
+        builder.getPlacementConfigBuilder().getPositionBuilder().getTranslationBuilder().setX(x).setY(0).setZ(0);
+        builder.getPlacementConfigBuilder().getShapeBuilder().addFloorBuilder().setX(0).setY(0).setZ(0);
+        builder.getPlacementConfigBuilder().getShapeBuilder().addFloorBuilder().setX(1).setY(0).setZ(0);
+        builder.getPlacementConfigBuilder().getShapeBuilder().addFloorBuilder().setX(1).setY(1).setZ(0);
+        builder.getLocationConfigBuilder().setRoot(root);
+        return builder.build();
+    }
+}
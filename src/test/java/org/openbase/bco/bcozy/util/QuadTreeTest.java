@@ -0,0 +1,52 @@
+package org.openbase.bco.bcozy.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class QuadTreeTest {
+
+    @Test
+    public void query() throws Exception {
+        final QuadTree<String> quadTree = new QuadTree<>(0, 0, 1000, 1000);
+
+        // enough items to force several splits
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                quadTree.insert(x + ":" + y, x * 100, y * 100, x * 100 + 90, y * 100 + 90);
+            }
+        }
+        quadTree.insert("outside", -50, -50, -10, -10);
+        Assert.assertEquals(101, quadTree.size());
+
+        final List<String> pointResult = quadTree.query(350, 720);
+        Assert.assertEquals(1, pointResult.size());
+        Assert.assertTrue(pointResult.contains("3:7"));
+
+        Assert.assertTrue(quadTree.query(95, 95).isEmpty());
+        Assert.assertEquals(4, quadTree.query(50, 50, 150, 150).size());
+        Assert.assertTrue(quadTree.query(-20, -20).contains("outside"));
+        Assert.assertEquals(101, quadTree.query(-100, -100, 2000, 2000).size());
+    }
+
+    @Test
+    public void remove() throws Exception {
+        final QuadTree<String> quadTree = new QuadTree<>(0, 0, 100, 100);
+        quadTree.insert("item", 10, 10, 20, 20);
+        Assert.assertFalse(quadTree.query(15, 15).isEmpty());
+
+        // re-inserting moves the item
+        quadTree.insert("item", 60, 60, 70, 70);
+        Assert.assertTrue(quadTree.query(15, 15).isEmpty());
+        Assert.assertEquals(1, quadTree.query(65, 65).size());
+
+        Assert.assertTrue(quadTree.remove("item"));
+        Assert.assertFalse(quadTree.remove("item"));
+        Assert.assertEquals(0, quadTree.size());
+        Assert.assertTrue(quadTree.query(65, 65).isEmpty());
+    }
+}
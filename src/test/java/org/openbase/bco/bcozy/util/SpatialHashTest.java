@@ -0,0 +1,48 @@
+package org.openbase.bco.bcozy.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+public class SpatialHashTest {
+
+    @Test
+    public void findNearest() throws Exception {
+        final SpatialHash<String> spatialHash = new SpatialHash<>(10);
+        spatialHash.put("a", 0, 0);
+        spatialHash.put("b", 25, 0);
+        spatialHash.put("c", 38, 0);
+        Assert.assertEquals(3, spatialHash.size());
+
+        Assert.assertEquals("a", spatialHash.findNearest(9, 0));
+        Assert.assertEquals("c", spatialHash.findNearest(33, 0));
+        Assert.assertEquals("b", spatialHash.findNearest(25, 9.9));
+        Assert.assertNull(spatialHash.findNearest(13, 0));
+        Assert.assertNull(spatialHash.findNearest(0, -11));
+    }
+
+    @Test
+    public void negativeCoordinates() throws Exception {
+        final SpatialHash<String> spatialHash = new SpatialHash<>(10);
+        spatialHash.put("item", -1, -1);
+        Assert.assertEquals("item", spatialHash.findNearest(1, 1));
+        Assert.assertEquals("item", spatialHash.findNearest(-9, -4));
+    }
+
+    @Test
+    public void moveAndRemove() throws Exception {
+        final SpatialHash<String> spatialHash = new SpatialHash<>(10);
+        spatialHash.put("item", 0, 0);
+        spatialHash.put("item", 100, 100);
+        Assert.assertEquals(1, spatialHash.size());
+        Assert.assertNull(spatialHash.findNearest(0, 0));
+        Assert.assertEquals("item", spatialHash.findNearest(105, 100));
+
+        Assert.assertTrue(spatialHash.remove("item"));
+        Assert.assertFalse(spatialHash.remove("item"));
+        Assert.assertNull(spatialHash.findNearest(100, 100));
+        Assert.assertEquals(0, spatialHash.size());
+    }
+}
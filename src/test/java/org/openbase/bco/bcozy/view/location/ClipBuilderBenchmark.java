@@ -0,0 +1,82 @@
+package org.openbase.bco.bcozy.view.location;
+
+import javafx.scene.shape.Path;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former chain of incremental subtractions used to cut tiles, regions and connections out of the root
+ * zone with the batched subtraction of the {@link ClipBuilder}. The cutting shapes are laid out as a grid of rooms
+ * with a door between each pair of neighbouring rooms.
+ * <p>
+ * Run via the main method from the test classpath.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClipBuilderBenchmark {
+
+    private static final double ROOM_SIZE = 200;
+    private static final double DOOR_SIZE = 40;
+
+    @Param({"10", "100", "400"})
+    public int roomCount;
+
+    private Shape zone;
+    private List<Shape> cuttingShapes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final int columns = (int) Math.ceil(Math.sqrt(roomCount));
+        zone = new Rectangle(0, 0, columns * ROOM_SIZE, columns * ROOM_SIZE);
+        cuttingShapes = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            final double x = (i % columns) * ROOM_SIZE;
+            final double y = (i / columns) * ROOM_SIZE;
+            cuttingShapes.add(new Rectangle(x + 2, y + 2, ROOM_SIZE - 4, ROOM_SIZE - 4));
+            cuttingShapes.add(new Rectangle(x + ROOM_SIZE - 4, y + (ROOM_SIZE - DOOR_SIZE) / 2, 8, DOOR_SIZE));
+        }
+    }
+
+    @Benchmark
+    public Shape subtractChained() {
+        Shape clip = zone;
+        for (final Shape cuttingShape : cuttingShapes) {
+            clip = Path.subtract(clip, cuttingShape);
+        }
+        return clip;
+    }
+
+    @Benchmark
+    public Shape subtractBatched() {
+        return ClipBuilder.build(zone, cuttingShapes);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ClipBuilderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
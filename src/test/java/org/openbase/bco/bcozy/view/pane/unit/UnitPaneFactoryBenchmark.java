@@ -0,0 +1,94 @@
+package org.openbase.bco.bcozy.view.pane.unit;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import org.openbase.jul.exception.CouldNotPerformException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import rst.domotic.unit.UnitTemplateType.UnitTemplate.UnitType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the former unit pane creation, which resolves the pane class by its name and instantiates it reflectively,
+ * with the supplier registry of the {@link UnitPaneFactoryImpl}. Unsupported unit types are included because the
+ * former resolution had to fail with an exception for each of them.
+ * <p>
+ * The creation benchmarks need a display because the panes are created with an initialized JavaFX toolkit.
+ * Run via the main method from the test classpath.
+ *
+ * @author <a href="mailto:divine@openbase.org">Divine Threepwood</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UnitPaneFactoryBenchmark {
+
+    @Param({"LIGHT", "TEMPERATURE_SENSOR", "SMOKE_DETECTOR"})
+    public UnitType unitType;
+
+    private UnitPaneFactoryImpl factory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // initializes the toolkit
+        new JFXPanel();
+        Platform.setImplicitExit(false);
+        factory = (UnitPaneFactoryImpl) UnitPaneFactoryImpl.getInstance();
+    }
+
+    @Benchmark
+    public Class<? extends AbstractUnitPane> resolveByClassName() {
+        try {
+            return UnitPaneFactoryImpl.loadUnitPaneClass(unitType);
+        } catch (CouldNotPerformException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Supplier<AbstractUnitPane> resolveBySupplierRegistry() throws CouldNotPerformException {
+        if (!factory.isSupported(unitType)) {
+            return null;
+        }
+        return factory.getUnitPaneSupplier(unitType);
+    }
+
+    @Benchmark
+    public AbstractUnitPane createReflective() throws ReflectiveOperationException {
+        try {
+            return UnitPaneFactoryImpl.loadUnitPaneClass(unitType).newInstance();
+        } catch (CouldNotPerformException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public AbstractUnitPane createBySupplierRegistry() throws CouldNotPerformException {
+        if (!factory.isSupported(unitType)) {
+            return null;
+        }
+        return factory.newInstance(unitType);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UnitPaneFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}